@@ -0,0 +1,207 @@
+package com.cognizant.employeemanagement.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.cognizant.employeemanagement.EurekaServerApplication;
+
+/**
+ * Entry point of {@code eureka-loadtest.jar}: starts the Eureka server in this JVM (or targets a running one)
+ * and drives it with {@code instances} simulated instances.
+ * <p>
+ * The run has three phases:
+ * <ol>
+ * <li><b>registration</b>: instances register over {@code ramp}, then each does a full registry fetch, as a
+ * client does at startup;</li>
+ * <li><b>convergence</b>: an observer polls the full registry until it lists every instance as UP. This
+ * includes the server's read-only response cache, so it is how long a new instance takes to become
+ * visible to the rest of the system;</li>
+ * <li><b>soak</b>: for {@code duration}, every instance renews its lease each {@code renew-interval} and
+ * fetches the delta each {@code fetch-interval}, at a fixed rate regardless of how slow the server is.</li>
+ * </ol>
+ * Options are system properties ({@code -Dinstances=500}); arguments starting with {@code --} are passed to
+ * the in-process server (e.g. {@code --eureka.server.response-cache-update-interval-ms=5000}). Server heap is
+ * only reported in-process, as the heap retained after a full GC above the idle server's.
+ */
+public final class EurekaLoadTest {
+
+	private static final Pattern UP_COUNT = Pattern.compile("UP_(\\d+)_");
+
+	private EurekaLoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int instanceCount = Integer.getInteger("instances", 200);
+		int apps = Integer.getInteger("apps", 20);
+		Duration ramp = Duration.parse(System.getProperty("ramp", "PT10S"));
+		// Eureka clients default to 30s for both; shorter intervals put the same load on a smaller registry
+		Duration renewInterval = Duration.parse(System.getProperty("renew-interval", "PT30S"));
+		Duration fetchInterval = Duration.parse(System.getProperty("fetch-interval", "PT30S"));
+		Duration fullFetchInterval = Duration.parse(System.getProperty("full-fetch-interval", "PT0S"));
+		Duration duration = Duration.parse(System.getProperty("duration", "PT5M"));
+		String eurekaUrl = System.getProperty("eureka-url", "");
+
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		ConfigurableApplicationContext server = null;
+		if (eurekaUrl.isEmpty()) {
+			server = startServer(args);
+			eurekaUrl = "http://localhost:" + server.getEnvironment().getProperty("local.server.port");
+		}
+
+		HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+		LatencyRecorder register = new LatencyRecorder("register");
+		LatencyRecorder renew = new LatencyRecorder("renew");
+		LatencyRecorder fullFetch = new LatencyRecorder("fetch (full)");
+		LatencyRecorder deltaFetch = new LatencyRecorder("fetch (delta)");
+		LatencyRecorder cancel = new LatencyRecorder("cancel");
+
+		List<SimulatedInstance> instances = new ArrayList<>(instanceCount);
+		for (int i = 0; i < instanceCount; i++) {
+			instances.add(new SimulatedInstance(http, eurekaUrl, i, apps, renewInterval));
+		}
+		// Measured after the simulated instances exist, so their own objects are not counted as server heap
+		long idleHeap = server != null ? retainedHeap(memory) : -1;
+		int alreadyUp = upCount(http, eurekaUrl);
+		System.out.printf("Eureka load test: %d instances of %d apps against %s; renew every %s, delta fetch every %s, soak %s%n",
+				instanceCount, apps, eurekaUrl, renewInterval, fetchInterval, duration);
+
+		// Registration, spread evenly over the ramp
+		long start = System.nanoTime();
+		AtomicLong lastRegistered = new AtomicLong(start);
+		long step = instanceCount > 1 ? ramp.toNanos() / (instanceCount - 1) : 0;
+		for (int i = 0; i < instanceCount; i++) {
+			SimulatedInstance instance = instances.get(i);
+			scheduler.schedule(() -> workers.execute(() -> {
+				instance.register(register);
+				lastRegistered.accumulateAndGet(System.nanoTime(), Math::max);
+				instance.fetchFull(fullFetch);
+			}), i * step, TimeUnit.NANOSECONDS);
+		}
+
+		// Convergence: how long until a full fetch lists them all
+		int expected = alreadyUp + instanceCount;
+		long deadline = start + ramp.toNanos() + TimeUnit.MINUTES.toNanos(5);
+		int seen;
+		while ((seen = upCount(http, eurekaUrl)) < expected && System.nanoTime() < deadline) {
+			Thread.sleep(250);
+		}
+		long converged = System.nanoTime();
+		long registeredHeap = server != null ? retainedHeap(memory) : -1;
+
+		// Soak: fixed-rate heartbeats and fetches, each instance at a random phase
+		List<ScheduledFuture<?>> tasks = new ArrayList<>();
+		for (SimulatedInstance instance : instances) {
+			tasks.add(atFixedRate(scheduler, workers, () -> instance.renew(renew, register), renewInterval));
+			tasks.add(atFixedRate(scheduler, workers, () -> instance.fetchDelta(deltaFetch), fetchInterval));
+			if (!fullFetchInterval.isZero()) {
+				tasks.add(atFixedRate(scheduler, workers, () -> instance.fetchFull(fullFetch), fullFetchInterval));
+			}
+		}
+		AtomicLong peakHeap = new AtomicLong();
+		if (server != null) {
+			tasks.add(scheduler.scheduleAtFixedRate(
+					() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max), 0, 1, TimeUnit.SECONDS));
+		}
+		Thread.sleep(duration.toMillis());
+		tasks.forEach(task -> task.cancel(false));
+		long soakHeap = server != null ? retainedHeap(memory) : -1;
+
+		for (SimulatedInstance instance : instances) {
+			workers.execute(() -> instance.cancel(cancel));
+		}
+		scheduler.shutdown();
+		workers.shutdown();
+		workers.awaitTermination(1, TimeUnit.MINUTES);
+
+		System.out.println();
+		System.out.println(LatencyRecorder.header());
+		for (LatencyRecorder recorder : List.of(register, renew, fullFetch, deltaFetch, cancel)) {
+			System.out.println(recorder.summary());
+		}
+		System.out.println();
+		if (seen < expected) {
+			System.out.printf("Registry did NOT converge: %d of %d instances UP after %d ms%n", seen - alreadyUp,
+					instanceCount, TimeUnit.NANOSECONDS.toMillis(converged - start));
+		} else {
+			System.out.printf("Registry converged %d ms after the first registration, %d ms after the last%n",
+					TimeUnit.NANOSECONDS.toMillis(converged - start),
+					TimeUnit.NANOSECONDS.toMillis(converged - lastRegistered.get()));
+		}
+		if (server != null) {
+			System.out.printf("Server heap retained: idle %d MB; +%d MB after registration (%d KB per instance); "
+					+ "+%d MB after the soak; peak used %d MB%n",
+					mb(idleHeap), mb(registeredHeap - idleHeap), (registeredHeap - idleHeap) / 1024 / instanceCount,
+					mb(soakHeap - idleHeap), mb(peakHeap.get()));
+		}
+		// The shutdown hook closes the in-process server
+		System.exit(0);
+	}
+
+	private static ConfigurableApplicationContext startServer(String[] args) {
+		List<String> serverArgs = new ArrayList<>(List.of("--server.port=0", "--spring.main.banner-mode=off",
+				"--logging.level.root=WARN", "--eureka.client.register-with-eureka=false",
+				"--eureka.client.fetch-registry=false"));
+		for (String arg : args) {
+			if (arg.startsWith("--")) {
+				serverArgs.add(arg);
+			}
+		}
+		return SpringApplication.run(EurekaServerApplication.class, serverArgs.toArray(new String[0]));
+	}
+
+	private static ScheduledFuture<?> atFixedRate(ScheduledExecutorService scheduler,
+			ExecutorService workers, Runnable task, Duration interval) {
+		long period = interval.toNanos();
+		return scheduler.scheduleAtFixedRate(() -> workers.execute(task),
+				ThreadLocalRandom.current().nextLong(period), period, TimeUnit.NANOSECONDS);
+	}
+
+	// The full registry carries an "apps__hashcode" such as UP_200_, i.e. the number of instances per status
+	private static int upCount(HttpClient http, String eurekaUrl) throws InterruptedException {
+		try {
+			HttpRequest request = HttpRequest.newBuilder(URI.create(eurekaUrl + "/eureka/apps/"))
+					.header("Accept", "application/json")
+					.timeout(Duration.ofSeconds(10))
+					.build();
+			Matcher matcher = UP_COUNT.matcher(http.send(request, HttpResponse.BodyHandlers.ofString()).body());
+			return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private static long retainedHeap(MemoryMXBean memory) throws InterruptedException {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(200);
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	private static long mb(long bytes) {
+		return bytes / (1024 * 1024);
+	}
+}
@@ -0,0 +1,67 @@
+package com.cognizant.employeemanagement.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps every latency sample of one operation so exact percentiles can be reported at the end. A soak run
+ * records a few million samples at most, which fits comfortably in memory.
+ * <p>
+ * The authentication service load test has a copy of this class that also breaks errors down by HTTP status
+ * and reports throughput. Both load tests are standalone jars, so they do not share a module; a fix to the
+ * percentile code here belongs in both.
+ */
+final class LatencyRecorder {
+
+	private final String operation;
+	private final LongAdder errors = new LongAdder();
+	private long[] samples = new long[1024];
+	private int count;
+
+	LatencyRecorder(String operation) {
+		this.operation = operation;
+	}
+
+	synchronized void record(long nanos) {
+		if (count == samples.length) {
+			samples = Arrays.copyOf(samples, count * 2);
+		}
+		samples[count++] = nanos;
+	}
+
+	void error() {
+		errors.increment();
+	}
+
+	String operation() {
+		return operation;
+	}
+
+	String summary() {
+		long[] sorted;
+		synchronized (this) {
+			sorted = Arrays.copyOf(samples, count);
+		}
+		Arrays.sort(sorted);
+		return String.format("%-13s %9d %7d %9s %9s %9s %9s %9s", operation, sorted.length, errors.sum(),
+				millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 0.999),
+				sorted.length == 0 ? "-" : format(sorted[sorted.length - 1]));
+	}
+
+	static String header() {
+		return String.format("%-13s %9s %7s %9s %9s %9s %9s %9s", "operation", "requests", "errors", "p50 ms",
+				"p90 ms", "p99 ms", "p99.9 ms", "max ms");
+	}
+
+	private static String millis(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return "-";
+		}
+		int index = (int) Math.ceil(quantile * sorted.length) - 1;
+		return format(sorted[Math.max(0, index)]);
+	}
+
+	private static String format(long nanos) {
+		return String.format("%.2f", nanos / 1_000_000.0);
+	}
+}
@@ -0,0 +1,104 @@
+package com.cognizant.employeemanagement.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * One fake service instance, talking to the Eureka REST API exactly as a Eureka client does: register once,
+ * renew its lease on every heartbeat, fetch the registry (full at startup, deltas afterwards) and cancel on
+ * shutdown.
+ * <p>
+ * The registration body mirrors what a Spring Cloud client sends, metadata included, so the server holds
+ * roughly as much per instance as it will in production.
+ */
+final class SimulatedInstance {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	private final HttpClient http;
+	private final String baseUrl;
+	private final String app;
+	private final String instanceId;
+	private final String registration;
+	private final long lastDirtyTimestamp = System.currentTimeMillis();
+
+	SimulatedInstance(HttpClient http, String baseUrl, int index, int apps, Duration leaseRenewal) {
+		this.http = http;
+		this.baseUrl = baseUrl;
+		this.app = "LOADTEST-APP-" + (index % apps);
+		String ip = "10." + (index >> 16 & 255) + "." + (index >> 8 & 255) + "." + (index & 255);
+		this.instanceId = ip + ":" + app.toLowerCase() + ":8080";
+		long renewalSeconds = Math.max(1, leaseRenewal.toSeconds());
+		this.registration = """
+				{"instance":{"instanceId":"%1$s","hostName":"%2$s","app":"%3$s","ipAddr":"%2$s","status":"UP",\
+				"overriddenStatus":"UNKNOWN","port":{"$":8080,"@enabled":"true"},"securePort":{"$":443,"@enabled":"false"},\
+				"countryId":1,"dataCenterInfo":{"@class":"com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo","name":"MyOwn"},\
+				"leaseInfo":{"renewalIntervalInSecs":%4$d,"durationInSecs":%5$d},\
+				"metadata":{"management.port":"8080","zone":"default","version":"0.0.1-SNAPSHOT"},\
+				"homePageUrl":"http://%2$s:8080/","statusPageUrl":"http://%2$s:8080/actuator/info",\
+				"healthCheckUrl":"http://%2$s:8080/actuator/health","vipAddress":"%6$s","secureVipAddress":"%6$s",\
+				"isCoordinatingDiscoveryServer":"false","lastDirtyTimestamp":"%7$d"}}"""
+				.formatted(instanceId, ip, app, renewalSeconds, renewalSeconds * 3, app.toLowerCase(), lastDirtyTimestamp);
+	}
+
+	void register(LatencyRecorder recorder) {
+		call(recorder, request("/eureka/apps/" + app)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(registration)), 204);
+	}
+
+	/**
+	 * Renews the lease; when the server no longer knows the instance (it expired or was evicted) it registers
+	 * again, as a real client does.
+	 */
+	void renew(LatencyRecorder recorder, LatencyRecorder registerRecorder) {
+		int status = call(recorder, request("/eureka/apps/" + app + "/" + instanceId + "?status=UP&lastDirtyTimestamp="
+				+ lastDirtyTimestamp).PUT(HttpRequest.BodyPublishers.noBody()), 200);
+		if (status == 404) {
+			register(registerRecorder);
+		}
+	}
+
+	void fetchFull(LatencyRecorder recorder) {
+		call(recorder, request("/eureka/apps/").GET(), 200);
+	}
+
+	void fetchDelta(LatencyRecorder recorder) {
+		call(recorder, request("/eureka/apps/delta").GET(), 200);
+	}
+
+	void cancel(LatencyRecorder recorder) {
+		call(recorder, request("/eureka/apps/" + app + "/" + instanceId).DELETE(), 200);
+	}
+
+	private HttpRequest.Builder request(String path) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(TIMEOUT)
+				.header("Accept", "application/json");
+	}
+
+	/**
+	 * @return the HTTP status, or -1 if the request failed
+	 */
+	private int call(LatencyRecorder recorder, HttpRequest.Builder request, int expectedStatus) {
+		long start = System.nanoTime();
+		try {
+			int status = http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+			if (status == expectedStatus) {
+				recorder.record(System.nanoTime() - start);
+			} else {
+				recorder.error();
+			}
+			return status;
+		} catch (Exception e) {
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			recorder.error();
+			return -1;
+		}
+	}
+}
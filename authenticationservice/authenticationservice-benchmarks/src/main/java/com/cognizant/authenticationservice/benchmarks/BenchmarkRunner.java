@@ -0,0 +1,28 @@
+package com.cognizant.authenticationservice.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line, but unless told otherwise
+ * writes results as JSON to {@code jmh-result.json} so runs can be compared between releases.
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		List<String> options = new ArrayList<>(Arrays.asList(args));
+		if (!options.contains("-rf")) {
+			options.addAll(List.of("-rf", "json"));
+		}
+		if (!options.contains("-rff")) {
+			options.addAll(List.of("-rff", "jmh-result.json"));
+		}
+		Main.main(options.toArray(new String[0]));
+	}
+}
@@ -0,0 +1,112 @@
+package com.cognizant.authenticationservice.benchmarks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.cognizant.authenticationservice.UserDetailsImp;
+import com.cognizant.authenticationservice.dto.EmployeeDto;
+import com.cognizant.authenticationservice.util.JwtUtil;
+
+/**
+ * Concurrent-login throughput of the thread-per-request model versus virtual threads.
+ * <p>
+ * Each login is what {@code /api/auth/login} does: a user lookup through {@link UserDetailsImp}, whose
+ * employee-service call is simulated with a blocking {@code remoteLatencyMs} pause, a BCrypt check and
+ * token signing. A burst of {@link #BURST} logins is submitted at once, either to a fixed pool the size
+ * of Tomcat's default {@code server.tomcat.threads.max} (200) or to one virtual thread per login, which is
+ * what {@code spring.threads.virtual.enabled=true} gives Tomcat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConcurrentLoginBenchmark {
+
+	static final int BURST = 2000;
+
+	private static final String PASSWORD = "Password1";
+
+	@Param({ "platform", "virtual" })
+	public String threads;
+
+	@Param({ "50" })
+	public int remoteLatencyMs;
+
+	// Kept low so the comparison is about waiting on the remote call, not about CPU spent in BCrypt
+	@Param({ "4" })
+	public int bcryptStrength;
+
+	private ExecutorService executor;
+	private AuthenticationManager authenticationManager;
+	private JwtUtil jwtUtil;
+
+	@Setup
+	public void setUp() {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(bcryptStrength);
+		EmployeeDto employee = Fixtures.employee();
+		employee.setPassword(encoder.encode(PASSWORD));
+
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+		provider.setUserDetailsService(
+				new UserDetailsImp(Fixtures.stubEmployeeClient(employee, Duration.ofMillis(remoteLatencyMs))));
+		authenticationManager = new ProviderManager(provider);
+		jwtUtil = new JwtUtil();
+
+		executor = "virtual".equals(threads) ? Executors.newVirtualThreadPerTaskExecutor()
+				: Executors.newFixedThreadPool(200);
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BURST)
+	public int loginBurst() throws Exception {
+		List<Future<String>> logins = new ArrayList<>(BURST);
+		for (int i = 0; i < BURST; i++) {
+			logins.add(executor.submit(this::login));
+		}
+		int issued = 0;
+		for (Future<String> login : logins) {
+			if (login.get() != null) {
+				issued++;
+			}
+		}
+		return issued;
+	}
+
+	private String login() {
+		Authentication authentication = authenticationManager
+				.authenticate(new UsernamePasswordAuthenticationToken(Fixtures.USERNAME, PASSWORD));
+		return jwtUtil.generateToken(authentication.getName(), Fixtures.ROLE);
+	}
+}
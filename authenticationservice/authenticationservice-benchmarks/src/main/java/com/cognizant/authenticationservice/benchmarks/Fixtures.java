@@ -0,0 +1,122 @@
+package com.cognizant.authenticationservice.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+
+import com.cognizant.authenticationservice.dto.CredentialDto;
+import com.cognizant.authenticationservice.dto.CredentialFeedDto;
+import com.cognizant.authenticationservice.dto.EmployeeDto;
+import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+
+/**
+ * Shared test data and an in-memory stand-in for the Employee Management Service.
+ */
+final class Fixtures {
+
+	static final String USERNAME = "jdoe";
+	static final String ROLE = "ROLE_MANAGER";
+
+	// Only its shape matters here; password matching is measured separately in PasswordEncoderBenchmark
+	static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8Z5b5HbvF1H9Hr6Q3yE2y9K";
+
+	private Fixtures() {
+	}
+
+	static EmployeeDto employee() {
+		EmployeeDto employee = new EmployeeDto();
+		employee.setEmployeeId(42);
+		employee.setManagerId(7);
+		employee.setUsername(USERNAME);
+		employee.setPassword(PASSWORD_HASH);
+		employee.setFirstName("John");
+		employee.setLastName("Doe");
+		employee.setEmail("john.doe@example.com");
+		employee.setPhoneNumber("9876543210");
+		employee.setDepartment("Operations");
+		employee.setRole(ROLE);
+		employee.setShiftId(3);
+		employee.setJoinedDate(LocalDate.of(2022, 4, 1));
+		return employee;
+	}
+
+	/**
+	 * Answers every call locally with the same employee record, so benchmarks measure only this service's code.
+	 */
+	static EmployeeFeignClient stubEmployeeClient() {
+		return stubEmployeeClient(employee(), Duration.ZERO);
+	}
+
+	/**
+	 * Like {@link #stubEmployeeClient()}, but every call blocks for {@code latency} first, like a remote call would.
+	 */
+	static EmployeeFeignClient stubEmployeeClient(EmployeeDto employee, Duration latency) {
+		return new EmployeeFeignClient() {
+			@Override
+			public ResponseEntity<EmployeeDto> register(EmployeeDto dto) {
+				pause(latency);
+				return ResponseEntity.ok(dto);
+			}
+
+			@Override
+			public ResponseEntity<List<EmployeeDto>> registerAll(List<EmployeeDto> employees) {
+				pause(latency);
+				return ResponseEntity.ok(employees);
+			}
+
+			@Override
+			public ResponseEntity<EmployeeDto> findByUsername(String username) {
+				pause(latency);
+				return ResponseEntity.ok(employee);
+			}
+
+			@Override
+			public ResponseEntity<List<EmployeeDto>> findAllByUsername(List<String> usernames) {
+				pause(latency);
+				return ResponseEntity.ok(usernames.contains(employee.getUsername()) ? List.of(employee) : List.of());
+			}
+
+			@Override
+			public ResponseEntity<Void> updatePassword(String username, String encodedPassword) {
+				pause(latency);
+				return ResponseEntity.noContent().build();
+			}
+
+			@Override
+			public ResponseEntity<CredentialFeedDto> credentialSnapshot() {
+				pause(latency);
+				CredentialDto credential = new CredentialDto();
+				credential.setUsername(employee.getUsername());
+				credential.setPassword(employee.getPassword());
+				credential.setRole(employee.getRole());
+				credential.setEmployeeId(employee.getEmployeeId());
+				credential.setManagerId(employee.getManagerId());
+				CredentialFeedDto feed = new CredentialFeedDto();
+				feed.setVersion(1);
+				feed.setCredentials(List.of(credential));
+				return ResponseEntity.ok(feed);
+			}
+
+			@Override
+			public ResponseEntity<CredentialFeedDto> credentialChanges(long since) {
+				pause(latency);
+				CredentialFeedDto feed = new CredentialFeedDto();
+				feed.setVersion(since);
+				return ResponseEntity.ok(feed);
+			}
+		};
+	}
+
+	private static void pause(Duration latency) {
+		if (latency.isZero()) {
+			return;
+		}
+		try {
+			Thread.sleep(latency);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
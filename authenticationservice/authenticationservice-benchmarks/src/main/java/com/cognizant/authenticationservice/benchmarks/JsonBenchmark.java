@@ -0,0 +1,69 @@
+package com.cognizant.authenticationservice.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.cognizant.authenticationservice.dto.AuthenticationResponseDTO;
+import com.cognizant.authenticationservice.dto.EmployeeDto;
+import com.cognizant.authenticationservice.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson (de)serialization of the DTOs exchanged with the frontend and the Employee Management Service,
+ * using an ObjectMapper configured the way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+	private ObjectMapper objectMapper;
+	private EmployeeDto employee;
+	private byte[] employeeJson;
+	private AuthenticationResponseDTO response;
+	private byte[] responseJson;
+
+	@Setup
+	public void setUp() throws Exception {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		employee = Fixtures.employee();
+		employeeJson = objectMapper.writeValueAsBytes(employee);
+		response = new AuthenticationResponseDTO(new JwtUtil()
+				.generateToken(Fixtures.USERNAME, Fixtures.ROLE, 42, 7, "c2lnbmF0dXJl"));
+		responseJson = objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public byte[] serializeEmployeeDto() throws Exception {
+		return objectMapper.writeValueAsBytes(employee);
+	}
+
+	@Benchmark
+	public EmployeeDto deserializeEmployeeDto() throws Exception {
+		return objectMapper.readValue(employeeJson, EmployeeDto.class);
+	}
+
+	@Benchmark
+	public byte[] serializeAuthenticationResponse() throws Exception {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public AuthenticationResponseDTO deserializeAuthenticationResponse() throws Exception {
+		return objectMapper.readValue(responseJson, AuthenticationResponseDTO.class);
+	}
+}
@@ -0,0 +1,95 @@
+package com.cognizant.authenticationservice.benchmarks;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.cognizant.authenticationservice.EmployeeUserDetails;
+import com.cognizant.authenticationservice.JwtRequestFilter;
+import com.cognizant.authenticationservice.UserDetailsImp;
+import com.cognizant.authenticationservice.audit.AuditJournal;
+import com.cognizant.authenticationservice.cache.VerifiedTokenCache;
+import com.cognizant.authenticationservice.security.GatewayIdentity;
+import com.cognizant.authenticationservice.security.OpaqueTokenStore;
+import com.cognizant.authenticationservice.security.TokenRevocationList;
+import com.cognizant.authenticationservice.util.JwtUtil;
+
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * One complete {@link JwtRequestFilter} pass for an authenticated request, with the employee service
+ * replaced by an in-memory stub. The parameters switch the verified-token cache and the claims-only
+ * principal mode on and off, and fill the revocation list with other tokens' ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean tokenCache;
+
+	@Param({ "false", "true" })
+	public boolean statelessPrincipal;
+
+	@Param({ "0", "100000" })
+	public int revokedTokens;
+
+	private JwtRequestFilter filter;
+	private MockHttpServletRequest request;
+
+	@Setup
+	public void setUp() {
+		JwtUtil jwtUtil = new JwtUtil();
+		VerifiedTokenCache cache = new VerifiedTokenCache(tokenCache, 10000, Duration.ofMinutes(10));
+
+		TokenRevocationList revocations = new TokenRevocationList(100000, 0.01);
+		long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+		for (int i = 0; i < revokedTokens; i++) {
+			revocations.revoke(UUID.randomUUID().toString(), expiresAt);
+		}
+
+		filter = new JwtRequestFilter(jwtUtil, new UserDetailsImp(Fixtures.stubEmployeeClient()), cache, revocations,
+				new GatewayIdentity(""),
+				new AuditJournal(false, "audit", 16 * 1024 * 1024, 32, 65536, Duration.ofMillis(50)),
+				new OpaqueTokenStore(false, Duration.ofMinutes(30), Duration.ofHours(12), 1, 1, ""),
+				statelessPrincipal, Metrics.globalRegistry);
+
+		String token = jwtUtil.generateToken(Fixtures.USERNAME, Fixtures.ROLE, 42, 7,
+				EmployeeUserDetails.credentialVersionOf(Fixtures.PASSWORD_HASH));
+		request = new MockHttpServletRequest("GET", "/api/attendance/today");
+		request.addHeader("Authorization", "Bearer " + token);
+	}
+
+	@Benchmark
+	public Authentication doFilter() throws Exception {
+		try {
+			filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+			return SecurityContextHolder.getContext().getAuthentication();
+		} finally {
+			SecurityContextHolder.clearContext();
+			// OncePerRequestFilter marks the request as filtered; reset so every invocation runs the full pass
+			request.removeAttribute(JwtRequestFilter.class.getName() + ".FILTERED");
+		}
+	}
+}
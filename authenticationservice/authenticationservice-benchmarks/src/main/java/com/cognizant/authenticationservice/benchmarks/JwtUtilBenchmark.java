@@ -0,0 +1,63 @@
+package com.cognizant.authenticationservice.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cognizant.authenticationservice.util.JwtUtil;
+import com.cognizant.authenticationservice.util.VerifiedToken;
+
+/**
+ * Token signing and the individual verification entry points of {@link JwtUtil}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+	private JwtUtil jwtUtil;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtUtil = new JwtUtil();
+		token = jwtUtil.generateToken(Fixtures.USERNAME, Fixtures.ROLE, 42, 7, "c2lnbmF0dXJl");
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtUtil.generateToken(Fixtures.USERNAME, Fixtures.ROLE, 42, 7, "c2lnbmF0dXJl");
+	}
+
+	@Benchmark
+	public boolean validateToken() {
+		return jwtUtil.validateToken(token);
+	}
+
+	@Benchmark
+	public String extractUsername() {
+		return jwtUtil.extractUsername(token);
+	}
+
+	@Benchmark
+	public String extractRole() {
+		return jwtUtil.extractRole(token);
+	}
+
+	@Benchmark
+	public VerifiedToken verify() {
+		return jwtUtil.verify(token);
+	}
+}
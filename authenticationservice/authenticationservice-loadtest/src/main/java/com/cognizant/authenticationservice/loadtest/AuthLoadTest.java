@@ -0,0 +1,276 @@
+package com.cognizant.authenticationservice.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.cognizant.authenticationservice.AuthenticationserviceApplication;
+import com.cognizant.authenticationservice.dto.AuthenticationRequestDto;
+import com.cognizant.authenticationservice.dto.EmployeeDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Entry point of {@code auth-loadtest.jar}: starts an {@link EmployeeServiceStub} and the authentication
+ * service in this JVM, pointed at the stub, and drives it over HTTP.
+ * <p>
+ * The run has three phases:
+ * <ol>
+ * <li><b>register</b>: a manager registers {@code users} employees through {@code /api/auth/register}, with
+ * {@code concurrency} requests in flight;</li>
+ * <li><b>login</b>: {@code storms} times, every employee logs in at the same instant, with
+ * {@code storm-pause} between storms. The first storm finds the user cache cold, later ones warm;</li>
+ * <li><b>authenticated</b>: for {@code duration}, {@code concurrency} clients send requests with the tokens
+ * from the login phase, each request as soon as the previous one answered.</li>
+ * </ol>
+ * Options are system properties ({@code -Dusers=1000}); arguments starting with {@code --} are passed to the
+ * service (e.g. {@code --spring.threads.virtual.enabled=true}). Login throttling is off unless re-enabled
+ * that way, since every simulated user logs in from the same address.
+ */
+public final class AuthLoadTest {
+
+	private static final String PASSWORD = "LoadTest1";
+	private static final String MANAGER = "loadtest-manager";
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	private static final ObjectMapper JSON = new ObjectMapper().findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	private AuthLoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int users = Integer.getInteger("users", 500);
+		int concurrency = Integer.getInteger("concurrency", 64);
+		int storms = Integer.getInteger("storms", 3);
+		Duration stormPause = Duration.parse(System.getProperty("storm-pause", "PT2S"));
+		Duration duration = Duration.parse(System.getProperty("duration", "PT30S"));
+		Duration stubLatency = Duration.parse(System.getProperty("stub-latency", "PT0.005S"));
+		Duration stubSlowLatency = Duration.parse(System.getProperty("stub-slow-latency", "PT0.2S"));
+		double stubSlowRatio = Double.parseDouble(System.getProperty("stub-slow-ratio", "0.01"));
+		double stubErrorRate = Double.parseDouble(System.getProperty("stub-error-rate", "0"));
+		int stubPort = Integer.getInteger("stub-port", 0);
+
+		EmployeeServiceStub stub = new EmployeeServiceStub(stubPort, stubLatency, stubSlowLatency, stubSlowRatio,
+				stubErrorRate);
+		stub.put(employee(1, MANAGER, "ROLE_MANAGER", "{bcrypt}" + new BCryptPasswordEncoder(10).encode(PASSWORD)));
+		ConfigurableApplicationContext service = startService(stub.url(), args);
+		String baseUrl = "http://localhost:" + service.getEnvironment().getProperty("local.server.port");
+
+		HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+		System.out.printf("Authentication load test: %d users, %d concurrent clients, %d login storms, %s authenticated;"
+				+ " employee service stub at %s answering in %s (%s for %.1f%%), failing %.1f%%%n", users, concurrency,
+				storms, duration, stub.url(), stubLatency, stubSlowLatency, stubSlowRatio * 100, stubErrorRate * 100);
+
+		String managerToken = login(http, baseUrl, MANAGER, null);
+		if (managerToken == null) {
+			System.out.println("Manager login failed; is the employee service stub failing every call?");
+			System.exit(1);
+		}
+
+		LatencyRecorder register = new LatencyRecorder("register");
+		CountDownLatch registered = new CountDownLatch(users);
+		Semaphore inFlight = new Semaphore(concurrency);
+		long start = System.nanoTime();
+		for (int i = 0; i < users; i++) {
+			EmployeeDto employee = employee(i + 2, username(i), "ROLE_EMPLOYEE", PASSWORD);
+			inFlight.acquire();
+			clients.execute(() -> {
+				try {
+					send(http, register, 201, post(baseUrl + "/api/auth/register", employee)
+							.header("Authorization", "Bearer " + managerToken));
+				} finally {
+					inFlight.release();
+					registered.countDown();
+				}
+			});
+		}
+		registered.await();
+		register.elapsed(System.nanoTime() - start);
+
+		LatencyRecorder login = new LatencyRecorder("login");
+		AtomicReferenceArray<String> tokens = new AtomicReferenceArray<>(users);
+		long loginNanos = 0;
+		for (int storm = 0; storm < storms; storm++) {
+			if (storm > 0) {
+				Thread.sleep(stormPause.toMillis());
+			}
+			CountDownLatch ready = new CountDownLatch(users);
+			CountDownLatch go = new CountDownLatch(1);
+			CountDownLatch done = new CountDownLatch(users);
+			for (int i = 0; i < users; i++) {
+				int user = i;
+				clients.execute(() -> {
+					try {
+						ready.countDown();
+						go.await();
+						String token = login(http, baseUrl, username(user), login);
+						if (token != null) {
+							tokens.set(user, token);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						done.countDown();
+					}
+				});
+			}
+			ready.await();
+			start = System.nanoTime();
+			go.countDown();
+			done.await();
+			loginNanos += System.nanoTime() - start;
+		}
+		login.elapsed(loginNanos);
+
+		List<String> issued = new ArrayList<>();
+		for (int i = 0; i < users; i++) {
+			if (tokens.get(i) != null) {
+				issued.add(tokens.get(i));
+			}
+		}
+		LatencyRecorder authenticated = new LatencyRecorder("authenticated");
+		if (!issued.isEmpty()) {
+			long end = System.nanoTime() + duration.toNanos();
+			CountDownLatch finished = new CountDownLatch(concurrency);
+			start = System.nanoTime();
+			for (int i = 0; i < concurrency; i++) {
+				clients.execute(() -> {
+					while (System.nanoTime() < end) {
+						String token = issued.get(ThreadLocalRandom.current().nextInt(issued.size()));
+						send(http, authenticated, 200, request(baseUrl + ProtectedResourceController.PATH).GET()
+								.header("Authorization", "Bearer " + token));
+					}
+					finished.countDown();
+				});
+			}
+			finished.await();
+			authenticated.elapsed(System.nanoTime() - start);
+		}
+		clients.shutdown();
+		clients.awaitTermination(1, TimeUnit.MINUTES);
+
+		System.out.println();
+		System.out.println(LatencyRecorder.header());
+		for (LatencyRecorder recorder : List.of(register, login, authenticated)) {
+			System.out.println(recorder.summary());
+		}
+		System.out.println();
+		System.out.printf("Tokens issued to %d of %d users; employee service calls: %s%n", issued.size(), users,
+				new TreeMap<>(stub.callCounts()));
+		service.close();
+		stub.close();
+		System.exit(0);
+	}
+
+	private static ConfigurableApplicationContext startService(String employeeServiceUrl, String[] args) {
+		List<String> serviceArgs = new ArrayList<>(List.of("--server.port=0", "--spring.main.banner-mode=off",
+				"--logging.level.root=WARN", "--eureka.client.enabled=false", "--auth.login-throttle.enabled=false",
+				"--employee-service.url=" + employeeServiceUrl));
+		for (String arg : args) {
+			if (arg.startsWith("--")) {
+				serviceArgs.add(arg);
+			}
+		}
+		return SpringApplication.run(AuthenticationserviceApplication.class, serviceArgs.toArray(new String[0]));
+	}
+
+	/**
+	 * @param recorder where to record the request, or {@code null} to leave it out of the results
+	 * @return the access token, or {@code null} if the login failed
+	 */
+	private static String login(HttpClient http, String baseUrl, String username, LatencyRecorder recorder) {
+		AuthenticationRequestDto credentials = new AuthenticationRequestDto();
+		credentials.setUsername(username);
+		credentials.setPassword(PASSWORD);
+		HttpResponse<byte[]> response = send(http, recorder, 200, post(baseUrl + "/api/auth/login", credentials));
+		if (response == null || response.statusCode() != 200) {
+			return null;
+		}
+		try {
+			return JSON.readTree(response.body()).path("token").asText(null);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the response, or {@code null} if the request failed
+	 */
+	private static HttpResponse<byte[]> send(HttpClient http, LatencyRecorder recorder, int expectedStatus,
+			HttpRequest.Builder request) {
+		long start = System.nanoTime();
+		try {
+			HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+			if (recorder != null) {
+				if (response.statusCode() == expectedStatus) {
+					recorder.record(System.nanoTime() - start);
+				} else {
+					recorder.error(response.statusCode());
+				}
+			}
+			return response;
+		} catch (Exception e) {
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			if (recorder != null) {
+				recorder.error(-1);
+			}
+			return null;
+		}
+	}
+
+	private static HttpRequest.Builder request(String url) {
+		return HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT);
+	}
+
+	private static HttpRequest.Builder post(String url, Object body) {
+		try {
+			return request(url).header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)));
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	private static String username(int index) {
+		return String.format("loadtest-user-%05d", index);
+	}
+
+	private static EmployeeDto employee(int employeeId, String username, String role, String password) {
+		EmployeeDto employee = new EmployeeDto();
+		employee.setEmployeeId(employeeId);
+		employee.setManagerId(1);
+		employee.setUsername(username);
+		employee.setPassword(password);
+		employee.setFirstName("Load");
+		employee.setLastName("Test");
+		employee.setEmail(username + "@example.com");
+		employee.setPhoneNumber("9876543210");
+		employee.setDepartment("Performance");
+		employee.setRole(role);
+		employee.setShiftId(1);
+		employee.setJoinedDate(LocalDate.of(2020, 1, 1));
+		return employee;
+	}
+}
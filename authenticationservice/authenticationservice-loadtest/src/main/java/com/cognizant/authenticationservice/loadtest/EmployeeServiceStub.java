@@ -0,0 +1,152 @@
+package com.cognizant.authenticationservice.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.cognizant.authenticationservice.dto.EmployeeDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-memory stand-in for the Employee Management service, serving the endpoints of {@code EmployeeFeignClient}
+ * that logins and registrations use:
+ * <ul>
+ * <li>{@code POST /api/employee/register-employee}</li>
+ * <li>{@code GET /api/employee/employee-username/{username}}, 404 for an unknown username</li>
+ * <li>{@code POST /api/employee/employees-by-username}, for batched lookups</li>
+ * <li>{@code PUT /api/employee/update-password/{username}}, for hashes upgraded at login</li>
+ * </ul>
+ * Every call first sleeps {@code latency}, or {@code slowLatency} for a {@code slowRatio} share of calls, and
+ * then fails with 503 for an {@code errorRate} share of calls. Each exchange runs on a virtual thread, so
+ * injected latency does not limit the stub's own concurrency.
+ */
+final class EmployeeServiceStub implements AutoCloseable {
+
+	private static final String BASE = "/api/employee/";
+
+	private final Map<String, EmployeeDto> employees = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+	private final ObjectMapper json = new ObjectMapper().findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	private final Duration latency;
+	private final Duration slowLatency;
+	private final double slowRatio;
+	private final double errorRate;
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	EmployeeServiceStub(int port, Duration latency, Duration slowLatency, double slowRatio, double errorRate)
+			throws IOException {
+		this.latency = latency;
+		this.slowLatency = slowLatency;
+		this.slowRatio = slowRatio;
+		this.errorRate = errorRate;
+		this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+		server.createContext(BASE, this::handle);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	String url() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * Stores an employee directly, bypassing latency and error injection.
+	 */
+	void put(EmployeeDto employee) {
+		employees.put(employee.getUsername(), employee);
+	}
+
+	/**
+	 * @return the number of calls per endpoint, injected failures included
+	 */
+	Map<String, Long> callCounts() {
+		Map<String, Long> counts = new ConcurrentHashMap<>();
+		calls.forEach((endpoint, count) -> counts.put(endpoint, count.sum()));
+		return counts;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			String path = exchange.getRequestURI().getPath().substring(BASE.length());
+			String endpoint = path.contains("/") ? path.substring(0, path.indexOf('/')) : path;
+			calls.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			Thread.sleep(random.nextDouble() < slowRatio ? slowLatency : latency);
+			if (random.nextDouble() < errorRate) {
+				respond(exchange, 503, null);
+				return;
+			}
+
+			String method = exchange.getRequestMethod();
+			if (method.equals("POST") && path.equals("register-employee")) {
+				EmployeeDto employee = json.readValue(exchange.getRequestBody(), EmployeeDto.class);
+				employees.put(employee.getUsername(), employee);
+				respond(exchange, 200, employee);
+			} else if (method.equals("GET") && endpoint.equals("employee-username")) {
+				EmployeeDto employee = employees.get(path.substring(endpoint.length() + 1));
+				respond(exchange, employee != null ? 200 : 404, employee);
+			} else if (method.equals("POST") && path.equals("employees-by-username")) {
+				List<String> usernames = json.readValue(exchange.getRequestBody(), new TypeReference<List<String>>() {
+				});
+				List<EmployeeDto> found = new ArrayList<>(usernames.size());
+				for (String username : usernames) {
+					EmployeeDto employee = employees.get(username);
+					if (employee != null) {
+						found.add(employee);
+					}
+				}
+				respond(exchange, 200, found);
+			} else if (method.equals("PUT") && endpoint.equals("update-password")) {
+				EmployeeDto employee = employees.get(path.substring(endpoint.length() + 1));
+				if (employee != null) {
+					employee.setPassword(readString(exchange.getRequestBody()));
+				}
+				respond(exchange, employee != null ? 204 : 404, null);
+			} else {
+				respond(exchange, 404, null);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+		if (body == null) {
+			exchange.sendResponseHeaders(status, -1);
+			return;
+		}
+		byte[] bytes = json.writeValueAsBytes(body);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		exchange.getResponseBody().write(bytes);
+	}
+
+	private static String readString(InputStream in) throws IOException {
+		return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}
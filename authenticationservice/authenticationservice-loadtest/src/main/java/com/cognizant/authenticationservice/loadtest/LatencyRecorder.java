@@ -0,0 +1,86 @@
+package com.cognizant.authenticationservice.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps every latency sample of one phase so exact percentiles can be reported at the end, along with the
+ * failed requests by status. A run records a few million samples at most, which fits comfortably in memory.
+ * <p>
+ * Started from the Employee Management soak test's recorder, which counts errors per operation only. The load
+ * tests are standalone jars of two separate services, so each keeps its own copy rather than sharing a module;
+ * this one adds the status breakdown and throughput that a login burst is judged by.
+ */
+final class LatencyRecorder {
+
+	private final String phase;
+	private final Map<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+	private long[] samples = new long[1024];
+	private int count;
+	private long elapsedNanos;
+
+	LatencyRecorder(String phase) {
+		this.phase = phase;
+	}
+
+	synchronized void record(long nanos) {
+		if (count == samples.length) {
+			samples = Arrays.copyOf(samples, count * 2);
+		}
+		samples[count++] = nanos;
+	}
+
+	/**
+	 * @param status the HTTP status, or -1 if the request failed without one
+	 */
+	void error(int status) {
+		errors.computeIfAbsent(status, key -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Sets the wall-clock time of the phase, which throughput is computed from.
+	 */
+	void elapsed(long nanos) {
+		elapsedNanos = nanos;
+	}
+
+	String summary() {
+		long[] sorted;
+		synchronized (this) {
+			sorted = Arrays.copyOf(samples, count);
+		}
+		Arrays.sort(sorted);
+		long failed = errors.values().stream().mapToLong(LongAdder::sum).sum();
+		String throughput = elapsedNanos > 0 ? String.format("%.0f", sorted.length * 1e9 / elapsedNanos) : "-";
+		return String.format("%-13s %9d %7d %9s %9s %9s %9s %9s  %s", phase, sorted.length, failed, throughput,
+				millis(sorted, 0.50), millis(sorted, 0.99), millis(sorted, 0.999),
+				sorted.length == 0 ? "-" : format(sorted[sorted.length - 1]), errorsByStatus());
+	}
+
+	static String header() {
+		return String.format("%-13s %9s %7s %9s %9s %9s %9s %9s  %s", "phase", "requests", "errors", "req/s",
+				"p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors by status");
+	}
+
+	private String errorsByStatus() {
+		StringBuilder out = new StringBuilder();
+		new TreeMap<>(errors).forEach((status, errorCount) -> out.append(out.isEmpty() ? "" : ", ")
+				.append(status < 0 ? "I/O" : status).append('=').append(errorCount.sum()));
+		return out.toString();
+	}
+
+	private static String millis(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return "-";
+		}
+		int index = (int) Math.ceil(quantile * sorted.length) - 1;
+		return format(sorted[Math.max(0, index)]);
+	}
+
+	private static String format(long nanos) {
+		return String.format("%.2f", nanos / 1_000_000.0);
+	}
+}
@@ -0,0 +1,24 @@
+package com.cognizant.authenticationservice.loadtest;
+
+import java.security.Principal;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * A token-protected endpoint for the authenticated phase of the load test. The authentication service has no
+ * resource endpoint of its own, so this stands in for one: a request passes {@code JwtRequestFilter} and the
+ * {@code /api/attendance/**} role check and then costs next to nothing, which makes its latency the cost of
+ * authenticating a request. Picked up by the service's component scan because it lives in a subpackage.
+ */
+@RestController
+public class ProtectedResourceController {
+
+	static final String PATH = "/api/attendance/load-test";
+
+	@GetMapping(PATH)
+	public ResponseEntity<String> whoami(Principal principal) {
+		return ResponseEntity.ok(principal.getName());
+	}
+}
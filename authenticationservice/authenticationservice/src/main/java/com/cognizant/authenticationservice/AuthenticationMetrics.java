@@ -0,0 +1,124 @@
+package com.cognizant.authenticationservice;
+
+import java.util.function.ToLongFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.cognizant.authenticationservice.audit.AuditJournal;
+import com.cognizant.authenticationservice.cache.CachingUserDetailsService;
+import com.cognizant.authenticationservice.cache.CredentialSnapshot;
+import com.cognizant.authenticationservice.cache.VerifiedTokenCache;
+import com.cognizant.authenticationservice.security.OpaqueTokenStore;
+import com.cognizant.authenticationservice.security.RefreshTokenStore;
+import com.cognizant.authenticationservice.security.TokenRevocationList;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the statistics the caches and token stores already keep. Nothing is counted twice: the meters
+ * read the existing counters when the registry is scraped.
+ */
+@Component
+public class AuthenticationMetrics implements MeterBinder {
+
+	@Autowired
+	private VerifiedTokenCache verifiedTokenCache;
+
+	@Autowired
+	private CachingUserDetailsService userDetailsService;
+
+	@Autowired
+	private CredentialSnapshot credentialSnapshot;
+
+	@Autowired
+	private RefreshTokenStore refreshTokenStore;
+
+	@Autowired
+	private TokenRevocationList tokenRevocationList;
+
+	@Autowired
+	private AuditJournal auditJournal;
+
+	@Autowired
+	private OpaqueTokenStore opaqueTokenStore;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("auth.token.cache.size", verifiedTokenCache, VerifiedTokenCache::size)
+				.description("Verified tokens cached")
+				.register(registry);
+		Gauge.builder("auth.token.cache.max.size", verifiedTokenCache, VerifiedTokenCache::getMaxSize)
+				.register(registry);
+		cacheCounter(registry, "auth.token.cache", "hit", verifiedTokenCache, VerifiedTokenCache::getHitCount);
+		cacheCounter(registry, "auth.token.cache", "miss", verifiedTokenCache, VerifiedTokenCache::getMissCount);
+		FunctionCounter.builder("auth.token.cache.removals", verifiedTokenCache, VerifiedTokenCache::getEvictionCount)
+				.tag("cause", "size")
+				.register(registry);
+		FunctionCounter.builder("auth.token.cache.removals", verifiedTokenCache, VerifiedTokenCache::getExpirationCount)
+				.tag("cause", "expired")
+				.register(registry);
+
+		Gauge.builder("auth.user.cache.size", userDetailsService, CachingUserDetailsService::size)
+				.description("User lookups cached, including unknown usernames")
+				.register(registry);
+		cacheCounter(registry, "auth.user.cache", "hit", userDetailsService, CachingUserDetailsService::getHitCount);
+		cacheCounter(registry, "auth.user.cache", "miss", userDetailsService, CachingUserDetailsService::getMissCount);
+		cacheCounter(registry, "auth.user.cache", "negative_hit", userDetailsService,
+				CachingUserDetailsService::getNegativeHitCount);
+		cacheCounter(registry, "auth.user.cache", "shared_load", userDetailsService,
+				CachingUserDetailsService::getSharedLoadCount);
+		cacheCounter(registry, "auth.user.cache", "stale_hit", userDetailsService,
+				CachingUserDetailsService::getStaleHitCount);
+
+		Gauge.builder("auth.credential.snapshot.size", credentialSnapshot, CredentialSnapshot::size)
+				.description("Credential records held locally")
+				.register(registry);
+		Gauge.builder("auth.credential.snapshot.staleness", credentialSnapshot,
+				snapshot -> snapshot.getStalenessMillis() < 0 ? -1 : snapshot.getStalenessMillis() / 1000.0)
+				.description("Seconds since the last successful credential sync, -1 before the first")
+				.baseUnit("seconds")
+				.register(registry);
+		FunctionCounter.builder("auth.credential.snapshot.sync.failures", credentialSnapshot,
+				CredentialSnapshot::getSyncFailureCount)
+				.register(registry);
+
+		Gauge.builder("auth.refresh.sessions", refreshTokenStore, RefreshTokenStore::size)
+				.description("Refresh-token chains that can still be refreshed")
+				.register(registry);
+		Gauge.builder("auth.opaque.sessions", opaqueTokenStore, OpaqueTokenStore::size)
+				.description("Sessions behind opaque access tokens, including expired ones not yet pruned")
+				.register(registry);
+
+		Gauge.builder("auth.revocation.size", tokenRevocationList, TokenRevocationList::size)
+				.description("Revoked access tokens not yet expired")
+				.register(registry);
+		FunctionCounter.builder("auth.revocation.filter.positives", tokenRevocationList, TokenRevocationList::getFilterPositiveCount)
+				.description("Revocation lookups the Bloom filter could not clear")
+				.register(registry);
+		FunctionCounter.builder("auth.revocation.filter.false.positives", tokenRevocationList, TokenRevocationList::getFalsePositiveCount)
+				.description("Revocation lookups the Bloom filter could not clear although the token was not revoked")
+				.register(registry);
+
+		Gauge.builder("auth.audit.queue.size", auditJournal, AuditJournal::getQueueSize)
+				.description("Audit events waiting for the journal writer")
+				.register(registry);
+		FunctionCounter.builder("auth.audit.events", auditJournal, AuditJournal::getAppendedCount)
+				.tag("result", "appended")
+				.register(registry);
+		FunctionCounter.builder("auth.audit.events", auditJournal, AuditJournal::getDroppedCount)
+				.description("Audit events dropped because the queue was full or the journal could not be written")
+				.tag("result", "dropped")
+				.register(registry);
+	}
+
+	private static <T> void cacheCounter(MeterRegistry registry, String cache, String result, T source,
+			ToLongFunction<T> count) {
+		FunctionCounter.builder(cache + ".requests", source, count::applyAsLong)
+				.tag("result", result)
+				.register(registry);
+	}
+}
@@ -1,15 +1,30 @@
 package com.cognizant.authenticationservice;
 
+import java.time.Duration;
+
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.cognizant.authenticationservice.cache.CachingUserDetailsService;
+import com.cognizant.authenticationservice.cache.CredentialSnapshot;
+import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+import com.cognizant.authenticationservice.feignclient.UsernameLookupBatcher;
+import com.cognizant.authenticationservice.loadbalancer.EmployeeServiceLoadBalancerConfiguration;
+import com.cognizant.authenticationservice.security.OpaqueTokenStore;
+import com.cognizant.authenticationservice.security.RefreshTokenStore;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
+@LoadBalancerClient(name = "employeemanagement", configuration = EmployeeServiceLoadBalancerConfiguration.class)
 public class AuthenticationserviceApplication {
 
 	public static void main(String[] args) {
@@ -19,4 +34,34 @@ public class AuthenticationserviceApplication {
 	public ModelMapper getMapper() {
 		return new ModelMapper();
 	}
+
+	/**
+	 * The only UserDetailsService bean, so the login provider in SecurityConfig reads through the cache.
+	 * Records changed by a credential-snapshot sync are dropped from the cache, and their refresh token
+	 * chains and opaque sessions are revoked.
+	 */
+	@Bean
+	public CachingUserDetailsService userDetailsService(EmployeeFeignClient employeeFeignClient,
+			CredentialSnapshot credentialSnapshot,
+			UsernameLookupBatcher lookupBatcher,
+			RefreshTokenStore refreshTokenStore,
+			OpaqueTokenStore opaqueTokenStore,
+			@Value("${auth.user-cache.ttl:PT1M}") Duration ttl,
+			@Value("${auth.user-cache.negative-ttl:PT10S}") Duration negativeTtl,
+			@Value("${auth.user-cache.stale-ttl:PT10M}") Duration staleTtl,
+			@Value("${auth.user-cache.max-size:10000}") int maxSize) {
+		if (!credentialSnapshot.isEnabled()) {
+			return new CachingUserDetailsService(new UserDetailsImp(employeeFeignClient, null, lookupBatcher), ttl,
+					negativeTtl, staleTtl, maxSize);
+		}
+		CachingUserDetailsService cache = new CachingUserDetailsService(
+				new UserDetailsImp(employeeFeignClient, credentialSnapshot, lookupBatcher), ttl, negativeTtl, staleTtl,
+				maxSize);
+		credentialSnapshot.setChangeListener(username -> {
+			cache.invalidate(username);
+			refreshTokenStore.revokeUser(username);
+			opaqueTokenStore.revokeUser(username);
+		});
+		return cache;
+	}
 }
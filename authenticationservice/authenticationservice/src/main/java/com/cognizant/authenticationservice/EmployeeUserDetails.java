@@ -0,0 +1,69 @@
+package com.cognizant.authenticationservice;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Spring Security principal for an employee. Besides the standard user fields it carries the
+ * identifiers and the credential-version stamp that are embedded in issued tokens, so a principal
+ * can be rebuilt from a verified token without calling the employee service.
+ */
+public class EmployeeUserDetails extends User {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int employeeId;
+	private final int managerId;
+	private final String credentialVersion;
+
+	/**
+	 * Creates a principal from a stored employee record; the credential version is derived from the
+	 * password hash so it changes whenever the password does.
+	 */
+	public EmployeeUserDetails(String username, String passwordHash, Collection<? extends GrantedAuthority> authorities,
+			int employeeId, int managerId) {
+		this(username, passwordHash, authorities, employeeId, managerId, credentialVersionOf(passwordHash));
+	}
+
+	public EmployeeUserDetails(String username, String password, Collection<? extends GrantedAuthority> authorities,
+			int employeeId, int managerId, String credentialVersion) {
+		super(username, password, authorities);
+		this.employeeId = employeeId;
+		this.managerId = managerId;
+		this.credentialVersion = credentialVersion;
+	}
+
+	public int getEmployeeId() {
+		return employeeId;
+	}
+
+	public int getManagerId() {
+		return managerId;
+	}
+
+	public String getCredentialVersion() {
+		return credentialVersion;
+	}
+
+	/**
+	 * Short, non-reversible stamp of a password hash (first 64 bits of its SHA-256, base64url).
+	 */
+	public static String credentialVersionOf(String passwordHash) {
+		if (passwordHash == null) {
+			return null;
+		}
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(passwordHash.getBytes(StandardCharsets.UTF_8));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,291 @@
+package com.cognizant.authenticationservice;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.cognizant.authenticationservice.dto.AuthenticationResponseDTO;
+import com.cognizant.authenticationservice.dto.EmployeeDto;
+import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+import com.cognizant.authenticationservice.feignclient.ResilienceCapability;
+import com.cognizant.authenticationservice.security.OffloadingPasswordEncoder;
+import com.cognizant.authenticationservice.util.JwtKeyRing;
+import com.cognizant.authenticationservice.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the login and token paths with synthetic work before the instance takes traffic from the registry.
+ * <p>
+ * The instance registers with Eureka as {@code STARTING} ({@code eureka.instance.initial-status}), which
+ * clients do not route to. Once the application is ready, a background thread:
+ * <ol>
+ * <li>signs and verifies {@code auth.warmup.iterations} tokens, and serializes as many employee records;</li>
+ * <li>hashes and checks {@code auth.warmup.password-hashes} passwords at once, on the hashing pool;</li>
+ * <li>opens {@code auth.warmup.connections} employee-service connections by looking up a username that does
+ * not exist;</li>
+ * <li>authenticates that username through a {@link DaoAuthenticationProvider}, as a failed login does;</li>
+ * <li>sends {@code auth.warmup.requests} requests with a token for it to this instance's own port, through
+ * Tomcat, the security filter chain and {@link JwtRequestFilter}, which rejects it without an audit record.</li>
+ * </ol>
+ * Then it reports the instance {@code UP}, also when a stage ended in an error. Failures in a stage are logged
+ * and skipped. Every stage also stops waiting and sending at the {@code auth.warmup.timeout} deadline, and the
+ * stages after it are skipped, so a broken dependency delays the instance by about that long: at most one call
+ * in flight, bounded by its own timeout, can run past it. An instance whose status was changed meanwhile, e.g.
+ * to {@code OUT_OF_SERVICE}, keeps that status.
+ * <p>
+ * The synthetic work is kept out of production numbers: tokens, hashes and logins are timed in a registry of
+ * the warm-up's own, and its employee-service calls bypass the circuit breaker, see
+ * {@link ResilienceCapability#unguarded}.
+ */
+@Component
+public class InstanceWarmup {
+
+	private static final Logger log = LoggerFactory.getLogger(InstanceWarmup.class);
+
+	// Looked up but never expected to exist; the failed lookups are negative-cached like any unknown username
+	public static final String WARMUP_USERNAME = "__warmup__";
+	private static final String WARMUP_ROLE = "ROLE_EMPLOYEE";
+
+	private final boolean enabled;
+
+	private final int iterations;
+
+	private final int passwordHashes;
+
+	private final int connections;
+
+	private final int requests;
+
+	private final Duration timeout;
+
+	// Copies of the production beans with their timers in a registry of their own, so synthetic work does not
+	// show up in the auth.jwt.* and auth.password.* latencies
+	private final JwtUtil jwtUtil;
+
+	private final PasswordEncoder passwordEncoder;
+
+	private final AuthenticationProvider authenticationProvider;
+
+	private final EmployeeFeignClient employeeFeignClient;
+
+	private final ObjectMapper objectMapper;
+
+	private final Environment environment;
+
+	private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+	public InstanceWarmup(ObjectProvider<JwtKeyRing> keyRing, PasswordEncoder passwordEncoder,
+			UserDetailsService userDetailsService, EmployeeFeignClient employeeFeignClient, ObjectMapper objectMapper,
+			Environment environment, ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+			@Value("${auth.warmup.enabled:true}") boolean enabled,
+			@Value("${auth.warmup.iterations:2000}") int iterations,
+			@Value("${auth.warmup.password-hashes:8}") int passwordHashes,
+			@Value("${auth.warmup.connections:4}") int connections,
+			@Value("${auth.warmup.requests:200}") int requests,
+			@Value("${auth.warmup.timeout:PT60S}") Duration timeout) {
+		MeterRegistry warmupRegistry = new SimpleMeterRegistry();
+		this.jwtUtil = new JwtUtil(keyRing.getIfAvailable(), warmupRegistry);
+		this.passwordEncoder = passwordEncoder instanceof OffloadingPasswordEncoder offloading
+				? offloading.withMeterRegistry(warmupRegistry)
+				: passwordEncoder;
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(this.passwordEncoder);
+		provider.setUserDetailsService(userDetailsService);
+		this.authenticationProvider = provider;
+		this.employeeFeignClient = employeeFeignClient;
+		this.objectMapper = objectMapper;
+		this.environment = environment;
+		this.applicationInfoManager = applicationInfoManager;
+		this.enabled = enabled;
+		this.iterations = iterations;
+		this.passwordHashes = passwordHashes;
+		this.connections = connections;
+		this.requests = requests;
+		this.timeout = timeout;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled) {
+			markUp();
+			return;
+		}
+		Thread.ofPlatform().name("instance-warmup").daemon().start(this::run);
+	}
+
+	void run() {
+		long start = System.nanoTime();
+		long deadline = start + timeout.toNanos();
+		try {
+			stage("tokens and JSON", deadline, this::warmTokensAndJson);
+			stage("password hashing", deadline, this::warmPasswordEncoder);
+			stage("employee service connections", deadline, this::warmEmployeeService);
+			stage("authentication", deadline, this::warmAuthentication);
+			stage("request filter", deadline, this::warmRequestFilter);
+			log.info("[WARMUP] Finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+		} finally {
+			// Even after an Error: a half-warm instance serves, a STARTING one never does
+			markUp();
+		}
+	}
+
+	private void stage(String name, long deadline, WarmupStage stage) {
+		if (System.nanoTime() > deadline) {
+			log.warn("[WARMUP] Skipping {}: warm-up took longer than {}", name, timeout);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			stage.run(deadline);
+			log.info("[WARMUP] {} done in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+		} catch (TimeoutException e) {
+			log.warn("[WARMUP] Stopped {} after {} ms: warm-up took longer than {}", name,
+					(System.nanoTime() - start) / 1_000_000, timeout);
+		} catch (Exception e) {
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			log.warn("[WARMUP] {} failed after {} ms, continuing. Error: {}", name,
+					(System.nanoTime() - start) / 1_000_000, e.getMessage());
+		}
+	}
+
+	private void warmTokensAndJson(long deadline) throws Exception {
+		EmployeeDto employee = new EmployeeDto();
+		employee.setEmployeeId(1);
+		employee.setManagerId(1);
+		employee.setUsername(WARMUP_USERNAME);
+		employee.setPassword("$2a$10$" + "x".repeat(53));
+		employee.setRole(WARMUP_ROLE);
+		employee.setJoinedDate(LocalDate.of(2020, 1, 1));
+		for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+			String token = jwtUtil.generateToken(WARMUP_USERNAME, WARMUP_ROLE, i, 1, "warmup");
+			jwtUtil.verify(token);
+			byte[] json = objectMapper.writeValueAsBytes(employee);
+			objectMapper.readValue(json, EmployeeDto.class);
+			objectMapper.writeValueAsBytes(new AuthenticationResponseDTO(token, null));
+		}
+	}
+
+	private void warmPasswordEncoder(long deadline) throws Exception {
+		// Concurrently, so every thread of the hashing pool gets started
+		ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+		try {
+			List<Future<?>> hashes = new ArrayList<>();
+			for (int i = 0; i < passwordHashes; i++) {
+				String password = "Warmup" + i;
+				hashes.add(callers.submit(() -> passwordEncoder.matches(password, passwordEncoder.encode(password))));
+			}
+			awaitAll(hashes, deadline);
+		} finally {
+			// Not close(), which would wait for callers still running after a timeout
+			callers.shutdownNow();
+		}
+	}
+
+	private void warmEmployeeService(long deadline) throws Exception {
+		ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+		try {
+			List<Future<?>> calls = new ArrayList<>();
+			for (int i = 0; i < connections; i++) {
+				calls.add(callers.submit(() -> ResilienceCapability.unguarded(() -> {
+					try {
+						return employeeFeignClient.findByUsername(WARMUP_USERNAME);
+					} catch (FeignException.NotFound e) {
+						// Expected
+						return null;
+					}
+				})));
+			}
+			awaitAll(calls, deadline);
+		} finally {
+			callers.shutdownNow();
+		}
+	}
+
+	/**
+	 * @throws TimeoutException if a task is still running at the deadline
+	 */
+	private static void awaitAll(List<Future<?>> tasks, long deadline) throws Exception {
+		for (Future<?> task : tasks) {
+			task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void warmAuthentication(long deadline) throws Exception {
+		for (int i = 0; i < Math.max(1, passwordHashes) && System.nanoTime() < deadline; i++) {
+			ResilienceCapability.unguarded(() -> {
+				try {
+					return authenticationProvider.authenticate(
+							new UsernamePasswordAuthenticationToken(WARMUP_USERNAME, "Warmup"));
+				} catch (AuthenticationException e) {
+					// Expected: the username does not exist
+					return null;
+				}
+			});
+		}
+	}
+
+	private void warmRequestFilter(long deadline) throws Exception {
+		String port = environment.getProperty("local.server.port");
+		if (port == null) {
+			return;
+		}
+		HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+				.header("Authorization", "Bearer " + jwtUtil.generateToken(WARMUP_USERNAME, WARMUP_ROLE))
+				.timeout(Duration.ofSeconds(5))
+				.build();
+		for (int i = 0; i < requests && System.nanoTime() < deadline; i++) {
+			http.send(request, HttpResponse.BodyHandlers.discarding());
+		}
+	}
+
+	private void markUp() {
+		ApplicationInfoManager manager = applicationInfoManager.getIfAvailable();
+		if (manager == null) {
+			return;
+		}
+		if (manager.getInfo().getStatus() == InstanceStatus.STARTING) {
+			manager.setInstanceStatus(InstanceStatus.UP);
+			log.info("[WARMUP] Reported UP to the service registry");
+		} else {
+			log.info("[WARMUP] Leaving registry status {} unchanged", manager.getInfo().getStatus());
+		}
+	}
+
+	@FunctionalInterface
+	private interface WarmupStage {
+		void run(long deadline) throws Exception;
+	}
+}
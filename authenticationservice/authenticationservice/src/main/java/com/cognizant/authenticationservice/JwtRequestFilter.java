@@ -2,19 +2,33 @@ package com.cognizant.authenticationservice;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.cognizant.authenticationservice.audit.AuditEventType;
+import com.cognizant.authenticationservice.audit.AuditJournal;
+import com.cognizant.authenticationservice.cache.VerifiedTokenCache;
+import com.cognizant.authenticationservice.feignclient.EmployeeServiceUnavailableException;
+import com.cognizant.authenticationservice.security.GatewayIdentity;
+import com.cognizant.authenticationservice.security.OpaqueTokenStore;
+import com.cognizant.authenticationservice.security.TokenRevocationList;
 import com.cognizant.authenticationservice.util.JwtUtil;
-import com.cognizant.authenticationservice.*;
+import com.cognizant.authenticationservice.util.VerifiedToken;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,11 +38,55 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-	@Autowired
-	private JwtUtil jwtUtil;
+	private final JwtUtil jwtUtil;
 
-	@Autowired
-	private UserDetailsImp userDetailsImp;
+	private final UserDetailsService userDetailsService;
+
+	private final VerifiedTokenCache verifiedTokenCache;
+
+	private final TokenRevocationList tokenRevocationList;
+
+	private final GatewayIdentity gatewayIdentity;
+
+	private final AuditJournal auditJournal;
+
+	private final OpaqueTokenStore opaqueTokenStore;
+
+	// When enabled, tokens that carry the principal claims are trusted without an employee-service lookup
+	private final boolean statelessPrincipal;
+
+	private final Timer cachedTimer;
+	private final Timer gatewayTimer;
+	private final Timer opaqueTimer;
+	private final Timer authenticatedTimer;
+	private final Timer rejectedTimer;
+
+	public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+			VerifiedTokenCache verifiedTokenCache, TokenRevocationList tokenRevocationList,
+			GatewayIdentity gatewayIdentity, AuditJournal auditJournal, OpaqueTokenStore opaqueTokenStore,
+			@Value("${auth.jwt.stateless-principal:false}") boolean statelessPrincipal, MeterRegistry meterRegistry) {
+		this.jwtUtil = jwtUtil;
+		this.userDetailsService = userDetailsService;
+		this.verifiedTokenCache = verifiedTokenCache;
+		this.tokenRevocationList = tokenRevocationList;
+		this.gatewayIdentity = gatewayIdentity;
+		this.auditJournal = auditJournal;
+		this.opaqueTokenStore = opaqueTokenStore;
+		this.statelessPrincipal = statelessPrincipal;
+		this.cachedTimer = filterTimer(meterRegistry, "cached");
+		this.gatewayTimer = filterTimer(meterRegistry, "gateway");
+		this.opaqueTimer = filterTimer(meterRegistry, "opaque");
+		this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+		this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+	}
+
+	private static Timer filterTimer(MeterRegistry meterRegistry, String result) {
+		return Timer.builder("auth.filter")
+				.description("Time the JWT filter spends authenticating a bearer token, excluding the rest of the request")
+				.tag("result", result)
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+	}
 
 	protected void doFilterInternal(HttpServletRequest request,
 
@@ -36,44 +94,159 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
 			FilterChain filterChain) throws ServletException, IOException {
 
+		try {
+			authenticateRequest(request);
+		} catch (EmployeeServiceUnavailableException e) {
+			// Without the user record the token can be neither accepted nor rejected: the client should retry
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			response.setHeader(HttpHeaders.RETRY_AFTER,
+					String.valueOf(Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000)));
+			response.getWriter().write("Employee service is unavailable, please retry shortly.");
+			return;
+		}
+
+		filterChain.doFilter(request, response);
+
+	}
+
+	private void authenticateRequest(HttpServletRequest request) {
+
+		// Identity headers signed by the gateway, which has already verified the token: no JWT parsing here
+		if (gatewayIdentity.isEnabled() && SecurityContextHolder.getContext().getAuthentication() == null) {
+
+			long start = System.nanoTime();
+
+			VerifiedToken verified = gatewayIdentity.resolve(request);
+
+			if (verified != null && authenticate(verified, null)) {
+				gatewayTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+
+		}
+
 		String authHeader = request.getHeader("Authorization");
 
 		if (authHeader != null && authHeader.startsWith("Bearer ")) {
 
 			String token = authHeader.substring(7);
 
-			String username = jwtUtil.extractUsername(token);
+			if (SecurityContextHolder.getContext().getAuthentication() == null) {
+
+				long start = System.nanoTime();
+
+				Timer timer = null;
+
+				if (opaqueTokenStore.isEnabled() && OpaqueTokenStore.isOpaque(token)) {
+
+					// The session holds the authentication built at login: nothing to verify or cache
+					Authentication session = opaqueTokenStore.resolve(token);
+
+					if (session != null) {
+						SecurityContextHolder.getContext().setAuthentication(session);
+						timer = opaqueTimer;
+					} else {
+						timer = rejectedTimer;
+						auditJournal.record(AuditEventType.TOKEN_REJECTED, null, request.getRemoteAddr(), "opaque");
+					}
+
+				} else {
+
+					Authentication cached = verifiedTokenCache.get(token);
+
+					if (cached != null) {
 
-			if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+						SecurityContextHolder.getContext().setAuthentication(cached);
 
-				UserDetails userDetails  = 
-						userDetailsImp.loadUserByUsername(username);
+						timer = cachedTimer;
 
-				if (jwtUtil.validateToken(token)) {
-					String role = jwtUtil.extractRole(token);
-					List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+					} else {
 
-					/*
-					 * List<GrantedAuthority> authorities = jwtUtil.extractRoles(token).stream()
-					 * 
-					 * .map(SimpleGrantedAuthority::new)
-					 * 
-					 * .collect(Collectors.toList());
-					 */
+						VerifiedToken verified = jwtUtil.verify(token);
 
-					UsernamePasswordAuthenticationToken authToken =
+						// The warm-up's own requests are rejected by design, before any user lookup, so they are
+						// neither audited, timed nor seen by the employee-service circuit breaker
+						boolean warmup = verified != null && InstanceWarmup.WARMUP_USERNAME.equals(verified.getSubject());
 
-							new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+						if (!warmup && verified != null && authenticate(verified, token)) {
 
-					SecurityContextHolder.getContext().setAuthentication(authToken);
+							timer = authenticatedTimer;
 
+						} else if (!warmup) {
+
+							timer = rejectedTimer;
+
+							auditJournal.record(AuditEventType.TOKEN_REJECTED, null, request.getRemoteAddr(), null);
+
+						}
+
+					}
+
+				}
+
+				if (timer != null) {
+					timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 				}
 
 			}
 
 		}
 
-		filterChain.doFilter(request, response);
+	}
+
+	/**
+	 * @param token the bearer token to cache the authentication under, or {@code null} to not cache it
+	 */
+	private boolean authenticate(VerifiedToken verified, String token) {
+
+		if (verified.getSubject() == null || tokenRevocationList.isRevoked(verified.getTokenId())) {
+			return false;
+		}
+
+		UserDetails userDetails;
+
+		if (statelessPrincipal && verified.hasPrincipalClaims()) {
+
+			userDetails = new EmployeeUserDetails(verified.getSubject(), "",
+					List.of(new SimpleGrantedAuthority(verified.getRole())),
+					verified.getEmployeeId(), verified.getManagerId(), verified.getCredentialVersion());
+
+		} else {
+
+			try {
+				userDetails = userDetailsService.loadUserByUsername(verified.getSubject());
+			} catch (UsernameNotFoundException e) {
+				return false;
+			}
+
+			// A token issued before the password changed no longer matches the stored credential version
+			if (verified.getCredentialVersion() != null && userDetails instanceof EmployeeUserDetails employee
+					&& !verified.getCredentialVersion().equals(employee.getCredentialVersion())) {
+				return false;
+			}
+
+		}
+
+		List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(verified.getRole()));
+
+		UsernamePasswordAuthenticationToken authToken =
+
+				new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+
+		SecurityContextHolder.getContext().setAuthentication(authToken);
+
+		if (token == null) {
+			return true;
+		}
+
+		verifiedTokenCache.put(token, authToken, verified.getExpiresAtMillis());
+
+		// A logout may have revoked the token since the check above; it revokes before it invalidates the
+		// cache, so checking again after the put guarantees a revoked token never stays cached
+		if (tokenRevocationList.isRevoked(verified.getTokenId())) {
+			verifiedTokenCache.invalidate(token);
+		}
+
+		return true;
 
 	}
 
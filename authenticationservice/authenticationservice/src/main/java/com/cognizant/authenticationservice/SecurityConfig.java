@@ -1,17 +1,26 @@
 package com.cognizant.authenticationservice;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -19,6 +28,12 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
+import com.cognizant.authenticationservice.security.BCryptCalibration;
+import com.cognizant.authenticationservice.security.OffloadingPasswordEncoder;
+import com.cognizant.authenticationservice.security.PasswordHashingExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 
 @EnableMethodSecurity
@@ -43,6 +58,10 @@ public class SecurityConfig {
 								"/api/leaveBalance/**")
 						.permitAll()
 
+						.requestMatchers("/.well-known/jwks.json").permitAll()
+
+						.requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+
 						.requestMatchers("/api/manager/**").hasRole("MANAGER")
 
 						.requestMatchers("/api/attendance/**").hasAnyRole("EMPLOYEE", "MANAGER")
@@ -59,17 +78,63 @@ public class SecurityConfig {
 
 	@Bean
 
-	public PasswordEncoder passwordEncoder() {
+	public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor, MeterRegistry meterRegistry,
+			@Value("${auth.password.bcrypt.strength:0}") int strength,
+			@Value("${auth.password.bcrypt.target-hash-time:PT0.1S}") Duration targetHashTime,
+			@Value("${auth.password.bcrypt.min-strength:10}") int minStrength,
+			@Value("${auth.password.bcrypt.max-strength:14}") int maxStrength) {
+
+		int bcryptStrength = strength > 0 ? strength : BCryptCalibration.strengthFor(targetHashTime, minStrength, maxStrength);
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+		// New hashes are stored as {bcrypt}...; existing unprefixed hashes are still checked as BCrypt. Only a
+		// hash of a lower strength is re-encoded by PasswordUpgradeService at the next successful login: a
+		// missing prefix alone is not worth a second hash and a write to the employee service
+		DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt)) {
+			@Override
+			public boolean upgradeEncoding(String prefixEncodedPassword) {
+				return prefixEncodedPassword != null && bcrypt.upgradeEncoding(
+						prefixEncodedPassword.startsWith("{bcrypt}") ? prefixEncodedPassword.substring(8) : prefixEncodedPassword);
+			}
+		};
+		delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+		// BCrypt runs on a bounded pool rather than on the request thread; see PasswordHashingExecutor
+		return new OffloadingPasswordEncoder(delegating, passwordHashingExecutor, meterRegistry);
+
+	}
 
-		return new BCryptPasswordEncoder();
+	/**
+	 * The login provider, with the password upgrade done here rather than by the stock provider: that one
+	 * stores the new hash but still returns the principal loaded with the old one, and the token issued for
+	 * the login would carry a credential version that no longer matches.
+	 */
+	public DaoAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+			PasswordEncoder passwordEncoder, UserDetailsPasswordService passwordUpgradeService) {
+
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder) {
+			@Override
+			protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+					UserDetails user) {
+				if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+					user = passwordUpgradeService.updatePassword(user,
+							passwordEncoder.encode(authentication.getCredentials().toString()));
+					principal = user;
+				}
+				return super.createSuccessAuthentication(principal, authentication, user);
+			}
+		};
+		provider.setUserDetailsService(userDetailsService);
+		return provider;
 
 	}
 
 	@Bean
 
-	public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
+	public AuthenticationManager authenticationManager(UserDetailsService userDetailsService,
+			PasswordEncoder passwordEncoder, UserDetailsPasswordService passwordUpgradeService) {
 
-		return config.getAuthenticationManager();
+		return new ProviderManager(authenticationProvider(userDetailsService, passwordEncoder, passwordUpgradeService));
 
 	}
 	
@@ -3,46 +3,91 @@ package com.cognizant.authenticationservice;
 import java.util.Collections;
 import java.util.Optional;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.stereotype.Component;
 
+import com.cognizant.authenticationservice.cache.CredentialSnapshot;
 import com.cognizant.authenticationservice.dto.EmployeeDto;
 import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+import com.cognizant.authenticationservice.feignclient.EmployeeServiceUnavailableException;
+import com.cognizant.authenticationservice.feignclient.UsernameLookupBatcher;
+
+import feign.FeignException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@Component
+/**
+ * Loads users from the Employee Management Service. Built in
+ * {@link AuthenticationserviceApplication#userDetailsService} behind a caching, single-flight decorator
+ * rather than as a bean of its own.
+ * When a current {@link CredentialSnapshot} knows the username, the user is served from it without a call.
+ * With an enabled {@link UsernameLookupBatcher}, concurrent lookups share one bulk call.
+ */
 public class UserDetailsImp implements UserDetailsService {
 
     private static final Logger log = LoggerFactory.getLogger(UserDetailsImp.class);
 
-    @Autowired
-    private EmployeeFeignClient employeeFeignClient;
+    private final EmployeeFeignClient employeeFeignClient;
+    private final CredentialSnapshot credentialSnapshot;
+    private final UsernameLookupBatcher lookupBatcher;
+
+    public UserDetailsImp(EmployeeFeignClient employeeFeignClient) {
+        this(employeeFeignClient, null, null);
+    }
+
+    public UserDetailsImp(EmployeeFeignClient employeeFeignClient, CredentialSnapshot credentialSnapshot) {
+        this(employeeFeignClient, credentialSnapshot, null);
+    }
+
+    public UserDetailsImp(EmployeeFeignClient employeeFeignClient, CredentialSnapshot credentialSnapshot,
+            UsernameLookupBatcher lookupBatcher) {
+        this.employeeFeignClient = employeeFeignClient;
+        this.credentialSnapshot = credentialSnapshot;
+        this.lookupBatcher = lookupBatcher != null && lookupBatcher.isEnabled() ? lookupBatcher : null;
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        log.info("[EMPLOYEE-SERVICE] Loading user by username: {}", username);
+        if (credentialSnapshot != null) {
+            UserDetails local = credentialSnapshot.find(username);
+            if (local != null) {
+                log.debug("[CREDENTIAL-SNAPSHOT] Loaded user with username: {} from the snapshot", username);
+                return local;
+            }
+        }
+        log.debug("[EMPLOYEE-SERVICE] Loading user by username: {}", username);
 
         try {
-            EmployeeDto employee = Optional.ofNullable(employeeFeignClient.findByUsername(username).getBody())
+            EmployeeDto found = lookupBatcher != null
+                ? lookupBatcher.find(username)
+                : employeeFeignClient.findByUsername(username).getBody();
+            EmployeeDto employee = Optional.ofNullable(found)
                 .orElseThrow(() -> {
-                    log.warn("[EMPLOYEE-SERVICE] User not found with username: {}", username);
+                    log.debug("[EMPLOYEE-SERVICE] User not found with username: {}", username);
                     return new UsernameNotFoundException("User not found: " + username);
                 });
 
-            log.info("[EMPLOYEE-SERVICE] Successfully loaded user with username: {}", username);
+            log.debug("[EMPLOYEE-SERVICE] Successfully loaded user with username: {}", username);
 
-            return new org.springframework.security.core.userdetails.User(
+            return new EmployeeUserDetails(
                 employee.getUsername(),
                 employee.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority(employee.getRole()))
+                Collections.singletonList(new SimpleGrantedAuthority(employee.getRole())),
+                employee.getEmployeeId(),
+                employee.getManagerId()
             );
 
+        } catch (UsernameNotFoundException e) {
+            throw e;
+        } catch (FeignException.NotFound e) {
+            log.debug("[EMPLOYEE-SERVICE] User not found with username: {}", username);
+            throw new UsernameNotFoundException("User not found: " + username, e);
+        } catch (EmployeeServiceUnavailableException e) {
+            log.warn("[EMPLOYEE-SERVICE] Not loading user by username: {}. {}", username, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("[EMPLOYEE-SERVICE] Error loading user by username: {}. Error: {}", username, e.getMessage(), e);
             throw e;
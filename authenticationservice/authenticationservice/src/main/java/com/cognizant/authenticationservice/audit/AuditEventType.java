@@ -0,0 +1,46 @@
+package com.cognizant.authenticationservice.audit;
+
+/**
+ * The kinds of events written to the {@link AuditJournal}. Each has a fixed one-byte code in the journal
+ * files, so existing codes must never be changed or reused.
+ */
+public enum AuditEventType {
+
+	LOGIN_SUCCESS(1),
+	/** Detail: bad_credentials, throttled, overloaded, unavailable or error. */
+	LOGIN_FAILURE(2),
+	/** Detail: the username of the manager who registered the employee, or bulk. */
+	REGISTRATION(3),
+	/** Detail: overloaded, unavailable, not_found or error. */
+	REGISTRATION_FAILURE(4),
+	LOGOUT(5),
+	/** A bearer token that failed verification, was revoked or no longer matches its user. */
+	TOKEN_REJECTED(6),
+	/** Detail: credentials_changed or user_not_found for a valid token whose user no longer matches. */
+	REFRESH_REJECTED(7);
+
+	private static final AuditEventType[] BY_CODE = new AuditEventType[8];
+
+	static {
+		for (AuditEventType type : values()) {
+			BY_CODE[type.code] = type;
+		}
+	}
+
+	private final byte code;
+
+	AuditEventType(int code) {
+		this.code = (byte) code;
+	}
+
+	public byte getCode() {
+		return code;
+	}
+
+	/**
+	 * @return the type with this code, or {@code null} if there is none
+	 */
+	public static AuditEventType fromCode(int code) {
+		return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+	}
+}
@@ -0,0 +1,272 @@
+package com.cognizant.authenticationservice.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only journal of authentication events (logins, registrations, logouts and rejected tokens),
+ * active when {@code auth.audit.enabled=true}.
+ * <p>
+ * {@link #record} only puts the event on a lock-free queue; it never formats, blocks or does I/O. A single
+ * writer thread drains the queue in batches and appends compact binary records to a memory-mapped segment
+ * file in {@code auth.audit.directory}. When the queue holds {@code auth.audit.queue-capacity} events, new
+ * events are dropped and counted rather than slowing requests down.
+ * <p>
+ * Segment layout, big-endian:
+ * <pre>
+ * header  magic "AUDJ" (int), version (short), reserved (short), end of the last complete batch (int), reserved (int)
+ * record  type code (byte), epoch millis (long), then username, client address and detail, each as a length
+ *         byte followed by at most 255 bytes of UTF-8
+ * </pre>
+ * The end offset in the header is written after each batch, so a reader never sees half a batch. A segment
+ * is {@code auth.audit.segment-size} bytes; when the next record does not fit, it is forced to disk and a new
+ * one is started, and the oldest segments beyond {@code auth.audit.max-segments} are deleted. Between
+ * rotations the records live in the page cache, which survives a crash of the service but not of the host.
+ * {@link AuditJournalReader} decodes the segments.
+ */
+@Component
+public class AuditJournal {
+
+	private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+	static final int MAGIC = 0x41554a44; // "AUDJ"
+	static final short VERSION = 1;
+	static final int HEADER_BYTES = 16;
+	static final int END_OFFSET = 8;
+	static final String SEGMENT_PREFIX = "audit-";
+	static final String SEGMENT_SUFFIX = ".journal";
+
+	private static final int MAX_FIELD_BYTES = 255;
+	private static final int MAX_RECORD_BYTES = 1 + Long.BYTES + 3 * (1 + MAX_FIELD_BYTES);
+	private static final int MAX_BATCH = 1024;
+
+	private final boolean enabled;
+
+	private final String directory;
+
+	private final int segmentSize;
+
+	private final int maxSegments;
+
+	private final int queueCapacity;
+
+	// How long the writer sleeps when the queue is empty, i.e. how late an event may reach the segment
+	private final Duration flushInterval;
+
+	private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private final LongAdder appended = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	private volatile boolean running;
+	private Thread writer;
+
+	// Owned by the writer thread
+	private MappedByteBuffer segment;
+	private int segmentSequence;
+
+	public AuditJournal(@Value("${auth.audit.enabled:false}") boolean enabled,
+			@Value("${auth.audit.directory:/var/lib/authenticationservice/audit}") String directory,
+			@Value("${auth.audit.segment-size:16777216}") int segmentSize,
+			@Value("${auth.audit.max-segments:32}") int maxSegments,
+			@Value("${auth.audit.queue-capacity:65536}") int queueCapacity,
+			@Value("${auth.audit.flush-interval:PT0.05S}") Duration flushInterval) {
+		this.enabled = enabled;
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.maxSegments = maxSegments;
+		this.queueCapacity = queueCapacity;
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * Queues an event for the journal. Returns at once; the event is dropped if the queue is full.
+	 *
+	 * @param username      the user the event is about, may be null
+	 * @param clientAddress the address the request came from, may be null
+	 * @param detail        a short reason or qualifier, may be null
+	 */
+	public void record(AuditEventType type, String username, String clientAddress, String detail) {
+		if (!running) {
+			return;
+		}
+		if (queued.incrementAndGet() > queueCapacity) {
+			queued.decrementAndGet();
+			dropped.increment();
+			return;
+		}
+		queue.offer(new Event(type, System.currentTimeMillis(), username, clientAddress, detail));
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		writer = Thread.ofPlatform().name("audit-journal-writer").daemon().start(this::run);
+		log.info("[AUDIT] Writing the audit journal to {}", Path.of(directory).toAbsolutePath());
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (writer == null) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(writer);
+		writer.join(10_000);
+	}
+
+	private void run() {
+		List<Event> batch = new ArrayList<>(MAX_BATCH);
+		while (running || !queue.isEmpty()) {
+			Event event;
+			while (batch.size() < MAX_BATCH && (event = queue.poll()) != null) {
+				batch.add(event);
+			}
+			if (batch.isEmpty()) {
+				LockSupport.parkNanos(flushInterval.toNanos());
+				continue;
+			}
+			queued.addAndGet(-batch.size());
+			try {
+				append(batch);
+				appended.add(batch.size());
+			} catch (IOException | RuntimeException e) {
+				dropped.add(batch.size());
+				segment = null;
+				log.error("[AUDIT] Dropped {} audit event(s), could not write to {}: {}", batch.size(), directory,
+						e.getMessage());
+				LockSupport.parkNanos(flushInterval.toNanos());
+			}
+			batch.clear();
+		}
+		if (segment != null) {
+			segment.force();
+		}
+	}
+
+	private void append(List<Event> batch) throws IOException {
+		if (segment == null) {
+			segment = newSegment();
+		}
+		for (Event event : batch) {
+			if (segment.remaining() < MAX_RECORD_BYTES) {
+				commit();
+				segment.force();
+				segment = newSegment();
+			}
+			segment.put(event.type.getCode());
+			segment.putLong(event.timestampMillis);
+			putField(segment, event.username);
+			putField(segment, event.clientAddress);
+			putField(segment, event.detail);
+		}
+		commit();
+	}
+
+	private void commit() {
+		segment.putInt(END_OFFSET, segment.position());
+	}
+
+	private MappedByteBuffer newSegment() throws IOException {
+		Path dir = Files.createDirectories(Path.of(directory));
+		Path file = dir.resolve(String.format("%s%013d-%06d%s", SEGMENT_PREFIX, System.currentTimeMillis(),
+				segmentSequence++, SEGMENT_SUFFIX));
+		MappedByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, HEADER_BYTES + MAX_RECORD_BYTES));
+		}
+		mapped.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(HEADER_BYTES).putInt(0);
+		deleteOldSegments(dir);
+		return mapped;
+	}
+
+	private void deleteOldSegments(Path dir) throws IOException {
+		List<Path> segments = segments(dir);
+		for (int i = 0; i < segments.size() - maxSegments; i++) {
+			Files.deleteIfExists(segments.get(i));
+		}
+	}
+
+	/**
+	 * @return the segment files in the directory, oldest first
+	 */
+	static List<Path> segments(Path dir) throws IOException {
+		List<Path> segments = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+			files.forEach(segments::add);
+		}
+		segments.sort(null);
+		return segments;
+	}
+
+	// Truncated to 255 bytes; a cut multi-byte character decodes as a replacement character
+	private static void putField(ByteBuffer buffer, String value) {
+		if (value == null) {
+			buffer.put((byte) 0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int length = Math.min(bytes.length, MAX_FIELD_BYTES);
+		buffer.put((byte) length).put(bytes, 0, length);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public int getQueueSize() {
+		return Math.max(0, queued.get());
+	}
+
+	public long getAppendedCount() {
+		return appended.sum();
+	}
+
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	private static final class Event {
+		private final AuditEventType type;
+		private final long timestampMillis;
+		private final String username;
+		private final String clientAddress;
+		private final String detail;
+
+		private Event(AuditEventType type, long timestampMillis, String username, String clientAddress, String detail) {
+			this.type = type;
+			this.timestampMillis = timestampMillis;
+			this.username = username;
+			this.clientAddress = clientAddress;
+			this.detail = detail;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.cognizant.authenticationservice.audit;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prints the events of {@link AuditJournal} segments, one line each, oldest first.
+ * <p>
+ * Usage: {@code AuditJournalReader [--user=<username>] [--type=<AuditEventType>] <directory or segment>...}.
+ * From the service jar:
+ * <pre>
+ * java -cp authenticationservice.jar -Dloader.main=com.cognizant.authenticationservice.audit.AuditJournalReader \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher audit
+ * </pre>
+ * Segments being written can be read too; events of a batch still being appended are left out.
+ */
+public class AuditJournalReader {
+
+	public static void main(String[] args) throws IOException {
+		String user = null;
+		AuditEventType type = null;
+		List<Path> segments = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.startsWith("--user=")) {
+				user = arg.substring("--user=".length());
+			} else if (arg.startsWith("--type=")) {
+				type = AuditEventType.valueOf(arg.substring("--type=".length()));
+			} else if (Files.isDirectory(Path.of(arg))) {
+				segments.addAll(AuditJournal.segments(Path.of(arg)));
+			} else {
+				segments.add(Path.of(arg));
+			}
+		}
+		if (segments.isEmpty()) {
+			System.err.println("Usage: AuditJournalReader [--user=<username>] [--type=<type>] <directory or segment>...");
+			System.exit(2);
+		}
+		for (Path segment : segments) {
+			read(segment, user, type, System.out);
+		}
+	}
+
+	/**
+	 * Prints the events of one segment that match the filters.
+	 *
+	 * @param user only events about this username, or {@code null} for all
+	 * @param type only events of this type, or {@code null} for all
+	 */
+	public static void read(Path segment, String user, AuditEventType type, PrintStream out) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.remaining() < AuditJournal.HEADER_BYTES || buffer.getInt(0) != AuditJournal.MAGIC
+				|| buffer.getShort(4) != AuditJournal.VERSION) {
+			System.err.println("Skipping " + segment + ": not an audit journal segment");
+			return;
+		}
+		int end = Math.min(buffer.getInt(AuditJournal.END_OFFSET), buffer.limit());
+		buffer.position(AuditJournal.HEADER_BYTES).limit(end);
+		while (buffer.hasRemaining()) {
+			AuditEventType recordType = AuditEventType.fromCode(buffer.get());
+			long timestampMillis = buffer.getLong();
+			String username = getField(buffer);
+			String clientAddress = getField(buffer);
+			String detail = getField(buffer);
+			if ((user == null || user.equals(username)) && (type == null || type == recordType)) {
+				StringBuilder line = new StringBuilder(96)
+						.append(Instant.ofEpochMilli(timestampMillis)).append(' ')
+						.append(recordType != null ? recordType.name() : "UNKNOWN");
+				append(line, "username", username);
+				append(line, "client", clientAddress);
+				append(line, "detail", detail);
+				out.println(line);
+			}
+		}
+	}
+
+	private static String getField(ByteBuffer buffer) {
+		int length = Byte.toUnsignedInt(buffer.get());
+		if (length == 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void append(StringBuilder line, String name, String value) {
+		if (value != null) {
+			line.append(' ').append(name).append('=').append(value);
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package com.cognizant.authenticationservice.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.cognizant.authenticationservice.EmployeeUserDetails;
+
+/**
+ * Caching, single-flight decorator around a {@link UserDetailsService}.
+ * <ul>
+ * <li>Found users are cached for {@code ttl}; unknown usernames are cached for {@code negativeTtl}.</li>
+ * <li>Concurrent loads of the same username share one in-flight call to the delegate.</li>
+ * <li>When the delegate fails (e.g. the employee service is down or its circuit breaker is open), a found
+ * user whose entry expired less than {@code staleTtl} ago is served instead of the error.</li>
+ * <li>{@link #invalidate(String)} drops both the cached entry and any in-flight load, so a load that
+ * started before a registration never repopulates the cache with the old record.</li>
+ * </ul>
+ * Callers always receive a fresh copy, because Spring Security erases credentials on the principal
+ * it authenticated.
+ */
+public class CachingUserDetailsService implements UserDetailsService {
+
+	private static final Logger log = LoggerFactory.getLogger(CachingUserDetailsService.class);
+
+	private final UserDetailsService delegate;
+	private final long ttlMillis;
+	private final long negativeTtlMillis;
+	private final long staleTtlMillis;
+	private final int maxSize;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final Map<String, CompletableFuture<UserDetails>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicBoolean evicting = new AtomicBoolean();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder negativeHits = new LongAdder();
+	private final LongAdder sharedLoads = new LongAdder();
+	private final LongAdder staleHits = new LongAdder();
+
+	public CachingUserDetailsService(UserDetailsService delegate, Duration ttl, Duration negativeTtl, int maxSize) {
+		this(delegate, ttl, negativeTtl, Duration.ZERO, maxSize);
+	}
+
+	public CachingUserDetailsService(UserDetailsService delegate, Duration ttl, Duration negativeTtl, Duration staleTtl,
+			int maxSize) {
+		this.delegate = delegate;
+		this.ttlMillis = ttl.toMillis();
+		this.negativeTtlMillis = negativeTtl.toMillis();
+		this.staleTtlMillis = staleTtl.toMillis();
+		this.maxSize = maxSize;
+	}
+
+	@Override
+	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+		Entry entry = entries.get(username);
+		if (entry != null && entry.expiresAtMillis > System.currentTimeMillis()) {
+			if (entry.user == null) {
+				negativeHits.increment();
+				throw new UsernameNotFoundException("User not found: " + username);
+			}
+			hits.increment();
+			return copyOf(entry.user);
+		}
+		misses.increment();
+		return copyOf(load(username));
+	}
+
+	private UserDetails load(String username) {
+		CompletableFuture<UserDetails> call = new CompletableFuture<>();
+		CompletableFuture<UserDetails> leader = inFlight.putIfAbsent(username, call);
+		if (leader != null) {
+			sharedLoads.increment();
+			return await(leader);
+		}
+		try {
+			UserDetails user = delegate.loadUserByUsername(username);
+			cacheIfCurrent(username, call, new Entry(user, System.currentTimeMillis() + ttlMillis));
+			call.complete(user);
+			return user;
+		} catch (UsernameNotFoundException e) {
+			cacheIfCurrent(username, call, new Entry(null, System.currentTimeMillis() + negativeTtlMillis));
+			call.completeExceptionally(e);
+			throw e;
+		} catch (RuntimeException e) {
+			// Remote failures are not cached; the next caller retries
+			inFlight.remove(username, call);
+			UserDetails stale = staleUser(username);
+			if (stale != null) {
+				log.warn("[USER-CACHE] Serving stale user details for username: {} after a failed load. Error: {}",
+						username, e.getMessage());
+				staleHits.increment();
+				call.complete(stale);
+				return stale;
+			}
+			call.completeExceptionally(e);
+			throw e;
+		} catch (Throwable e) {
+			// An Error must still release the waiters and the in-flight slot, or every later load would join it
+			inFlight.remove(username, call);
+			call.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private UserDetails staleUser(String username) {
+		Entry entry = entries.get(username);
+		if (entry == null || entry.user == null || entry.expiresAtMillis + staleTtlMillis <= System.currentTimeMillis()) {
+			return null;
+		}
+		return entry.user;
+	}
+
+	// Only the load that is still registered as in-flight may populate the cache; invalidate() unregisters it.
+	private void cacheIfCurrent(String username, CompletableFuture<UserDetails> call, Entry entry) {
+		if (inFlight.remove(username, call)) {
+			entries.put(username, entry);
+			if (entries.size() > maxSize) {
+				evict();
+			}
+		}
+	}
+
+	private static UserDetails await(CompletableFuture<UserDetails> leader) {
+		try {
+			return leader.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Forgets everything cached or being loaded for the given username.
+	 */
+	public void invalidate(String username) {
+		entries.remove(username);
+		inFlight.remove(username);
+		log.debug("[USER-CACHE] Invalidated cached user details for username: {}", username);
+	}
+
+	public void clear() {
+		entries.clear();
+		inFlight.clear();
+	}
+
+	private void evict() {
+		if (!evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			long now = System.currentTimeMillis();
+			entries.values().removeIf(e -> e.expiresAtMillis + (e.user != null ? staleTtlMillis : 0) <= now);
+			int target = maxSize - maxSize / 10;
+			for (Iterator<Entry> it = entries.values().iterator(); it.hasNext() && entries.size() > target;) {
+				it.next();
+				it.remove();
+			}
+		} finally {
+			evicting.set(false);
+		}
+	}
+
+	private static UserDetails copyOf(UserDetails user) {
+		if (user instanceof EmployeeUserDetails employee) {
+			return new EmployeeUserDetails(employee.getUsername(), employee.getPassword(), employee.getAuthorities(),
+					employee.getEmployeeId(), employee.getManagerId(), employee.getCredentialVersion());
+		}
+		return User.withUserDetails(user).build();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getNegativeHitCount() {
+		return negativeHits.sum();
+	}
+
+	/**
+	 * @return number of loads that joined another caller's in-flight call instead of issuing their own
+	 */
+	public long getSharedLoadCount() {
+		return sharedLoads.sum();
+	}
+
+	/**
+	 * @return number of failed loads answered with an expired entry
+	 */
+	public long getStaleHitCount() {
+		return staleHits.sum();
+	}
+
+	private static final class Entry {
+		private final UserDetails user;
+		private final long expiresAtMillis;
+
+		private Entry(UserDetails user, long expiresAtMillis) {
+			this.user = user;
+			this.expiresAtMillis = expiresAtMillis;
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package com.cognizant.authenticationservice.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.cognizant.authenticationservice.EmployeeUserDetails;
+import com.cognizant.authenticationservice.dto.CredentialDto;
+import com.cognizant.authenticationservice.dto.CredentialFeedDto;
+import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+
+import feign.FeignException;
+
+/**
+ * Local copy of every employee's credential record, active when {@code auth.credential-snapshot.enabled=true}.
+ * <p>
+ * The first sync loads the full record set from the employee service; every later one polls the changes since
+ * the feed version of the previous sync. While the snapshot is current, a user lookup is a map lookup and login
+ * costs only the password check.
+ * <ul>
+ * <li>Entries hold the password hash, the ids and the precomputed credential version. Authorities are shared
+ * between all users of a role.</li>
+ * <li>A failed sync keeps the data, so short employee-service outages go unnoticed. After
+ * {@code auth.credential-snapshot.max-staleness} without a successful sync the snapshot is no longer used,
+ * so a deleted employee cannot keep logging in through a long outage.</li>
+ * <li>A username the snapshot does not know is not treated as unknown: the caller falls back to the employee
+ * service, which finds employees registered since the last sync.</li>
+ * <li>When the employee service can no longer answer the changes since our version (410 Gone), the full
+ * record set is loaded again.</li>
+ * </ul>
+ */
+@Component
+public class CredentialSnapshot {
+
+	private static final Logger log = LoggerFactory.getLogger(CredentialSnapshot.class);
+
+	private final boolean enabled;
+
+	private final Duration maxStaleness;
+
+	private final EmployeeFeignClient employeeFeignClient;
+
+	private volatile Map<String, Credential> credentials = new ConcurrentHashMap<>();
+	// Feed version the snapshot is current as of; -1 until the full record set has been loaded
+	private volatile long version = -1;
+	private volatile long syncedAtMillis;
+
+	private final Map<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
+	private volatile Consumer<String> changeListener = username -> {
+	};
+
+	private final LongAdder syncFailures = new LongAdder();
+
+	public CredentialSnapshot(@Value("${auth.credential-snapshot.enabled:false}") boolean enabled,
+			@Value("${auth.credential-snapshot.max-staleness:PT10M}") Duration maxStaleness,
+			EmployeeFeignClient employeeFeignClient) {
+		this.enabled = enabled;
+		this.maxStaleness = maxStaleness;
+		this.employeeFeignClient = employeeFeignClient;
+	}
+
+	/**
+	 * @return the user, or {@code null} if the snapshot is not current or does not know the username
+	 */
+	public EmployeeUserDetails find(String username) {
+		if (!isCurrent()) {
+			return null;
+		}
+		Credential credential = credentials.get(username);
+		if (credential == null) {
+			return null;
+		}
+		return new EmployeeUserDetails(username, credential.passwordHash, credential.authorities,
+				credential.employeeId, credential.managerId, credential.credentialVersion);
+	}
+
+	public boolean isCurrent() {
+		return enabled && version >= 0 && System.currentTimeMillis() - syncedAtMillis <= maxStaleness.toMillis();
+	}
+
+	/**
+	 * Called with the username of every record a sync changed or removed, so caches built on earlier
+	 * lookups can drop it.
+	 */
+	public void setChangeListener(Consumer<String> changeListener) {
+		this.changeListener = changeListener;
+	}
+
+	/**
+	 * Records a password hash this service has just stored in the employee service, so the snapshot does
+	 * not serve the old one until the change comes back through the feed.
+	 */
+	public void updatePassword(String username, String passwordHash) {
+		credentials.computeIfPresent(username, (name, credential) -> new Credential(passwordHash,
+				credential.authorities, credential.employeeId, credential.managerId));
+	}
+
+	@Scheduled(fixedDelayString = "${auth.credential-snapshot.poll-interval:PT30S}")
+	public void sync() {
+		if (!enabled) {
+			return;
+		}
+		try {
+			if (version >= 0) {
+				try {
+					applyChanges();
+				} catch (FeignException.Gone e) {
+					log.warn("[CREDENTIAL-SNAPSHOT] Changes since version {} are no longer available; reloading all credentials",
+							version);
+					version = -1;
+				}
+			}
+			if (version < 0) {
+				load();
+			}
+			syncedAtMillis = System.currentTimeMillis();
+		} catch (RuntimeException e) {
+			syncFailures.increment();
+			log.warn("[CREDENTIAL-SNAPSHOT] Sync failed, serving version {} synced {} ms ago. Error: {}", version,
+					getStalenessMillis(), e.getMessage());
+		}
+	}
+
+	private void load() {
+		long start = System.currentTimeMillis();
+		CredentialFeedDto feed = employeeFeignClient.credentialSnapshot().getBody();
+		if (feed == null) {
+			throw new IllegalStateException("Empty credential snapshot");
+		}
+		Map<String, Credential> loaded = new ConcurrentHashMap<>(feed.getCredentials().size() * 4 / 3 + 1);
+		for (CredentialDto record : feed.getCredentials()) {
+			if (!record.isDeleted()) {
+				loaded.put(record.getUsername(), credentialOf(record));
+			}
+		}
+		Map<String, Credential> previous = credentials;
+		credentials = loaded;
+		version = feed.getVersion();
+		// After a reload, whatever changed while the feed could not be followed
+		if (!previous.isEmpty()) {
+			previous.forEach((username, credential) -> {
+				if (!credential.equals(loaded.get(username))) {
+					changeListener.accept(username);
+				}
+			});
+		}
+		log.info("[CREDENTIAL-SNAPSHOT] Loaded {} credentials at version {} in {} ms", loaded.size(), version,
+				System.currentTimeMillis() - start);
+	}
+
+	private void applyChanges() {
+		CredentialFeedDto feed = employeeFeignClient.credentialChanges(version).getBody();
+		if (feed == null || feed.getCredentials().isEmpty()) {
+			return;
+		}
+		for (CredentialDto record : feed.getCredentials()) {
+			if (record.isDeleted()) {
+				credentials.remove(record.getUsername());
+			} else {
+				credentials.put(record.getUsername(), credentialOf(record));
+			}
+			changeListener.accept(record.getUsername());
+		}
+		log.info("[CREDENTIAL-SNAPSHOT] Applied {} credential changes, now at version {}", feed.getCredentials().size(),
+				feed.getVersion());
+		version = feed.getVersion();
+	}
+
+	private Credential credentialOf(CredentialDto record) {
+		List<GrantedAuthority> authorities = authoritiesByRole.computeIfAbsent(record.getRole(),
+				role -> List.of(new SimpleGrantedAuthority(role)));
+		return new Credential(record.getPassword(), authorities, record.getEmployeeId(), record.getManagerId());
+	}
+
+	public int size() {
+		return credentials.size();
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return milliseconds since the last successful sync, or -1 if there has been none
+	 */
+	public long getStalenessMillis() {
+		return version < 0 ? -1 : System.currentTimeMillis() - syncedAtMillis;
+	}
+
+	public long getSyncFailureCount() {
+		return syncFailures.sum();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	private static final class Credential {
+		private final String passwordHash;
+		private final List<GrantedAuthority> authorities;
+		private final int employeeId;
+		private final int managerId;
+		private final String credentialVersion;
+
+		private Credential(String passwordHash, List<GrantedAuthority> authorities, int employeeId, int managerId) {
+			this.passwordHash = passwordHash;
+			this.authorities = authorities;
+			this.employeeId = employeeId;
+			this.managerId = managerId;
+			this.credentialVersion = EmployeeUserDetails.credentialVersionOf(passwordHash);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Credential that && employeeId == that.employeeId && managerId == that.managerId
+					&& Objects.equals(passwordHash, that.passwordHash) && authorities.equals(that.authorities);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(passwordHash, employeeId);
+		}
+	}
+}
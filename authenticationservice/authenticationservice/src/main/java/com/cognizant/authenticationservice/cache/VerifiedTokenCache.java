@@ -0,0 +1,199 @@
+package com.cognizant.authenticationservice.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, concurrent cache of bearer tokens that have already been verified and turned into an
+ * {@link Authentication}. Repeated requests with the same token skip HMAC verification and the
+ * employee-service lookup. Entries are keyed by a SHA-256 digest of the token (the raw token is never
+ * kept) and never outlive the token's {@code exp} claim.
+ */
+@Component
+public class VerifiedTokenCache {
+
+	private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+	private final boolean enabled;
+
+	private final int maxSize;
+
+	// Upper bound on how long a principal snapshot is trusted, even if the token lives longer.
+	private final Duration ttl;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean evicting = new AtomicBoolean();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	public VerifiedTokenCache(@Value("${auth.token-cache.enabled:true}") boolean enabled,
+			@Value("${auth.token-cache.max-size:10000}") int maxSize,
+			@Value("${auth.token-cache.ttl:PT10M}") Duration ttl) {
+		this.enabled = enabled;
+		this.maxSize = maxSize;
+		this.ttl = ttl;
+	}
+
+	/**
+	 * @return the cached authentication for this token, or {@code null} if absent or expired
+	 */
+	public Authentication get(String token) {
+		if (!enabled) {
+			return null;
+		}
+		String key = digest(token);
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+			if (entries.remove(key, entry)) {
+				expirations.increment();
+			}
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.authentication;
+	}
+
+	/**
+	 * Caches an authentication built from a verified token.
+	 *
+	 * @param tokenExpiresAtMillis the token's exp claim in epoch milliseconds
+	 */
+	public void put(String token, Authentication authentication, long tokenExpiresAtMillis) {
+		if (!enabled) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long expiresAt = Math.min(tokenExpiresAtMillis, now + ttl.toMillis());
+		if (expiresAt <= now) {
+			return;
+		}
+		entries.put(digest(token), new Entry(authentication, expiresAt));
+		if (entries.size() > maxSize) {
+			evict(now);
+		}
+	}
+
+	/**
+	 * Removes the entry for a single token, e.g. on logout.
+	 */
+	public void invalidate(String token) {
+		entries.remove(digest(token));
+	}
+
+	/**
+	 * Removes every cached token that belongs to the given user.
+	 *
+	 * @return number of entries removed
+	 */
+	public int purgeUser(String username) {
+		int removed = 0;
+		for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+			if (username.equals(it.next().authentication.getName())) {
+				it.remove();
+				removed++;
+			}
+		}
+		if (removed > 0) {
+			log.debug("[TOKEN-CACHE] Purged {} cached token(s) for username: {}", removed, username);
+		}
+		return removed;
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	// Drops expired entries first, then arbitrary ones, until the cache is 10% below its bound.
+	// Only one thread sweeps at a time; the others keep serving from the map meanwhile.
+	private void evict(long now) {
+		if (!evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+				if (it.next().expiresAtMillis <= now) {
+					it.remove();
+					expirations.increment();
+				}
+			}
+			int target = maxSize - maxSize / 10;
+			for (Iterator<Entry> it = entries.values().iterator(); it.hasNext() && entries.size() > target;) {
+				it.next();
+				it.remove();
+				evictions.increment();
+			}
+		} finally {
+			evicting.set(false);
+		}
+	}
+
+	private static String digest(String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	public long getExpirationCount() {
+		return expirations.sum();
+	}
+
+	private static final class Entry {
+		private final Authentication authentication;
+		private final long expiresAtMillis;
+
+		private Entry(Authentication authentication, long expiresAtMillis) {
+			this.authentication = authentication;
+			this.expiresAtMillis = expiresAtMillis;
+		}
+	}
+}
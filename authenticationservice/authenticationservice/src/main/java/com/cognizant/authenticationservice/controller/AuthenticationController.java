@@ -1,9 +1,18 @@
 package com.cognizant.authenticationservice.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,20 +22,41 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.cognizant.authenticationservice.EmployeeUserDetails;
+import com.cognizant.authenticationservice.audit.AuditEventType;
+import com.cognizant.authenticationservice.audit.AuditJournal;
+import com.cognizant.authenticationservice.cache.CachingUserDetailsService;
+import com.cognizant.authenticationservice.cache.VerifiedTokenCache;
 import com.cognizant.authenticationservice.dto.AuthenticationRequestDto;
 import com.cognizant.authenticationservice.dto.AuthenticationResponseDTO;
 import com.cognizant.authenticationservice.dto.EmployeeDto;
+import com.cognizant.authenticationservice.dto.RefreshRequestDto;
 import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+import com.cognizant.authenticationservice.feignclient.EmployeeServiceUnavailableException;
+import com.cognizant.authenticationservice.security.LoginThrottle;
+import com.cognizant.authenticationservice.security.OpaqueTokenStore;
+import com.cognizant.authenticationservice.security.PasswordHashingExecutor;
+import com.cognizant.authenticationservice.security.PasswordHashingRejectedException;
+import com.cognizant.authenticationservice.security.RefreshTokenStore;
+import com.cognizant.authenticationservice.security.TokenRevocationList;
 import com.cognizant.authenticationservice.service.AuthenticationService;
+import com.cognizant.authenticationservice.service.BulkRegistrationService;
 import com.cognizant.authenticationservice.util.JwtUtil;
+import com.cognizant.authenticationservice.util.VerifiedToken;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -51,44 +81,135 @@ public class AuthenticationController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private CachingUserDetailsService userDetailsService;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private BulkRegistrationService bulkRegistrationService;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private AuditJournal auditJournal;
+
+    @Autowired
+    private OpaqueTokenStore opaqueTokenStore;
+
+    private final Map<String, Counter> loginCounters = new HashMap<>();
+
+    public AuthenticationController(MeterRegistry meterRegistry) {
+        // Registered once, so counting a login is a map lookup rather than a registry lookup
+        for (String outcome : List.of("success", "bad_credentials", "throttled", "overloaded", "unavailable", "error")) {
+            loginCounters.put(outcome, Counter.builder("auth.login")
+                .description("Login attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+    }
+
     /**
      * Handles employee registration.
      * Only users with 'MANAGER' role can register new employees.
      *
      * @param employee Employee details
+     * @param httpRequest Supplies the client address for the audit journal
+     * @param manager The authenticated manager registering the employee
      * @return ResponseEntity with registered employee or error message
      */
     @PostMapping("/register")
     @PreAuthorize("hasRole('MANAGER')") // Restricts access to managers
-    public ResponseEntity<?> register(@Valid @RequestBody EmployeeDto employee) {
-        log.info("[AUTHENTICATION-CONTROLLER] Registering new employee: {}", employee.getUsername());
+    public ResponseEntity<?> register(@Valid @RequestBody EmployeeDto employee, HttpServletRequest httpRequest,
+            Authentication manager) {
+        String client = httpRequest.getRemoteAddr();
         try {
             employee.setPassword(passwordEncoder.encode(employee.getPassword()));
             ResponseEntity<EmployeeDto> response = employeeFeignClient.register(employee);
 
             if (response.getStatusCode() == HttpStatus.NOT_FOUND) {
                 log.warn("[AUTHENTICATION-CONTROLLER] Employee or Shift not found.");
+                auditJournal.record(AuditEventType.REGISTRATION_FAILURE, employee.getUsername(), client, "not_found");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Employee or Shift not found.");
             }
 
-            log.info("[AUTHENTICATION-CONTROLLER] Successfully registered employee: {}", employee.getUsername());
+            // Cached lookups and tokens for a previous registration of this username must not keep the old principal
+            userDetailsService.invalidate(employee.getUsername());
+            verifiedTokenCache.purgeUser(employee.getUsername());
+            refreshTokenStore.revokeUser(employee.getUsername());
+            opaqueTokenStore.revokeUser(employee.getUsername());
+
+            log.debug("[AUTHENTICATION-CONTROLLER] Successfully registered employee: {}", employee.getUsername());
+            auditJournal.record(AuditEventType.REGISTRATION, employee.getUsername(), client,
+                manager != null ? manager.getName() : null);
             return ResponseEntity.status(HttpStatus.CREATED).body(response.getBody());
 
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("[AUTHENTICATION-CONTROLLER] Registration shed, password hashing saturated: {}", employee.getUsername());
+            auditJournal.record(AuditEventType.REGISTRATION_FAILURE, employee.getUsername(), client, "overloaded");
+            return overloaded();
+        } catch (EmployeeServiceUnavailableException e) {
+            log.warn("[AUTHENTICATION-CONTROLLER] Registration refused, employee service unavailable: {}. Error: {}", employee.getUsername(), e.getMessage());
+            auditJournal.record(AuditEventType.REGISTRATION_FAILURE, employee.getUsername(), client, "unavailable");
+            return employeeServiceUnavailable(e);
         } catch (Exception e) {
             log.error("[AUTHENTICATION-CONTROLLER] Error registering employee: {}. Error: {}", employee.getUsername(), e.getMessage(), e);
+            auditJournal.record(AuditEventType.REGISTRATION_FAILURE, employee.getUsername(), client, "error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
         }
     }
 
+    /**
+     * Handles bulk employee registration.
+     * Accepts a JSON array or NDJSON of employees and streams back one NDJSON result line per record.
+     * Only users with 'MANAGER' role can register new employees.
+     *
+     * @param request HTTP request whose body holds the employee records
+     * @return ResponseEntity streaming the per-record results
+     */
+    @PostMapping(value = "/register/bulk",
+        consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE },
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('MANAGER')") // Restricts access to managers
+    public ResponseEntity<StreamingResponseBody> registerBulk(HttpServletRequest request) throws IOException {
+        log.info("[AUTHENTICATION-CONTROLLER] Starting bulk employee registration");
+        // The body is read while the results are written, so neither is held in memory as a whole
+        InputStream body = request.getInputStream();
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(out -> bulkRegistrationService.register(body, out));
+    }
+
     /**
      * Handles user login authentication.
      *
-     * @param request Contains username and password
-     * @return ResponseEntity with JWT token or error message
+     * @param request Contains username and password, and optionally the token type
+     * @param httpRequest Supplies the client address for throttling
+     * @return ResponseEntity with JWT or opaque token or error message
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthenticationRequestDto request) {
-        log.info("[AUTHENTICATION-CONTROLLER] Attempting login for username: {}", request.getUsername());
+    public ResponseEntity<?> login(@RequestBody AuthenticationRequestDto request, HttpServletRequest httpRequest) {
+        String client = httpRequest.getRemoteAddr();
+        // Checked before the password, so a throttled attempt never reaches BCrypt
+        Duration retryAfter = loginThrottle.tryAcquire(request.getUsername(), client);
+        if (!retryAfter.isZero()) {
+            log.debug("[AUTHENTICATION-CONTROLLER] Login throttled for username: {} from {}", request.getUsername(), client);
+            recordLogin("throttled", request.getUsername(), client);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)))
+                .body("Too many login attempts, please retry later.");
+        }
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -103,22 +224,167 @@ public class AuthenticationController {
                 .map(GrantedAuthority::getAuthority)
                 .orElse(null);
 
-            String token = jwtUtil.generateToken(userDetails.getUsername(), role);
-            log.info("[AUTHENTICATION-CONTROLLER] Login successful for username: {}", request.getUsername());
+            RefreshTokenStore.Grant grant = userDetails instanceof EmployeeUserDetails employee
+                ? new RefreshTokenStore.Grant(employee.getUsername(), role, employee.getEmployeeId(),
+                    employee.getManagerId(), employee.getCredentialVersion())
+                : new RefreshTokenStore.Grant(userDetails.getUsername(), role, null, null, null);
+            // Opaque sessions slide on use, so they come without a refresh token
+            boolean opaque = opaqueTokenStore.isEnabled() && "opaque".equalsIgnoreCase(request.getTokenType());
+            String token = opaque ? opaqueTokenStore.issue(grant) : generateToken(grant);
+            String refreshToken = opaque ? null : refreshTokenStore.issue(grant);
+            log.debug("[AUTHENTICATION-CONTROLLER] Login successful for username: {}", request.getUsername());
+            recordLogin("success", request.getUsername(), client);
 
-            return ResponseEntity.ok(new AuthenticationResponseDTO(token));
+            return ResponseEntity.ok(new AuthenticationResponseDTO(token, refreshToken));
+        } catch (PasswordHashingRejectedException ex) {
+            log.warn("[AUTHENTICATION-CONTROLLER] Login shed, password hashing saturated: {}", request.getUsername());
+            recordLogin("overloaded", request.getUsername(), client);
+            return overloaded();
         } catch (BadCredentialsException ex) {
-            log.warn("[AUTHENTICATION-CONTROLLER] Invalid login attempt for username: {}", request.getUsername());
+            log.debug("[AUTHENTICATION-CONTROLLER] Invalid login attempt for username: {}", request.getUsername());
+            recordLogin("bad_credentials", request.getUsername(), client);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body("Invalid username or password");
         } catch (AuthenticationException ex) {
+            // User lookups fail inside the authentication provider, which wraps the cause
+            if (ex.getCause() instanceof EmployeeServiceUnavailableException unavailable) {
+                log.warn("[AUTHENTICATION-CONTROLLER] Login refused, employee service unavailable: {}. Error: {}", request.getUsername(), unavailable.getMessage());
+                recordLogin("unavailable", request.getUsername(), client);
+                return employeeServiceUnavailable(unavailable);
+            }
             log.error("[AUTHENTICATION-CONTROLLER] Authentication failed for username: {}. Error: {}", request.getUsername(), ex.getMessage(), ex);
+            recordLogin("error", request.getUsername(), client);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body("Authentication failed: " + ex.getMessage());
         } catch (Exception e) {
             log.error("[AUTHENTICATION-CONTROLLER] Unexpected error during login for username: {}. Error: {}", request.getUsername(), e.getMessage(), e);
+            recordLogin("error", request.getUsername(), client);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("An unexpected error occurred: " + e.getMessage());
         }
     }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * Costs a digest, a map lookup and a (usually cached) user lookup: no password check.
+     * A chain whose user is gone or whose credentials changed since login is revoked instead.
+     *
+     * @param request Contains the refresh token issued at login or by the previous refresh
+     * @param httpRequest Supplies the client address for the audit journal
+     * @return ResponseEntity with the new token pair or error message
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequestDto request, HttpServletRequest httpRequest) {
+        // Checked before rotating, so a client refused with 503 can retry with the same token
+        RefreshTokenStore.Grant grant = refreshTokenStore.peek(request.getRefreshToken());
+        if (grant != null) {
+            String stale;
+            try {
+                stale = isCurrent(grant, userDetailsService.loadUserByUsername(grant.getUsername())) ? null : "credentials_changed";
+            } catch (UsernameNotFoundException e) {
+                stale = "user_not_found";
+            } catch (EmployeeServiceUnavailableException e) {
+                log.warn("[AUTHENTICATION-CONTROLLER] Refresh refused, employee service unavailable: {}. Error: {}", grant.getUsername(), e.getMessage());
+                return employeeServiceUnavailable(e);
+            }
+            if (stale != null) {
+                log.debug("[AUTHENTICATION-CONTROLLER] Revoked refresh token chain for username: {} ({})", grant.getUsername(), stale);
+                refreshTokenStore.revoke(request.getRefreshToken());
+                auditJournal.record(AuditEventType.REFRESH_REJECTED, grant.getUsername(), httpRequest.getRemoteAddr(), stale);
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Invalid or expired refresh token");
+            }
+        }
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(request.getRefreshToken());
+        if (rotation == null) {
+            log.debug("[AUTHENTICATION-CONTROLLER] Rejected refresh with an invalid, expired or reused refresh token");
+            auditJournal.record(AuditEventType.REFRESH_REJECTED, null, httpRequest.getRemoteAddr(), null);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Invalid or expired refresh token");
+        }
+        log.debug("[AUTHENTICATION-CONTROLLER] Refreshed token for username: {}", rotation.getGrant().getUsername());
+        return ResponseEntity.ok(new AuthenticationResponseDTO(generateToken(rotation.getGrant()), rotation.getRefreshToken()));
+    }
+
+    /**
+     * Logs out by revoking the presented access token until it expires, and the refresh token if one is given.
+     * An opaque token's session is ended at once.
+     *
+     * @param authorization Bearer token to revoke
+     * @param request Optionally contains the refresh token of the same session
+     * @param httpRequest Supplies the client address for the audit journal
+     * @return 204 No Content, or an error message if the token is invalid
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshRequestDto request, HttpServletRequest httpRequest) {
+        if (authorization != null && authorization.startsWith("Bearer ") && opaqueTokenStore.isEnabled()
+                && OpaqueTokenStore.isOpaque(authorization.substring(7))) {
+            String username = opaqueTokenStore.revoke(authorization.substring(7));
+            if (username == null) {
+                log.debug("[AUTHENTICATION-CONTROLLER] Logout rejected: unknown or expired opaque token");
+                auditJournal.record(AuditEventType.TOKEN_REJECTED, null, httpRequest.getRemoteAddr(), "logout");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Invalid or expired token");
+            }
+            log.debug("[AUTHENTICATION-CONTROLLER] Logged out username: {}", username);
+            auditJournal.record(AuditEventType.LOGOUT, username, httpRequest.getRemoteAddr(), "opaque");
+            return ResponseEntity.noContent().build();
+        }
+
+        VerifiedToken verified = authorization != null && authorization.startsWith("Bearer ")
+            ? jwtUtil.verify(authorization.substring(7))
+            : null;
+        if (verified == null) {
+            log.debug("[AUTHENTICATION-CONTROLLER] Logout rejected: missing, invalid or expired token");
+            auditJournal.record(AuditEventType.TOKEN_REJECTED, null, httpRequest.getRemoteAddr(), "logout");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Invalid or expired token");
+        }
+
+        // Revoke first, then drop the cached principal: the request filter relies on this order
+        tokenRevocationList.revoke(verified.getTokenId(), verified.getExpiresAtMillis());
+        verifiedTokenCache.invalidate(authorization.substring(7));
+        if (request != null) {
+            refreshTokenStore.revoke(request.getRefreshToken());
+        }
+
+        log.debug("[AUTHENTICATION-CONTROLLER] Logged out username: {}", verified.getSubject());
+        auditJournal.record(AuditEventType.LOGOUT, verified.getSubject(), httpRequest.getRemoteAddr(), null);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Same rule as the request filter applies to access tokens
+    private static boolean isCurrent(RefreshTokenStore.Grant grant, UserDetails user) {
+        return grant.getCredentialVersion() == null || !(user instanceof EmployeeUserDetails employee)
+            || grant.getCredentialVersion().equals(employee.getCredentialVersion());
+    }
+
+    private String generateToken(RefreshTokenStore.Grant grant) {
+        return grant.getEmployeeId() != null
+            ? jwtUtil.generateToken(grant.getUsername(), grant.getRole(), grant.getEmployeeId(),
+                grant.getManagerId(), grant.getCredentialVersion())
+            : jwtUtil.generateToken(grant.getUsername(), grant.getRole());
+    }
+
+    private void recordLogin(String outcome, String username, String client) {
+        loginCounters.get(outcome).increment();
+        if ("success".equals(outcome)) {
+            auditJournal.record(AuditEventType.LOGIN_SUCCESS, username, client, null);
+        } else {
+            auditJournal.record(AuditEventType.LOGIN_FAILURE, username, client, outcome);
+        }
+    }
+
+    private ResponseEntity<?> overloaded() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, passwordHashingExecutor.getRetryAfter().toSeconds())))
+            .body("Service is busy, please retry shortly.");
+    }
+
+    private ResponseEntity<?> employeeServiceUnavailable(EmployeeServiceUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000)))
+            .body("Employee service is unavailable, please retry shortly.");
+    }
 }
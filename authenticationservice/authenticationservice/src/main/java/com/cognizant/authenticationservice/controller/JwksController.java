@@ -0,0 +1,43 @@
+package com.cognizant.authenticationservice.controller;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cognizant.authenticationservice.util.JwtKeyRing;
+
+/**
+ * Publishes the public token-signing keys as a JWK Set, so downstream services can verify tokens locally.
+ * The document is cacheable: clients may keep it for {@code auth.jwt.jwks-max-age}, which must stay shorter
+ * than the key rotation interval (the next key is always published one rotation ahead).
+ */
+@RestController
+public class JwksController {
+
+    private final ObjectProvider<JwtKeyRing> keyRing;
+
+    private final Duration maxAge;
+
+    public JwksController(ObjectProvider<JwtKeyRing> keyRing, @Value("${auth.jwt.jwks-max-age:PT1H}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.maxAge = maxAge;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        JwtKeyRing ring = keyRing.getIfAvailable();
+        // With the HS256 shared secret there is nothing that may be published
+        Map<String, Object> jwks = ring != null ? ring.getJwks() : Map.of("keys", List.of());
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+            .eTag(Integer.toHexString(jwks.hashCode()))
+            .body(jwks);
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 public class AuthenticationRequestDto {
 	private String username;
 	private String password;
+	// "opaque" asks for an opaque access token when auth.opaque-token.enabled=true; otherwise a JWT is issued
+	private String tokenType;
 	public String getUsername() {
 		return username;
 	}
@@ -18,4 +20,10 @@ public class AuthenticationRequestDto {
 	public void setPassword(String password) {
 		this.password = password;
 	}
+	public String getTokenType() {
+		return tokenType;
+	}
+	public void setTokenType(String tokenType) {
+		this.tokenType = tokenType;
+	}
 }
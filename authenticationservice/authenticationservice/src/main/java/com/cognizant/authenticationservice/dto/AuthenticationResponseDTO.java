@@ -1,7 +1,13 @@
 package com.cognizant.authenticationservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class AuthenticationResponseDTO {
 	private String token;
+
+	// Only present when refresh tokens are enabled
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String refreshToken;
 	
 
 	public AuthenticationResponseDTO(String token) {
@@ -9,6 +15,11 @@ public class AuthenticationResponseDTO {
 		this.token = token;
 	}
 
+	public AuthenticationResponseDTO(String token, String refreshToken) {
+		this(token);
+		this.refreshToken = refreshToken;
+	}
+
 	public String getToken() {
 		return token;
 	}
@@ -17,5 +28,13 @@ public class AuthenticationResponseDTO {
 		this.token = token;
 	}
 
+	public String getRefreshToken() {
+		return refreshToken;
+	}
+
+	public void setRefreshToken(String refreshToken) {
+		this.refreshToken = refreshToken;
+	}
+
 	
 }
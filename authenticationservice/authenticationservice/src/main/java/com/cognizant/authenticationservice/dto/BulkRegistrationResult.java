@@ -0,0 +1,57 @@
+package com.cognizant.authenticationservice.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one record of a bulk registration, streamed back as one NDJSON line.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRegistrationResult {
+
+	public enum Status {
+		/** Saved by the employee service. */
+		CREATED,
+		/** Failed validation or could not be mapped; not sent downstream. */
+		INVALID,
+		/** Password hashing was saturated; the record can be submitted again. */
+		REJECTED,
+		/** The employee service did not save the record. */
+		FAILED
+	}
+
+	private final int index;
+	private final String username;
+	private final Status status;
+	private final Integer employeeId;
+	private final List<String> errors;
+
+	public BulkRegistrationResult(int index, String username, Status status, Integer employeeId, List<String> errors) {
+		this.index = index;
+		this.username = username;
+		this.status = status;
+		this.employeeId = employeeId;
+		this.errors = errors;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public Integer getEmployeeId() {
+		return employeeId;
+	}
+
+	public List<String> getErrors() {
+		return errors;
+	}
+}
@@ -0,0 +1,62 @@
+package com.cognizant.authenticationservice.dto;
+
+/**
+ * Login-relevant fields of one employee, as served by the employee service's credential feed.
+ */
+public class CredentialDto {
+	private String username;
+	private String password;
+	private String role;
+	private int employeeId;
+	private int managerId;
+	// Only set in a change feed, for an employee that no longer exists
+	private boolean deleted;
+
+	public String getUsername() {
+		return username;
+	}
+
+	public void setUsername(String username) {
+		this.username = username;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	public void setPassword(String password) {
+		this.password = password;
+	}
+
+	public String getRole() {
+		return role;
+	}
+
+	public void setRole(String role) {
+		this.role = role;
+	}
+
+	public int getEmployeeId() {
+		return employeeId;
+	}
+
+	public void setEmployeeId(int employeeId) {
+		this.employeeId = employeeId;
+	}
+
+	public int getManagerId() {
+		return managerId;
+	}
+
+	public void setManagerId(int managerId) {
+		this.managerId = managerId;
+	}
+
+	public boolean isDeleted() {
+		return deleted;
+	}
+
+	public void setDeleted(boolean deleted) {
+		this.deleted = deleted;
+	}
+}
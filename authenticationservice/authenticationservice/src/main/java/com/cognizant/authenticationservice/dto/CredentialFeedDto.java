@@ -0,0 +1,29 @@
+package com.cognizant.authenticationservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page of the employee service's credential feed: either every credential record, or the records changed
+ * since a given version. {@code version} is the feed position the page brings the reader up to.
+ */
+public class CredentialFeedDto {
+	private long version;
+	private List<CredentialDto> credentials = new ArrayList<>();
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
+	public List<CredentialDto> getCredentials() {
+		return credentials;
+	}
+
+	public void setCredentials(List<CredentialDto> credentials) {
+		this.credentials = credentials;
+	}
+}
@@ -0,0 +1,13 @@
+package com.cognizant.authenticationservice.dto;
+
+public class RefreshRequestDto {
+	private String refreshToken;
+
+	public String getRefreshToken() {
+		return refreshToken;
+	}
+
+	public void setRefreshToken(String refreshToken) {
+		this.refreshToken = refreshToken;
+	}
+}
@@ -0,0 +1,58 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the calls of one client method in flight at once, so a slow method cannot take every request thread
+ * with it. A call that finds the bulkhead full waits up to {@code maxWait} for a permit and is then rejected.
+ */
+class Bulkhead {
+
+	private final String method;
+	private final int maxConcurrentCalls;
+	private final long maxWaitNanos;
+	private final Semaphore permits;
+
+	private final LongAdder rejected = new LongAdder();
+
+	Bulkhead(String method, int maxConcurrentCalls, Duration maxWait) {
+		this.method = method;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.maxWaitNanos = maxWait.toNanos();
+		this.permits = new Semaphore(maxConcurrentCalls, true);
+	}
+
+	void acquire() {
+		boolean acquired;
+		try {
+			acquired = maxWaitNanos > 0 ? permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS) : permits.tryAcquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			rejected.increment();
+			throw new EmployeeServiceUnavailableException(
+					"Too many concurrent " + method + " calls to the employee service", Duration.ofSeconds(1));
+		}
+	}
+
+	void release() {
+		permits.release();
+	}
+
+	int getActiveCalls() {
+		return maxConcurrentCalls - permits.availablePermits();
+	}
+
+	int getMaxConcurrentCalls() {
+		return maxConcurrentCalls;
+	}
+
+	long getRejectedCount() {
+		return rejected.sum();
+	}
+}
@@ -0,0 +1,140 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count-based circuit breaker over all calls of the employee service client.
+ * <ul>
+ * <li><b>closed</b>: calls go through; the outcomes of the last {@code sliding-window-size} calls are kept,
+ * and the breaker opens once at least {@code minimum-calls} were made and the failure rate reaches the
+ * threshold;</li>
+ * <li><b>open</b>: calls are rejected without being sent, for {@code open-duration};</li>
+ * <li><b>half-open</b>: {@code half-open-calls} trial calls go through. The breaker closes when all of them
+ * succeed and opens again at the first failure.</li>
+ * </ul>
+ * Every permission carries the generation of the state it was granted in, so a call that was sent before
+ * a transition does not count towards the next state.
+ */
+class CircuitBreaker {
+
+	private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+	enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final double failureRateThreshold;
+	private final int minimumCalls;
+	private final long openNanos;
+	private final int halfOpenCalls;
+
+	// Ring buffer of call outcomes while closed
+	private final boolean[] failures;
+	private int recorded;
+	private int next;
+	private int failureCount;
+
+	private State state = State.CLOSED;
+	private long generation;
+	private long openedAtNanos;
+	private int trialPermits;
+	private int trialSuccesses;
+
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder opened = new LongAdder();
+
+	CircuitBreaker(EmployeeClientProperties.CircuitBreakerSettings settings) {
+		this.failureRateThreshold = settings.getFailureRateThreshold();
+		this.minimumCalls = Math.min(settings.getMinimumCalls(), settings.getSlidingWindowSize());
+		this.openNanos = settings.getOpenDuration().toNanos();
+		this.halfOpenCalls = Math.max(1, settings.getHalfOpenCalls());
+		this.failures = new boolean[Math.max(1, settings.getSlidingWindowSize())];
+	}
+
+	/**
+	 * @return the generation to pass to {@link #record(long, boolean)} once the call completed
+	 * @throws EmployeeServiceUnavailableException if the breaker does not let the call through
+	 */
+	synchronized long acquire() {
+		if (state == State.OPEN) {
+			long remaining = openedAtNanos + openNanos - System.nanoTime();
+			if (remaining > 0) {
+				rejected.increment();
+				throw new EmployeeServiceUnavailableException("Employee service circuit breaker is open",
+						Duration.ofNanos(remaining));
+			}
+			transition(State.HALF_OPEN);
+			trialPermits = halfOpenCalls;
+			trialSuccesses = 0;
+		}
+		if (state == State.HALF_OPEN) {
+			if (trialPermits == 0) {
+				rejected.increment();
+				throw new EmployeeServiceUnavailableException("Employee service circuit breaker is half-open",
+						Duration.ofSeconds(1));
+			}
+			trialPermits--;
+		}
+		return generation;
+	}
+
+	synchronized void record(long permitGeneration, boolean failed) {
+		if (permitGeneration != generation) {
+			return;
+		}
+		if (state == State.HALF_OPEN) {
+			if (failed) {
+				open();
+			} else if (++trialSuccesses == halfOpenCalls) {
+				transition(State.CLOSED);
+			}
+			return;
+		}
+		if (recorded == failures.length) {
+			if (failures[next]) {
+				failureCount--;
+			}
+		} else {
+			recorded++;
+		}
+		failures[next] = failed;
+		if (failed) {
+			failureCount++;
+		}
+		next = (next + 1) % failures.length;
+		if (failed && recorded >= minimumCalls && failureCount >= failureRateThreshold * recorded) {
+			open();
+		}
+	}
+
+	private void open() {
+		transition(State.OPEN);
+		openedAtNanos = System.nanoTime();
+		opened.increment();
+	}
+
+	private void transition(State to) {
+		log.warn("[CIRCUIT-BREAKER] Employee service circuit breaker {} -> {}", state, to);
+		state = to;
+		generation++;
+		recorded = 0;
+		next = 0;
+		failureCount = 0;
+	}
+
+	synchronized State getState() {
+		return state;
+	}
+
+	long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	long getOpenedCount() {
+		return opened.sum();
+	}
+}
@@ -0,0 +1,249 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection settings of {@link EmployeeFeignClient}, bound from {@code employee-service.*}.
+ * <p>
+ * {@code employee-service.methods.<method name>.read-timeout} / {@code .connect-timeout} override the
+ * client-wide timeouts for a single interface method; {@code .max-concurrent-calls} and {@code .hedge} set
+ * its bulkhead and hedging, see {@link ResilienceCapability}.
+ */
+@Component
+@ConfigurationProperties(prefix = "employee-service")
+public class EmployeeClientProperties {
+
+	/**
+	 * Fixed base URL; when empty, instances of {@code employeemanagement} are discovered through Eureka.
+	 */
+	private String url = "";
+
+	/**
+	 * Connect timeout for all methods; when unset, the timeout of the pooled HTTP client is used.
+	 */
+	private Duration connectTimeout;
+
+	private Duration readTimeout = Duration.ofSeconds(5);
+
+	private Map<String, MethodSettings> methods = new HashMap<>();
+
+	private final CircuitBreakerSettings circuitBreaker = new CircuitBreakerSettings();
+
+	private final HedgingSettings hedging = new HedgingSettings();
+
+	public String getUrl() {
+		return url;
+	}
+
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+	public Duration getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(Duration connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	public Duration getReadTimeout() {
+		return readTimeout;
+	}
+
+	public void setReadTimeout(Duration readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+
+	public Map<String, MethodSettings> getMethods() {
+		return methods;
+	}
+
+	public void setMethods(Map<String, MethodSettings> methods) {
+		this.methods = methods;
+	}
+
+	public CircuitBreakerSettings getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	public HedgingSettings getHedging() {
+		return hedging;
+	}
+
+	public static class MethodSettings {
+
+		private Duration connectTimeout;
+
+		private Duration readTimeout;
+
+		/**
+		 * Calls of this method in flight at once; further calls wait up to {@code max-wait}, then fail. 0 = no limit.
+		 */
+		private int maxConcurrentCalls;
+
+		private Duration maxWait = Duration.ZERO;
+
+		/**
+		 * Whether a slow call is repeated against another instance. Only GET and HEAD methods are hedged.
+		 */
+		private boolean hedge;
+
+		public int getMaxConcurrentCalls() {
+			return maxConcurrentCalls;
+		}
+
+		public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+			this.maxConcurrentCalls = maxConcurrentCalls;
+		}
+
+		public Duration getMaxWait() {
+			return maxWait;
+		}
+
+		public void setMaxWait(Duration maxWait) {
+			this.maxWait = maxWait;
+		}
+
+		public boolean isHedge() {
+			return hedge;
+		}
+
+		public void setHedge(boolean hedge) {
+			this.hedge = hedge;
+		}
+
+		public Duration getConnectTimeout() {
+			return connectTimeout;
+		}
+
+		public void setConnectTimeout(Duration connectTimeout) {
+			this.connectTimeout = connectTimeout;
+		}
+
+		public Duration getReadTimeout() {
+			return readTimeout;
+		}
+
+		public void setReadTimeout(Duration readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+	}
+
+	public static class CircuitBreakerSettings {
+
+		private boolean enabled = true;
+
+		/**
+		 * Share of failed calls (connection errors, timeouts, 5xx) among the last {@code sliding-window-size}
+		 * that opens the breaker, once at least {@code minimum-calls} were made.
+		 */
+		private double failureRateThreshold = 0.5;
+
+		private int slidingWindowSize = 20;
+
+		private int minimumCalls = 10;
+
+		/**
+		 * How long an open breaker rejects calls before letting {@code half-open-calls} trial calls through.
+		 */
+		private Duration openDuration = Duration.ofSeconds(10);
+
+		private int halfOpenCalls = 3;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public double getFailureRateThreshold() {
+			return failureRateThreshold;
+		}
+
+		public void setFailureRateThreshold(double failureRateThreshold) {
+			this.failureRateThreshold = failureRateThreshold;
+		}
+
+		public int getSlidingWindowSize() {
+			return slidingWindowSize;
+		}
+
+		public void setSlidingWindowSize(int slidingWindowSize) {
+			this.slidingWindowSize = slidingWindowSize;
+		}
+
+		public int getMinimumCalls() {
+			return minimumCalls;
+		}
+
+		public void setMinimumCalls(int minimumCalls) {
+			this.minimumCalls = minimumCalls;
+		}
+
+		public Duration getOpenDuration() {
+			return openDuration;
+		}
+
+		public void setOpenDuration(Duration openDuration) {
+			this.openDuration = openDuration;
+		}
+
+		public int getHalfOpenCalls() {
+			return halfOpenCalls;
+		}
+
+		public void setHalfOpenCalls(int halfOpenCalls) {
+			this.halfOpenCalls = halfOpenCalls;
+		}
+	}
+
+	public static class HedgingSettings {
+
+		/**
+		 * Latency percentile of recent calls after which a hedged call is sent.
+		 */
+		private double percentile = 0.95;
+
+		/**
+		 * Lower bound of the hedging delay, so fast calls are not doubled over noise.
+		 */
+		private Duration minDelay = Duration.ofMillis(20);
+
+		/**
+		 * Hedged calls allowed per call, so a slowdown of every instance does not double the load.
+		 */
+		private double maxRatio = 0.1;
+
+		public double getPercentile() {
+			return percentile;
+		}
+
+		public void setPercentile(double percentile) {
+			this.percentile = percentile;
+		}
+
+		public Duration getMinDelay() {
+			return minDelay;
+		}
+
+		public void setMinDelay(Duration minDelay) {
+			this.minDelay = minDelay;
+		}
+
+		public double getMaxRatio() {
+			return maxRatio;
+		}
+
+		public void setMaxRatio(double maxRatio) {
+			this.maxRatio = maxRatio;
+		}
+	}
+}
@@ -1,12 +1,18 @@
 package com.cognizant.authenticationservice.feignclient;
 
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import com.cognizant.authenticationservice.dto.CredentialFeedDto;
 import com.cognizant.authenticationservice.dto.EmployeeDto;
 
 import jakarta.validation.Valid;
@@ -14,8 +20,11 @@ import jakarta.validation.Valid;
 /**
  * Feign Client for interacting with Employee Management Microservice.
  * Enables seamless communication between Authentication Service and Employee Management.
+ * Instances are discovered through Eureka unless {@code employee-service.url} pins a fixed base URL.
+ * That URL is passed on through {@code spring.cloud.openfeign.client.config.employeemanagement.url}, which,
+ * unlike the {@code url} attribute, is still read at startup when the context was generated ahead of time.
  */
-@FeignClient(name="employeemanagement", url="http://localhost:9090") // ✅ Specifies service name & base URL
+@FeignClient(name="employeemanagement", configuration=EmployeeFeignClientConfiguration.class) // ✅ Service name
 public interface EmployeeFeignClient {
 
     /**
@@ -27,6 +36,15 @@ public interface EmployeeFeignClient {
     @PostMapping("/api/employee/register-employee")
     public ResponseEntity<EmployeeDto> register(@Valid @RequestBody EmployeeDto employee);
 
+    /**
+     * Registers a batch of employees in Employee Management Service with a single call.
+     * 
+     * @param employees The employees to be saved, with passwords already encoded.
+     * @return ResponseEntity with the employees that were saved.
+     */
+    @PostMapping("/api/employee/register-employees")
+    public ResponseEntity<List<EmployeeDto>> registerAll(@RequestBody List<EmployeeDto> employees);
+
     /**
      * Retrieves employee details by username from Employee Management Service.
      * 
@@ -35,4 +53,42 @@ public interface EmployeeFeignClient {
      */
     @GetMapping("/api/employee/employee-username/{username}")
     public ResponseEntity<EmployeeDto> findByUsername(@PathVariable String username);
+
+    /**
+     * Retrieves the employees with any of the given usernames with a single call.
+     * Usernames that do not exist are left out of the response rather than failing it.
+     *
+     * @param usernames The usernames to look up.
+     * @return ResponseEntity with the employees that were found, in no particular order.
+     */
+    @PostMapping("/api/employee/employees-by-username")
+    public ResponseEntity<List<EmployeeDto>> findAllByUsername(@RequestBody List<String> usernames);
+
+    /**
+     * Replaces the stored password hash of an employee, e.g. to upgrade it to a stronger encoding.
+     * 
+     * @param username The unique username of the employee.
+     * @param encodedPassword The new password hash.
+     * @return ResponseEntity with no body.
+     */
+    @PutMapping(value = "/api/employee/update-password/{username}", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<Void> updatePassword(@PathVariable String username, @RequestBody String encodedPassword);
+
+    /**
+     * Retrieves the credential record of every employee, for the local credential snapshot.
+     * 
+     * @return ResponseEntity with all records and the feed version they are current as of.
+     */
+    @GetMapping("/api/employee/credentials")
+    public ResponseEntity<CredentialFeedDto> credentialSnapshot();
+
+    /**
+     * Retrieves the credential records created, changed or deleted after a feed version.
+     * Responds with 410 Gone when that version is too old to be answered with changes.
+     * 
+     * @param since The feed version the caller is current as of.
+     * @return ResponseEntity with the changed records and the feed version they bring the caller up to.
+     */
+    @GetMapping("/api/employee/credentials/changes")
+    public ResponseEntity<CredentialFeedDto> credentialChanges(@RequestParam("since") long since);
 }
@@ -0,0 +1,31 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import java.net.http.HttpClient;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+
+import feign.Capability;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Feign configuration of {@link EmployeeFeignClient} only; like the load balancer configuration it is not a
+ * {@code @Configuration}, so it stays out of the shared context.
+ */
+public class EmployeeFeignClientConfiguration {
+
+	@Bean
+	public Capability methodTimeoutsCapability(EmployeeClientProperties properties,
+			ObjectProvider<HttpClient> httpClient) {
+		HttpClient pooled = httpClient.getIfAvailable();
+		return new MethodTimeoutsCapability(properties,
+				pooled != null ? pooled.connectTimeout().orElse(null) : null);
+	}
+
+	@Bean
+	public Capability resilienceCapability(EmployeeClientProperties properties,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return new ResilienceCapability(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+	}
+}
@@ -0,0 +1,23 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of calling the employee service when its circuit breaker is open or the method's bulkhead is
+ * full. Controllers translate it into {@code 503 Service Unavailable} with a {@code Retry-After} header.
+ */
+public class EmployeeServiceUnavailableException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Duration retryAfter;
+
+	public EmployeeServiceUnavailableException(String message, Duration retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+}
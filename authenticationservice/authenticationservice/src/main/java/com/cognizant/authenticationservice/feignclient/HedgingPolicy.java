@@ -0,0 +1,95 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * When to hedge the calls of one client method: after the configured percentile of its recent latencies, and
+ * only while the hedge budget allows.
+ * <p>
+ * The latencies of the last {@value #SAMPLES} successful calls are kept in a ring; the delay is recomputed
+ * from a sorted copy every {@value #RECOMPUTE_EVERY} samples. Until the ring is full there is no delay and no
+ * hedging, so a cold client does not double its first calls.
+ * <p>
+ * The budget is a token bucket in thousandths of a call: every call adds {@code max-ratio} of a hedge, every
+ * hedge takes a whole one, and at most {@value #MAX_BURST} hedges can be saved up.
+ */
+class HedgingPolicy {
+
+	private static final int SAMPLES = 128;
+	private static final int RECOMPUTE_EVERY = 16;
+	private static final long MAX_BURST = 10;
+
+	private final double percentile;
+	private final long minDelayNanos;
+	private final long tokensPerCall;
+
+	private final long[] samples = new long[SAMPLES];
+	private int recorded;
+	private int next;
+	private volatile long delayNanos = -1;
+
+	private final AtomicLong budget = new AtomicLong();
+
+	private final LongAdder sent = new LongAdder();
+	private final LongAdder won = new LongAdder();
+
+	HedgingPolicy(EmployeeClientProperties.HedgingSettings settings) {
+		this.percentile = settings.getPercentile();
+		this.minDelayNanos = settings.getMinDelay().toNanos();
+		this.tokensPerCall = Math.round(settings.getMaxRatio() * 1000);
+	}
+
+	synchronized void recordLatency(long nanos) {
+		samples[next] = nanos;
+		next = (next + 1) % SAMPLES;
+		if (recorded < SAMPLES) {
+			recorded++;
+		}
+		if (recorded == SAMPLES && next % RECOMPUTE_EVERY == 0) {
+			long[] sorted = samples.clone();
+			Arrays.sort(sorted);
+			int index = (int) Math.ceil(percentile * SAMPLES) - 1;
+			delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, Math.min(SAMPLES - 1, index))]);
+		}
+	}
+
+	/**
+	 * @return how long to wait for the first attempt before hedging, or -1 while too few calls were seen
+	 */
+	long getDelayNanos() {
+		return delayNanos;
+	}
+
+	/**
+	 * Earns the share of a hedge every call is worth.
+	 */
+	void onCall() {
+		budget.getAndUpdate(tokens -> Math.min(MAX_BURST * 1000, tokens + tokensPerCall));
+	}
+
+	boolean tryAcquireHedge() {
+		long tokens;
+		do {
+			tokens = budget.get();
+			if (tokens < 1000) {
+				return false;
+			}
+		} while (!budget.compareAndSet(tokens, tokens - 1000));
+		sent.increment();
+		return true;
+	}
+
+	void onHedgeWon() {
+		won.increment();
+	}
+
+	long getSentCount() {
+		return sent.sum();
+	}
+
+	long getWonCount() {
+		return won.sum();
+	}
+}
@@ -0,0 +1,60 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import feign.Capability;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+
+/**
+ * Applies per-method connect and read timeouts to every call of a Feign client.
+ * <p>
+ * The options are resolved once per interface method. The read timeout becomes the timeout of the single
+ * request. The Java HTTP client keeps one connection pool per distinct connect timeout, so the connect
+ * timeout defaults to the one of the shared pooled client and should only be overridden where needed.
+ */
+public class MethodTimeoutsCapability implements Capability {
+
+	private final EmployeeClientProperties properties;
+	private final Duration defaultConnectTimeout;
+
+	private final Map<Method, Request.Options> options = new ConcurrentHashMap<>();
+
+	public MethodTimeoutsCapability(EmployeeClientProperties properties, Duration defaultConnectTimeout) {
+		this.properties = properties;
+		this.defaultConnectTimeout = defaultConnectTimeout;
+	}
+
+	@Override
+	public Client enrich(Client client) {
+		return (request, requestOptions) -> {
+			MethodMetadata metadata = request.requestTemplate().methodMetadata();
+			if (metadata == null || metadata.method() == null) {
+				return client.execute(request, requestOptions);
+			}
+			return client.execute(request,
+					options.computeIfAbsent(metadata.method(), method -> optionsFor(method, requestOptions)));
+		};
+	}
+
+	private Request.Options optionsFor(Method method, Request.Options defaults) {
+		EmployeeClientProperties.MethodSettings overrides = properties.getMethods().get(method.getName());
+		Duration connect = firstNonNull(overrides != null ? overrides.getConnectTimeout() : null,
+				properties.getConnectTimeout(), defaultConnectTimeout);
+		Duration read = firstNonNull(overrides != null ? overrides.getReadTimeout() : null, properties.getReadTimeout(),
+				null);
+		return new Request.Options(
+				connect != null ? connect.toMillis() : defaults.connectTimeoutMillis(), TimeUnit.MILLISECONDS,
+				read != null ? read.toMillis() : defaults.readTimeoutMillis(), TimeUnit.MILLISECONDS,
+				defaults.isFollowRedirects());
+	}
+
+	private static Duration firstNonNull(Duration first, Duration second, Duration third) {
+		return first != null ? first : second != null ? second : third;
+	}
+}
@@ -0,0 +1,285 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import feign.Capability;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bulkheads, a circuit breaker and hedging around every call of a Feign client.
+ * <ul>
+ * <li>A method with {@code max-concurrent-calls} gets a {@link Bulkhead} of its own, so slow registrations
+ * cannot starve logins of connections and threads, and the other way round.</li>
+ * <li>One {@link CircuitBreaker} covers the whole client. Connection errors, timeouts and 5xx responses count
+ * as failures; 4xx responses are answers and do not.</li>
+ * <li>A GET or HEAD method with {@code hedge=true} is sent a second time when the first attempt has not answered after
+ * the {@link HedgingPolicy} delay; the first answer wins and the other attempt is cancelled. Both attempts
+ * carry the same {@value #HEDGE_ID_HEADER} header, which lets the load balancer send the second one to a
+ * different instance.</li>
+ * </ul>
+ * Calls that the bulkhead or the breaker refuse fail with {@link EmployeeServiceUnavailableException} without
+ * reaching the network.
+ */
+public class ResilienceCapability implements Capability {
+
+	private static final Logger log = LoggerFactory.getLogger(ResilienceCapability.class);
+
+	public static final String HEDGE_ID_HEADER = "X-Hedge-Id";
+
+	// Set on threads running a task passed to #unguarded
+	private static final ThreadLocal<Boolean> UNGUARDED = new ThreadLocal<>();
+
+	private final EmployeeClientProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final CircuitBreaker circuitBreaker;
+
+	private final Map<Method, MethodPolicy> policies = new ConcurrentHashMap<>();
+
+	// Attempts block on the HTTP client, so each gets a virtual thread of its own
+	private final ExecutorService attempts = Executors.newVirtualThreadPerTaskExecutor();
+
+	public ResilienceCapability(EmployeeClientProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.circuitBreaker = properties.getCircuitBreaker().isEnabled()
+				? new CircuitBreaker(properties.getCircuitBreaker())
+				: null;
+		if (circuitBreaker != null) {
+			for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+				Gauge.builder("auth.employee.circuit.state", circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+						.description("1 for the current state of the employee service circuit breaker")
+						.tag("state", state.name().toLowerCase())
+						.register(meterRegistry);
+			}
+			FunctionCounter.builder("auth.employee.circuit.rejected", circuitBreaker, CircuitBreaker::getRejectedCount)
+					.description("Employee service calls refused by the circuit breaker")
+					.register(meterRegistry);
+			FunctionCounter.builder("auth.employee.circuit.opened", circuitBreaker, CircuitBreaker::getOpenedCount)
+					.register(meterRegistry);
+		}
+	}
+
+	@Override
+	public Client enrich(Client client) {
+		return (request, options) -> {
+			MethodMetadata metadata = request.requestTemplate().methodMetadata();
+			if (metadata == null || metadata.method() == null || UNGUARDED.get() != null) {
+				return client.execute(request, options);
+			}
+			MethodPolicy policy = policies.computeIfAbsent(metadata.method(), method -> policyFor(metadata));
+			if (policy.bulkhead != null) {
+				policy.bulkhead.acquire();
+			}
+			try {
+				long permit = circuitBreaker != null ? circuitBreaker.acquire() : 0;
+				Response response;
+				try {
+					response = policy.hedging != null
+							? executeHedged(client, request, options, policy.hedging)
+							: client.execute(request, options);
+				} catch (IOException | RuntimeException e) {
+					if (circuitBreaker != null) {
+						circuitBreaker.record(permit, true);
+					}
+					throw e;
+				}
+				if (circuitBreaker != null) {
+					circuitBreaker.record(permit, response.status() >= 500);
+				}
+				return response;
+			} finally {
+				if (policy.bulkhead != null) {
+					policy.bulkhead.release();
+				}
+			}
+		};
+	}
+
+	private Response executeHedged(Client client, Request request, Request.Options options, HedgingPolicy hedging)
+			throws IOException {
+		hedging.onCall();
+		long delayNanos = hedging.getDelayNanos();
+		if (delayNanos < 0) {
+			long start = System.nanoTime();
+			Response response = client.execute(request, options);
+			if (response.status() < 500) {
+				hedging.recordLatency(System.nanoTime() - start);
+			}
+			return response;
+		}
+
+		Request tagged = withHeader(request, HEDGE_ID_HEADER, Long.toHexString(ThreadLocalRandom.current().nextLong()));
+		CompletableFuture<Response> winner = new CompletableFuture<>();
+		AtomicInteger pending = new AtomicInteger(1);
+		Future<?> first = attempts.submit(() -> attempt(client, tagged, options, hedging, winner, pending, false));
+		Future<?> second = null;
+		try {
+			try {
+				return winner.get(delayNanos, TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				// The first attempt is slower than usual
+			}
+			if (hedging.tryAcquireHedge()) {
+				pending.incrementAndGet();
+				second = attempts.submit(() -> attempt(client, tagged, options, hedging, winner, pending, true));
+			}
+			return winner.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IOException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the employee service");
+		} finally {
+			// No-op for the attempt that won; interrupts the HTTP exchange of the other one
+			first.cancel(true);
+			if (second != null) {
+				second.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Runs {@code task} with the calls it makes on this thread sent straight to the client: no bulkhead, breaker
+	 * or hedging, and their outcomes are not recorded. For synthetic calls such as the warm-up's, which must
+	 * neither count towards the breaker nor be refused by it.
+	 */
+	public static <T> T unguarded(Callable<T> task) throws Exception {
+		if (UNGUARDED.get() != null) {
+			return task.call();
+		}
+		UNGUARDED.set(Boolean.TRUE);
+		try {
+			return task.call();
+		} finally {
+			UNGUARDED.remove();
+		}
+	}
+
+	/**
+	 * Called when the Feign client's context closes; interrupts attempts still waiting for the employee service.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		attempts.shutdownNow();
+	}
+
+	private static void attempt(Client client, Request request, Request.Options options, HedgingPolicy hedging,
+			CompletableFuture<Response> winner, AtomicInteger pending, boolean hedge) {
+		long start = System.nanoTime();
+		try {
+			Response response = client.execute(request, options);
+			if (response.status() < 500) {
+				hedging.recordLatency(System.nanoTime() - start);
+			}
+			if (winner.complete(response)) {
+				if (hedge) {
+					hedging.onHedgeWon();
+				}
+			} else {
+				response.close();
+			}
+		} catch (Throwable e) {
+			// Only the last attempt to fail decides the outcome; an earlier failure may still be overtaken
+			if (pending.decrementAndGet() == 0) {
+				winner.completeExceptionally(e);
+			}
+		}
+	}
+
+	private static Request withHeader(Request request, String name, String value) {
+		Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+		headers.put(name, List.of(value));
+		return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+				request.requestTemplate());
+	}
+
+	private MethodPolicy policyFor(MethodMetadata metadata) {
+		String name = metadata.method().getName();
+		EmployeeClientProperties.MethodSettings settings = properties.getMethods().get(name);
+		Bulkhead bulkhead = null;
+		HedgingPolicy hedging = null;
+		if (settings != null && settings.getMaxConcurrentCalls() > 0) {
+			bulkhead = new Bulkhead(name, settings.getMaxConcurrentCalls(), settings.getMaxWait());
+			Gauge.builder("auth.employee.bulkhead.active", bulkhead, Bulkhead::getActiveCalls)
+					.description("Employee service calls in flight")
+					.tag("method", name)
+					.register(meterRegistry);
+			Gauge.builder("auth.employee.bulkhead.max", bulkhead, Bulkhead::getMaxConcurrentCalls)
+					.tag("method", name)
+					.register(meterRegistry);
+			FunctionCounter.builder("auth.employee.bulkhead.rejected", bulkhead, Bulkhead::getRejectedCount)
+					.description("Employee service calls refused because the bulkhead was full")
+					.tag("method", name)
+					.register(meterRegistry);
+		}
+		if (settings != null && settings.isHedge() && !isLookup(metadata)) {
+			// A second registration or password update may be applied twice
+			log.warn("[EMPLOYEE-CLIENT] Not hedging {}: only GET and HEAD lookups are hedged", name);
+		} else if (settings != null && settings.isHedge()) {
+			hedging = new HedgingPolicy(properties.getHedging());
+			Gauge.builder("auth.employee.hedge.delay", hedging,
+					policy -> policy.getDelayNanos() < 0 ? -1 : policy.getDelayNanos() / 1e9)
+					.description("Time after which a call is hedged, -1 while too few calls were seen")
+					.baseUnit("seconds")
+					.tag("method", name)
+					.register(meterRegistry);
+			FunctionCounter.builder("auth.employee.hedge.requests", hedging, HedgingPolicy::getSentCount)
+					.tag("method", name)
+					.tag("result", "sent")
+					.register(meterRegistry);
+			FunctionCounter.builder("auth.employee.hedge.requests", hedging, HedgingPolicy::getWonCount)
+					.tag("method", name)
+					.tag("result", "won")
+					.register(meterRegistry);
+		}
+		return new MethodPolicy(bulkhead, hedging);
+	}
+
+	private static boolean isLookup(MethodMetadata metadata) {
+		String method = metadata.template().method();
+		return "GET".equals(method) || "HEAD".equals(method);
+	}
+
+	private static final class MethodPolicy {
+		private final Bulkhead bulkhead;
+		private final HedgingPolicy hedging;
+
+		private MethodPolicy(Bulkhead bulkhead, HedgingPolicy hedging) {
+			this.bulkhead = bulkhead;
+			this.hedging = hedging;
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cognizant.authenticationservice.dto.EmployeeDto;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collapses concurrent username lookups into {@link EmployeeFeignClient#findAllByUsername} calls, active when
+ * {@code auth.user-lookup.batch.enabled=true}.
+ * <p>
+ * The first lookup to arrive opens a batch and waits up to {@code auth.user-lookup.batch.window} for others to
+ * join; it then sends the batch and completes every waiter from the one response. A batch that reaches
+ * {@code auth.user-lookup.batch.max-size} is sent at once by the lookup that filled it. No thread of its own is
+ * involved: the leader of a batch does the waiting and the sending, on the request thread that would otherwise
+ * have made a call of its own.
+ * <p>
+ * Lookups for the same username within a batch share its result. When the call fails, every waiter fails with
+ * the same exception, so the caller's error handling is the same as for a single lookup.
+ */
+@Component
+public class UsernameLookupBatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(UsernameLookupBatcher.class);
+
+	private final boolean enabled;
+	private final long windowNanos;
+	private final int maxSize;
+	private final EmployeeFeignClient employeeFeignClient;
+	private final DistributionSummary batchSizes;
+
+	private final Object lock = new Object();
+	private Batch open;
+
+	public UsernameLookupBatcher(@Value("${auth.user-lookup.batch.enabled:false}") boolean enabled,
+			@Value("${auth.user-lookup.batch.window:PT0.002S}") Duration window,
+			@Value("${auth.user-lookup.batch.max-size:50}") int maxSize,
+			EmployeeFeignClient employeeFeignClient,
+			MeterRegistry meterRegistry) {
+		this.enabled = enabled;
+		this.windowNanos = window.toNanos();
+		this.maxSize = Math.max(1, maxSize);
+		this.employeeFeignClient = employeeFeignClient;
+		this.batchSizes = DistributionSummary.builder("auth.employee.lookup.batch.size")
+				.description("Usernames looked up per employee service call")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		if (enabled) {
+			log.info("[LOOKUP-BATCH] Enabled; batches of up to {} usernames, collected for {}", this.maxSize, window);
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Looks the username up as part of the next batch.
+	 *
+	 * @return the employee, or {@code null} if the employee service does not know the username
+	 */
+	public EmployeeDto find(String username) {
+		CompletableFuture<EmployeeDto> result;
+		Batch leading = null;
+		Batch full = null;
+		synchronized (lock) {
+			if (open == null) {
+				open = new Batch();
+				leading = open;
+			}
+			result = open.waiters.computeIfAbsent(username, name -> new CompletableFuture<>());
+			if (open.waiters.size() >= maxSize) {
+				full = open;
+				open = null;
+			}
+		}
+		if (full != null) {
+			send(full);
+		} else if (leading != null) {
+			try {
+				// Completes early when another lookup fills the batch and sends it
+				result.get(windowNanos, TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				// Window over: send whatever has been collected, unless it was sent when full
+			} catch (ExecutionException e) {
+				// Sent and failed; reported below
+			} catch (InterruptedException e) {
+				// Still send, or the others in the batch would wait forever
+				Thread.currentThread().interrupt();
+			}
+			synchronized (lock) {
+				if (open == leading) {
+					open = null;
+				} else {
+					leading = null;
+				}
+			}
+			if (leading != null) {
+				send(leading);
+			}
+		}
+		return await(result);
+	}
+
+	private void send(Batch batch) {
+		List<String> usernames = new ArrayList<>(batch.waiters.keySet());
+		batchSizes.record(usernames.size());
+		try {
+			List<EmployeeDto> employees = employeeFeignClient.findAllByUsername(usernames).getBody();
+			if (employees != null) {
+				for (EmployeeDto employee : employees) {
+					CompletableFuture<EmployeeDto> waiter = batch.waiters.get(employee.getUsername());
+					if (waiter != null) {
+						waiter.complete(employee);
+					}
+				}
+			}
+			// Whoever was not in the response does not exist
+			batch.waiters.values().forEach(waiter -> waiter.complete(null));
+		} catch (RuntimeException e) {
+			RuntimeException failure = e;
+			if (e instanceof FeignException.NotFound) {
+				// The endpoint itself is missing; that must not read as "no such user" to the waiters
+				failure = new IllegalStateException("Employee service does not support batched username lookups", e);
+			}
+			log.warn("[LOOKUP-BATCH] Lookup of {} usernames failed. Error: {}", usernames.size(), e.getMessage());
+			for (CompletableFuture<EmployeeDto> waiter : batch.waiters.values()) {
+				waiter.completeExceptionally(failure);
+			}
+		}
+	}
+
+	private static EmployeeDto await(CompletableFuture<EmployeeDto> result) {
+		try {
+			return result.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a batched username lookup", e);
+		}
+	}
+
+	private static final class Batch {
+		private final Map<String, CompletableFuture<EmployeeDto>> waiters = new LinkedHashMap<>();
+	}
+}
@@ -0,0 +1,31 @@
+package com.cognizant.authenticationservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer configuration of the employee service client, applied through {@code @LoadBalancerClient}.
+ * <p>
+ * Deliberately not a {@code @Configuration}: it is loaded into the child context of that one client, and
+ * component scanning would otherwise apply it to every load-balanced client.
+ */
+public class EmployeeServiceLoadBalancerConfiguration {
+
+	@Bean
+	public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+			LoadBalancerClientFactory loadBalancerClientFactory, InstanceLoadTracker tracker) {
+		String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+		return new LatencyAwareLoadBalancer(
+				loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId,
+				tracker);
+	}
+
+	@Bean
+	public LatencyTrackingLifecycle latencyTrackingLifecycle(InstanceLoadTracker tracker) {
+		return new LatencyTrackingLifecycle(tracker);
+	}
+}
@@ -0,0 +1,131 @@
+package com.cognizant.authenticationservice.loadbalancer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-instance load figures for the latency-aware load balancer: in-flight calls and a peak-sensitive
+ * moving average of response times.
+ * <p>
+ * The average decays with time rather than per sample ({@code auth.loadbalancer.decay}), so an instance
+ * that got few calls is judged on recent behaviour too. A slower sample than the current average replaces it
+ * outright, which makes a degrading instance lose traffic at once and win it back gradually. Failed calls
+ * count as at least {@code auth.loadbalancer.failure-penalty}, so an instance that fails fast does not look
+ * like the fastest one.
+ * <p>
+ * It also remembers which instance the first attempt of a hedged call went to, keyed by the hedge id, for as
+ * long as that attempt runs.
+ */
+@Component
+public class InstanceLoadTracker {
+
+	private final long decayNanos;
+	private final long failurePenaltyNanos;
+
+	private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+	private final Map<String, ServiceInstance> firstAttempts = new ConcurrentHashMap<>();
+
+	public InstanceLoadTracker(@Value("${auth.loadbalancer.decay:PT2S}") Duration decay,
+			@Value("${auth.loadbalancer.failure-penalty:PT1S}") Duration failurePenalty) {
+		this.decayNanos = decay.toNanos();
+		this.failurePenaltyNanos = failurePenalty.toNanos();
+	}
+
+	public void started(ServiceInstance instance) {
+		loadOf(instance).outstanding.incrementAndGet();
+	}
+
+	public void completed(ServiceInstance instance, long elapsedNanos, boolean failed) {
+		InstanceLoad load = loadOf(instance);
+		load.outstanding.decrementAndGet();
+		load.observe(failed ? Math.max(elapsedNanos, failurePenaltyNanos) : elapsedNanos, decayNanos);
+	}
+
+	/**
+	 * Expected cost of sending one more call to the instance: its latency average weighted by the calls it is
+	 * already serving. Instances without samples yet score zero, so new instances are tried right away.
+	 */
+	public double score(ServiceInstance instance) {
+		InstanceLoad load = loads.get(keyOf(instance));
+		if (load == null) {
+			return 0;
+		}
+		return load.averageNanos(decayNanos) * (load.outstanding.get() + 1);
+	}
+
+	public int getOutstanding(ServiceInstance instance) {
+		InstanceLoad load = loads.get(keyOf(instance));
+		return load == null ? 0 : load.outstanding.get();
+	}
+
+	/**
+	 * Records the instance of an attempt of a hedged call; only the first attempt of a hedge id is kept.
+	 */
+	public void hedgeAttemptStarted(String hedgeId, ServiceInstance instance) {
+		firstAttempts.putIfAbsent(hedgeId, instance);
+	}
+
+	public void hedgeAttemptCompleted(String hedgeId, ServiceInstance instance) {
+		firstAttempts.remove(hedgeId, instance);
+	}
+
+	/**
+	 * @return the instance the first attempt of the hedged call is running on, or {@code null}
+	 */
+	public ServiceInstance hedgedInstance(String hedgeId) {
+		return firstAttempts.get(hedgeId);
+	}
+
+	/**
+	 * Drops the figures of instances that are no longer registered.
+	 */
+	public void retainOnly(Collection<ServiceInstance> instances) {
+		if (instances.isEmpty()) {
+			return;
+		}
+		String serviceId = instances.iterator().next().getServiceId();
+		Set<String> live = instances.stream().map(InstanceLoadTracker::keyOf).collect(Collectors.toSet());
+		loads.keySet().removeIf(key -> key.startsWith(serviceId + '/') && !live.contains(key));
+	}
+
+	private InstanceLoad loadOf(ServiceInstance instance) {
+		return loads.computeIfAbsent(keyOf(instance), key -> new InstanceLoad());
+	}
+
+	private static String keyOf(ServiceInstance instance) {
+		String id = instance.getInstanceId() != null ? instance.getInstanceId()
+				: instance.getHost() + ':' + instance.getPort();
+		return instance.getServiceId() + '/' + id;
+	}
+
+	private static final class InstanceLoad {
+		private final AtomicInteger outstanding = new AtomicInteger();
+		private double averageNanos;
+		private long updatedAtNanos = System.nanoTime();
+
+		private synchronized void observe(long sampleNanos, long decayNanos) {
+			long now = System.nanoTime();
+			if (sampleNanos > averageNanos) {
+				averageNanos = sampleNanos;
+			} else {
+				double weight = Math.exp(-(double) (now - updatedAtNanos) / decayNanos);
+				averageNanos = averageNanos * weight + sampleNanos * (1 - weight);
+			}
+			updatedAtNanos = now;
+		}
+
+		private synchronized double averageNanos(long decayNanos) {
+			// Without new samples the average fades, so an instance that was slow once is retried eventually
+			return averageNanos * Math.exp(-(double) (System.nanoTime() - updatedAtNanos) / decayNanos);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.cognizant.authenticationservice.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Power-of-two-choices load balancer: picks two instances at random and sends the call to the one with the
+ * lower {@link InstanceLoadTracker#score(ServiceInstance) score}.
+ * <p>
+ * Comparing only two random instances keeps the choice cheap and, unlike always taking the best-scoring
+ * instance, avoids every caller piling onto the same instance between two score updates.
+ * <p>
+ * The second attempt of a hedged call is never sent to the instance that is still working on the first.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+	private static final Logger log = LoggerFactory.getLogger(LatencyAwareLoadBalancer.class);
+
+	private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+	private final String serviceId;
+	private final InstanceLoadTracker tracker;
+
+	private volatile List<ServiceInstance> lastInstances = List.of();
+
+	public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId,
+			InstanceLoadTracker tracker) {
+		this.suppliers = suppliers;
+		this.serviceId = serviceId;
+		this.tracker = tracker;
+	}
+
+	@Override
+	public Mono<Response<ServiceInstance>> choose(Request request) {
+		ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+		String hedgeId = LatencyTrackingLifecycle.hedgeIdOf(request);
+		return supplier.get(request).next().map(instances -> {
+			Response<ServiceInstance> response = choose(instances,
+					hedgeId != null ? tracker.hedgedInstance(hedgeId) : null);
+			if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+				callback.selectedServiceInstance(response.getServer());
+			}
+			return response;
+		});
+	}
+
+	Response<ServiceInstance> choose(List<ServiceInstance> instances, ServiceInstance avoid) {
+		if (instances.isEmpty()) {
+			log.warn("[LOADBALANCER] No instances available for service: {}", serviceId);
+			return new EmptyResponse();
+		}
+		if (instances != lastInstances) {
+			// The list supplier caches its result, so a new list means the registry changed
+			lastInstances = instances;
+			tracker.retainOnly(instances);
+		}
+		instances = withoutHedgedInstance(instances, avoid);
+		int size = instances.size();
+		if (size == 1) {
+			return new DefaultResponse(instances.get(0));
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(size);
+		int second = random.nextInt(size - 1);
+		if (second >= first) {
+			second++;
+		}
+		ServiceInstance a = instances.get(first);
+		ServiceInstance b = instances.get(second);
+		return new DefaultResponse(tracker.score(b) < tracker.score(a) ? b : a);
+	}
+
+	private static List<ServiceInstance> withoutHedgedInstance(List<ServiceInstance> instances, ServiceInstance busy) {
+		if (busy == null || instances.size() < 2) {
+			return instances;
+		}
+		List<ServiceInstance> others = instances.stream()
+				.filter(instance -> !(instance.getHost().equals(busy.getHost()) && instance.getPort() == busy.getPort()))
+				.toList();
+		return others.isEmpty() ? instances : others;
+	}
+}
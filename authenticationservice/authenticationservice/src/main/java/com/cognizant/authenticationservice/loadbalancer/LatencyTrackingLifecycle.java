@@ -0,0 +1,78 @@
+package com.cognizant.authenticationservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import com.cognizant.authenticationservice.feignclient.ResilienceCapability;
+
+/**
+ * Feeds the outcome of every load-balanced call into the {@link InstanceLoadTracker}, and tells it where the
+ * attempts of hedged calls went.
+ */
+public class LatencyTrackingLifecycle implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+	private final InstanceLoadTracker tracker;
+
+	public LatencyTrackingLifecycle(InstanceLoadTracker tracker) {
+		this.tracker = tracker;
+	}
+
+	@Override
+	public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+		return RequestDataContext.class.isAssignableFrom(requestContextClass)
+				&& ResponseData.class.isAssignableFrom(responseClass)
+				&& ServiceInstance.class.isAssignableFrom(serverTypeClass);
+	}
+
+	@Override
+	public void onStart(Request<RequestDataContext> request) {
+	}
+
+	@Override
+	public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+		if (lbResponse.hasServer()) {
+			if (request.getContext() instanceof TimedRequestContext timed) {
+				timed.setRequestStartTime(System.nanoTime());
+			}
+			tracker.started(lbResponse.getServer());
+			String hedgeId = hedgeIdOf(request);
+			if (hedgeId != null) {
+				tracker.hedgeAttemptStarted(hedgeId, lbResponse.getServer());
+			}
+		}
+	}
+
+	@Override
+	public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completion) {
+		Response<ServiceInstance> lbResponse = completion.getLoadBalancerResponse();
+		if (lbResponse == null || !lbResponse.hasServer()) {
+			return;
+		}
+		String hedgeId = hedgeIdOf(completion.getLoadBalancerRequest());
+		if (hedgeId != null) {
+			tracker.hedgeAttemptCompleted(hedgeId, lbResponse.getServer());
+		}
+		if (!(completion.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed)
+				|| timed.getRequestStartTime() == 0) {
+			return;
+		}
+		ResponseData response = completion.getClientResponse();
+		boolean failed = completion.status() == CompletionContext.Status.FAILED
+				|| (response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError());
+		tracker.completed(lbResponse.getServer(), System.nanoTime() - timed.getRequestStartTime(), failed);
+	}
+
+	static String hedgeIdOf(Request<?> request) {
+		if (request != null && request.getContext() instanceof RequestDataContext context
+				&& context.getClientRequest() != null && context.getClientRequest().getHeaders() != null) {
+			return context.getClientRequest().getHeaders().getFirst(ResilienceCapability.HEDGE_ID_HEADER);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,56 @@
+package com.cognizant.authenticationservice.security;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks the BCrypt strength (log2 of the number of rounds) that this host can hash within a latency budget.
+ * <p>
+ * Each extra unit of strength doubles the work, so one hash measured at a low strength predicts every
+ * other: {@code t(s) = t(probe) * 2^(s - probe)}. Measuring at a low strength keeps calibration to a few
+ * hundred milliseconds of startup, whatever strength is finally chosen.
+ */
+public final class BCryptCalibration {
+
+	private static final Logger log = LoggerFactory.getLogger(BCryptCalibration.class);
+
+	private static final int PROBE_STRENGTH = 8;
+	private static final int PROBE_RUNS = 10;
+
+	private BCryptCalibration() {
+	}
+
+	/**
+	 * @param budget      target time for one hash on this host
+	 * @param minStrength lower bound, kept even if the host is too slow to meet the budget
+	 * @param maxStrength upper bound
+	 * @return the highest strength in range whose predicted hash time fits the budget
+	 */
+	public static int strengthFor(Duration budget, int minStrength, int maxStrength) {
+		String salt = BCrypt.gensalt(PROBE_STRENGTH);
+		// The first runs are interpreted and several times slower; the fastest run is the compiled cost, and
+		// other load on the host can only make a run slower, never faster
+		long probeNanos = Long.MAX_VALUE;
+		for (int i = 0; i < PROBE_RUNS; i++) {
+			long start = System.nanoTime();
+			BCrypt.hashpw("calibration", salt);
+			probeNanos = Math.min(probeNanos, System.nanoTime() - start);
+		}
+
+		int strength = minStrength;
+		while (strength < maxStrength && predict(probeNanos, strength + 1) <= budget.toNanos()) {
+			strength++;
+		}
+		log.info("[PASSWORD-HASHING] BCrypt strength {} chosen for a {} ms budget (strength {} measured at {} ms, so about {} ms per hash)",
+				strength, budget.toMillis(), PROBE_STRENGTH, Math.round(probeNanos / 1_000_000.0),
+				Math.round(predict(probeNanos, strength) / 1_000_000.0));
+		return strength;
+	}
+
+	private static long predict(long probeNanos, int strength) {
+		return strength >= PROBE_STRENGTH ? probeNanos << (strength - PROBE_STRENGTH) : probeNanos >> (PROBE_STRENGTH - strength);
+	}
+}
@@ -0,0 +1,67 @@
+package com.cognizant.authenticationservice.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over 128-bit keys, safe for concurrent use without locks.
+ * <p>
+ * Callers supply the key as two 64-bit halves that are already well mixed (random ids, or a hash); the
+ * bit positions are derived from them by double hashing, so a lookup costs no hashing of its own.
+ * Bits are only ever set, never cleared: to forget keys, build a new filter.
+ */
+public final class BloomFilter {
+
+	private final AtomicLongArray words;
+	private final long bitCount;
+	private final int hashCount;
+
+	/**
+	 * @param expectedKeys          number of keys the filter is sized for
+	 * @param falsePositiveRate     target false-positive rate at {@code expectedKeys} keys
+	 */
+	public BloomFilter(int expectedKeys, double falsePositiveRate) {
+		long bits = (long) Math.ceil(-Math.max(expectedKeys, 1) * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+		this.words = new AtomicLongArray(wordCount);
+		this.bitCount = (long) wordCount * 64;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / Math.max(expectedKeys, 1) * Math.log(2)));
+	}
+
+	public void add(long hi, long lo) {
+		for (int i = 0; i < hashCount; i++) {
+			long bit = position(hi, lo, i);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current = words.get(word);
+			while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+				current = words.get(word);
+			}
+		}
+	}
+
+	/**
+	 * @return {@code false} if the key was definitely never added; {@code true} if it probably was
+	 */
+	public boolean mightContain(long hi, long lo) {
+		for (int i = 0; i < hashCount; i++) {
+			long bit = position(hi, lo, i);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private long position(long hi, long lo, int i) {
+		// An odd step keeps the probes from cycling early on the power-of-two-friendly table size
+		return Math.floorMod(hi + i * (lo | 1), bitCount);
+	}
+
+	public long getBitCount() {
+		return bitCount;
+	}
+
+	public int getHashCount() {
+		return hashCount;
+	}
+}
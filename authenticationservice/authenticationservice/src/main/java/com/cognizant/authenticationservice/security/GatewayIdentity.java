@@ -0,0 +1,106 @@
+package com.cognizant.authenticationservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cognizant.authenticationservice.util.VerifiedToken;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Reads the identity the gateway has already verified from its {@code X-Auth-*} request headers.
+ * <p>
+ * The headers are trusted only if {@code X-Auth-Signature} is the HMAC-SHA256, keyed with
+ * {@code auth.gateway.identity-secret}, of the values joined by newlines in this order: token id, username,
+ * role, employee id, manager id, credential version, expiry in epoch milliseconds. Without a secret the
+ * headers are ignored and every request is verified from its bearer token.
+ */
+@Component
+public class GatewayIdentity {
+
+	static final String TOKEN_ID = "X-Auth-Token-Id";
+	static final String USERNAME = "X-Auth-Username";
+	static final String ROLE = "X-Auth-Role";
+	static final String EMPLOYEE_ID = "X-Auth-Employee-Id";
+	static final String MANAGER_ID = "X-Auth-Manager-Id";
+	static final String CREDENTIAL_VERSION = "X-Auth-Credential-Version";
+	static final String EXPIRES = "X-Auth-Expires";
+	static final String SIGNATURE = "X-Auth-Signature";
+
+	private final SecretKeySpec key;
+
+	public GatewayIdentity(@Value("${auth.gateway.identity-secret:}") String secret) {
+		this.key = secret.isEmpty() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+	}
+
+	public boolean isEnabled() {
+		return key != null;
+	}
+
+	/**
+	 * @return the identity the gateway verified, or {@code null} if the request carries no identity headers,
+	 *         their signature does not match, or the token has expired since
+	 */
+	public VerifiedToken resolve(HttpServletRequest request) {
+		if (key == null) {
+			return null;
+		}
+		String signature = request.getHeader(SIGNATURE);
+		String username = request.getHeader(USERNAME);
+		String expires = request.getHeader(EXPIRES);
+		if (signature == null || username == null || username.isEmpty() || expires == null) {
+			return null;
+		}
+		String tokenId = valueOf(request.getHeader(TOKEN_ID));
+		String role = valueOf(request.getHeader(ROLE));
+		String employeeId = valueOf(request.getHeader(EMPLOYEE_ID));
+		String managerId = valueOf(request.getHeader(MANAGER_ID));
+		String credentialVersion = valueOf(request.getHeader(CREDENTIAL_VERSION));
+		String canonical = String.join("\n", tokenId, username, role, employeeId, managerId, credentialVersion, expires);
+		if (!MessageDigest.isEqual(sign(canonical), signature.getBytes(StandardCharsets.US_ASCII))) {
+			return null;
+		}
+		try {
+			long expiresAtMillis = Long.parseLong(expires);
+			if (expiresAtMillis <= System.currentTimeMillis()) {
+				return null;
+			}
+			return new VerifiedToken(emptyToNull(tokenId), username, emptyToNull(role), toInteger(employeeId),
+					toInteger(managerId), emptyToNull(credentialVersion), new Date(expiresAtMillis));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private byte[] sign(String canonical) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(key);
+			return Base64.getUrlEncoder().withoutPadding()
+					.encode(mac.doFinal(canonical.getBytes(StandardCharsets.UTF_8)));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("HmacSHA256 not available", e);
+		}
+	}
+
+	private static String valueOf(String header) {
+		return header == null ? "" : header;
+	}
+
+	private static String emptyToNull(String value) {
+		return value.isEmpty() ? null : value;
+	}
+
+	private static Integer toInteger(String value) {
+		return value.isEmpty() ? null : Integer.valueOf(value);
+	}
+}
@@ -0,0 +1,190 @@
+package com.cognizant.authenticationservice.security;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token-bucket throttling of login attempts, per username and per client address.
+ * <p>
+ * Every attempt costs a BCrypt comparison, so an attacker guessing passwords, or a misbehaving client
+ * retrying in a loop, takes a hashing thread away from everyone else. The throttle is checked before the
+ * password is, and a rejected attempt costs two map lookups instead of a hash.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again (the
+ * "theoretical arrival time" of GCRA, which behaves exactly like a token bucket). Taking a token is one
+ * compare-and-set, so attempts never lock, not even for the same key. A bucket that is full holds no
+ * information and is dropped by the periodic sweep; the maps therefore only hold keys seen within the last
+ * refill window.
+ * <p>
+ * Each map holds at most {@code auth.login-throttle.max-keys} keys. A new key that finds its map full first
+ * triggers a sweep, at most one per refill period, and otherwise shares a single overflow bucket with every
+ * other key that did not fit. A spray of distinct usernames therefore neither grows the map nor scans it on
+ * every attempt; it is throttled as if it were one user.
+ */
+@Component
+public class LoginThrottle {
+
+	private static final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+
+	private final boolean enabled;
+	private final Limiter users;
+	private final Limiter addresses;
+
+	public LoginThrottle(@Value("${auth.login-throttle.enabled:true}") boolean enabled,
+			@Value("${auth.login-throttle.user.burst:10}") int userBurst,
+			@Value("${auth.login-throttle.user.refill-period:PT6S}") Duration userRefillPeriod,
+			@Value("${auth.login-throttle.ip.burst:50}") int ipBurst,
+			@Value("${auth.login-throttle.ip.refill-period:PT0.5S}") Duration ipRefillPeriod,
+			@Value("${auth.login-throttle.max-keys:100000}") int maxKeys,
+			MeterRegistry meterRegistry) {
+		this.enabled = enabled;
+		this.users = new Limiter("username", userBurst, userRefillPeriod, maxKeys, meterRegistry);
+		this.addresses = new Limiter("ip", ipBurst, ipRefillPeriod, maxKeys, meterRegistry);
+		log.info("[LOGIN-THROTTLE] {}; per username: burst {}, one attempt per {}; per address: burst {}, one attempt per {}",
+				enabled ? "Enabled" : "Disabled", userBurst, userRefillPeriod, ipBurst, ipRefillPeriod);
+	}
+
+	/**
+	 * Takes one attempt from the address bucket and then from the username bucket.
+	 *
+	 * @param username the username being tried, may be null
+	 * @param address  the client address, may be null
+	 * @return {@link Duration#ZERO} if the attempt may go ahead, otherwise how long until it would be allowed
+	 */
+	public Duration tryAcquire(String username, String address) {
+		if (!enabled) {
+			return Duration.ZERO;
+		}
+		long now = System.nanoTime();
+		long wait = address != null ? addresses.tryAcquire(address, now) : 0;
+		if (wait == 0 && username != null) {
+			wait = users.tryAcquire(username, now);
+		}
+		return wait == 0 ? Duration.ZERO : Duration.ofNanos(wait);
+	}
+
+	/**
+	 * Drops the buckets that have refilled completely.
+	 */
+	@Scheduled(fixedDelayString = "${auth.login-throttle.sweep-interval:PT1M}", initialDelayString = "${auth.login-throttle.sweep-interval:PT1M}")
+	public void sweep() {
+		long now = System.nanoTime();
+		int removed = users.sweep(now) + addresses.sweep(now);
+		log.debug("[LOGIN-THROTTLE] Swept {} idle bucket(s); tracking {} username(s) and {} address(es)",
+				removed, users.buckets.size(), addresses.buckets.size());
+	}
+
+	public int getTrackedUsernames() {
+		return users.buckets.size();
+	}
+
+	public int getTrackedAddresses() {
+		return addresses.buckets.size();
+	}
+
+	private static final class Limiter {
+		private final String name;
+		private final long intervalNanos;
+		// How far ahead of now the bucket may be booked; an empty bucket sits exactly here
+		private final long capacityNanos;
+		private final int maxKeys;
+		private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+		// Shared by the keys that arrive while the map is full
+		private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+		// Earliest time a full map may be swept again from the login path
+		private final AtomicLong nextSweepAt = new AtomicLong(System.nanoTime());
+		private final Counter throttled;
+		private final Counter overflowed;
+
+		private Limiter(String name, int burst, Duration refillPeriod, int maxKeys, MeterRegistry meterRegistry) {
+			this.name = name;
+			this.intervalNanos = refillPeriod.toNanos();
+			this.capacityNanos = intervalNanos * burst;
+			this.maxKeys = maxKeys;
+			this.throttled = Counter.builder("auth.login.throttled")
+					.description("Login attempts rejected by the throttle before the password was checked")
+					.tag("key", name)
+					.register(meterRegistry);
+			this.overflowed = Counter.builder("auth.login.throttle.overflow")
+					.description("Login attempts for new keys while the bucket map was full, taken from the shared overflow bucket")
+					.tag("key", name)
+					.register(meterRegistry);
+			Gauge.builder("auth.login.throttle.keys", buckets, ConcurrentHashMap::size)
+					.description("Keys with a bucket that is not full")
+					.tag("key", name)
+					.register(meterRegistry);
+			Gauge.builder("auth.login.throttle.burst", () -> burst)
+					.description("Login attempts allowed back to back per key")
+					.tag("key", name)
+					.register(meterRegistry);
+			Gauge.builder("auth.login.throttle.rate", () -> 1e9 / intervalNanos)
+					.description("Sustained login attempts allowed per second per key")
+					.tag("key", name)
+					.baseUnit("attempts/s")
+					.register(meterRegistry);
+		}
+
+		/**
+		 * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+		 */
+		private long tryAcquire(String key, long now) {
+			AtomicLong bucket = buckets.get(key);
+			if (bucket == null) {
+				if (buckets.size() >= maxKeys) {
+					sweepIfDue(now);
+				}
+				// Concurrent new keys may pass the check together, so the map can exceed the bound by a few
+				if (buckets.size() < maxKeys) {
+					bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+				} else {
+					overflowed.increment();
+					bucket = overflow;
+				}
+			}
+			while (true) {
+				long fullAt = bucket.get();
+				long next = Math.max(fullAt, now) + intervalNanos;
+				long excess = next - now - capacityNanos;
+				if (excess > 0) {
+					throttled.increment();
+					return excess;
+				}
+				if (bucket.compareAndSet(fullAt, next)) {
+					return 0;
+				}
+			}
+		}
+
+		// Run by the caller that finds the map at its bound, at most once per refill period; the others go on
+		private void sweepIfDue(long now) {
+			long due = nextSweepAt.get();
+			if (now - due >= 0 && nextSweepAt.compareAndSet(due, now + intervalNanos)) {
+				int removed = sweep(now);
+				log.warn("[LOGIN-THROTTLE] {} buckets reached {} keys; swept {} idle bucket(s)", name, maxKeys, removed);
+			}
+		}
+
+		private int sweep(long now) {
+			int removed = 0;
+			for (var entry : buckets.entrySet()) {
+				// An attempt racing with the removal may book into the dropped bucket; at worst that key
+				// gets one extra attempt
+				if (entry.getValue().get() - now <= 0 && buckets.remove(entry.getKey(), entry.getValue())) {
+					removed++;
+				}
+			}
+			return removed;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.cognizant.authenticationservice.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs {@link #encode} and {@link #matches} of the delegate on the bounded {@link PasswordHashingExecutor},
+ * so every BCrypt call (login through the AuthenticationManager, registration) is subject to the same
+ * concurrency limit and load shedding.
+ * <p>
+ * The {@code auth.password.encode} and {@code auth.password.matches} timers measure the hashing itself on the
+ * worker; time spent queued for a worker is reported separately as {@code auth.hashing.wait}.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+	private final PasswordEncoder delegate;
+	private final PasswordHashingExecutor executor;
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+
+	public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor,
+			MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.executor = executor;
+		this.encodeTimer = Timer.builder("auth.password.encode")
+				.description("Time to hash a new password")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		this.matchesTimer = Timer.builder("auth.password.matches")
+				.description("Time to check a password against its stored hash")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * @return an encoder on the same delegate and executor whose timers are registered in {@code meterRegistry}
+	 */
+	public OffloadingPasswordEncoder withMeterRegistry(MeterRegistry meterRegistry) {
+		return new OffloadingPasswordEncoder(delegate, executor, meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return executor.execute(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return executor.execute(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+}
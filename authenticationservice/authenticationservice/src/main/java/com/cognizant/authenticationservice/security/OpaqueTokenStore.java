@@ -0,0 +1,468 @@
+package com.cognizant.authenticationservice.security;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.cognizant.authenticationservice.EmployeeUserDetails;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Session store behind opaque access tokens, active when {@code auth.opaque-token.enabled=true}.
+ * <p>
+ * An opaque token is 128 random bits, base64url-encoded (22 characters, never containing the dots of a JWT).
+ * The store maps the first 128 bits of the token's SHA-256 digest to the {@link Authentication} built at
+ * login, so resolving a token is one digest and one map lookup: no signature check, no JSON and no user
+ * lookup. Logout removes the session at once.
+ * <ul>
+ * <li>The map is split into {@code auth.opaque-token.stripes} stripes, each a small access-ordered map under
+ * its own lock, so concurrent requests rarely wait for each other.</li>
+ * <li>Expiry slides: a session lives {@code auth.opaque-token.idle-ttl} past its last use, but never longer
+ * than {@code auth.opaque-token.max-lifetime} after login.</li>
+ * <li>Each stripe holds at most its share of {@code auth.opaque-token.max-sessions}; beyond that the session
+ * unused for longest is dropped.</li>
+ * <li>When {@code auth.opaque-token.snapshot-path} is set, the sessions are written there periodically and
+ * on shutdown, and read back on startup, so a restart does not log everyone out. Only digests are written,
+ * never tokens.</li>
+ * </ul>
+ */
+@Component
+public class OpaqueTokenStore {
+
+	private static final Logger log = LoggerFactory.getLogger(OpaqueTokenStore.class);
+
+	private static final int SNAPSHOT_MAGIC = 0x4f505131; // "OPQ1"
+
+	private static final int TOKEN_BYTES = 16;
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private final boolean enabled;
+	private final long idleTtlMillis;
+	private final long maxLifetimeMillis;
+	private final String snapshotPath;
+	private final Stripe[] stripes;
+	private final Map<String, Set<Key>> keysByUsername = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean dirty = new AtomicBoolean();
+
+	// Set by lookups, which extend sessions; only written when clear, so hot lookups do not contend on it
+	private volatile boolean touched;
+
+	public OpaqueTokenStore(@Value("${auth.opaque-token.enabled:false}") boolean enabled,
+			@Value("${auth.opaque-token.idle-ttl:PT30M}") Duration idleTtl,
+			@Value("${auth.opaque-token.max-lifetime:PT12H}") Duration maxLifetime,
+			@Value("${auth.opaque-token.max-sessions:100000}") int maxSessions,
+			@Value("${auth.opaque-token.stripes:64}") int stripes,
+			@Value("${auth.opaque-token.snapshot-path:}") String snapshotPath) {
+		this.enabled = enabled;
+		this.idleTtlMillis = idleTtl.toMillis();
+		this.maxLifetimeMillis = maxLifetime.toMillis();
+		this.snapshotPath = snapshotPath;
+		// A power of two, so the stripe is picked with a mask
+		int count = stripes <= 1 ? 1 : Integer.highestOneBit((stripes - 1) << 1);
+		int capacity = Math.max(1, (maxSessions + count - 1) / count);
+		this.stripes = new Stripe[count];
+		for (int i = 0; i < count; i++) {
+			this.stripes[i] = new Stripe(capacity);
+		}
+	}
+
+	/**
+	 * Starts a session for a successful login.
+	 *
+	 * @return the opaque access token, or {@code null} if opaque tokens are disabled
+	 */
+	public String issue(RefreshTokenStore.Grant grant) {
+		if (!enabled) {
+			return null;
+		}
+		byte[] token = new byte[TOKEN_BYTES];
+		RANDOM.nextBytes(token);
+		long now = System.currentTimeMillis();
+		Key key = key(token);
+		Session session = new Session(grant, authentication(grant), now, now);
+		add(key, session);
+		dirty.set(true);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+	}
+
+	/**
+	 * Resolves a token and extends its session.
+	 *
+	 * @return the authentication built at login, or {@code null} if the token is unknown, expired or revoked
+	 */
+	public Authentication resolve(String token) {
+		Key key = decode(token);
+		if (key == null) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		Stripe stripe = stripe(key);
+		Session session;
+		synchronized (stripe) {
+			session = stripe.get(key);
+			if (session == null) {
+				return null;
+			}
+			if (session.isExpired(now, idleTtlMillis, maxLifetimeMillis)) {
+				stripe.remove(key);
+				unindex(key, session);
+				return null;
+			}
+			session.lastUsedMillis = now;
+		}
+		if (!touched) {
+			touched = true;
+		}
+		return session.authentication;
+	}
+
+	/**
+	 * Ends the session of a token, e.g. on logout.
+	 *
+	 * @return the username of the session, or {@code null} if the token did not belong to a live session
+	 */
+	public String revoke(String token) {
+		Key key = decode(token);
+		if (key == null) {
+			return null;
+		}
+		Stripe stripe = stripe(key);
+		Session removed;
+		synchronized (stripe) {
+			removed = stripe.remove(key);
+		}
+		if (removed == null) {
+			return null;
+		}
+		unindex(key, removed);
+		dirty.set(true);
+		return removed.isExpired(System.currentTimeMillis(), idleTtlMillis, maxLifetimeMillis) ? null
+				: removed.grant.getUsername();
+	}
+
+	/**
+	 * @return {@code true} if the token has the shape of an opaque token rather than a JWT
+	 */
+	public static boolean isOpaque(String token) {
+		return token.indexOf('.') < 0;
+	}
+
+	/**
+	 * Ends every session of the given user, e.g. after re-registration, or when the credential snapshot sees
+	 * the user's password change or the user deleted.
+	 */
+	public void revokeUser(String username) {
+		Set<Key> keys = keysByUsername.remove(username);
+		if (keys == null) {
+			return;
+		}
+		int removed = 0;
+		for (Key key : keys) {
+			Stripe stripe = stripe(key);
+			synchronized (stripe) {
+				Session session = stripe.get(key);
+				if (session != null && username.equals(session.grant.getUsername())) {
+					stripe.remove(key);
+					removed++;
+				}
+			}
+		}
+		if (removed > 0) {
+			dirty.set(true);
+			log.debug("[OPAQUE-TOKEN] Revoked {} session(s) for username: {}", removed, username);
+		}
+	}
+
+	/**
+	 * Drops expired sessions.
+	 */
+	@Scheduled(fixedDelayString = "${auth.opaque-token.prune-interval:PT1M}")
+	public void prune() {
+		if (!enabled) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		int pruned = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				for (Iterator<Map.Entry<Key, Session>> it = stripe.entrySet().iterator(); it.hasNext();) {
+					Map.Entry<Key, Session> entry = it.next();
+					if (entry.getValue().isExpired(now, idleTtlMillis, maxLifetimeMillis)) {
+						it.remove();
+						unindex(entry.getKey(), entry.getValue());
+						pruned++;
+					}
+				}
+			}
+		}
+		if (pruned > 0) {
+			dirty.set(true);
+			log.debug("[OPAQUE-TOKEN] Pruned {} expired session(s)", pruned);
+		}
+	}
+
+	@PostConstruct
+	public void restore() {
+		if (!enabled || snapshotPath.isBlank() || !Files.exists(Path.of(snapshotPath))) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		int restored = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Path.of(snapshotPath))))) {
+			if (in.readInt() != SNAPSHOT_MAGIC) {
+				log.warn("[OPAQUE-TOKEN] Ignoring snapshot with unknown format: {}", snapshotPath);
+				return;
+			}
+			for (int count = in.readInt(); count > 0; count--) {
+				Key key = new Key(in.readLong(), in.readLong());
+				long issuedAtMillis = in.readLong();
+				long lastUsedMillis = in.readLong();
+				RefreshTokenStore.Grant grant = readGrant(in);
+				Session session = new Session(grant, authentication(grant), issuedAtMillis, lastUsedMillis);
+				if (!session.isExpired(now, idleTtlMillis, maxLifetimeMillis)) {
+					add(key, session);
+					restored++;
+				}
+			}
+			log.info("[OPAQUE-TOKEN] Restored {} session(s) from {}", restored, snapshotPath);
+		} catch (IOException e) {
+			log.error("[OPAQUE-TOKEN] Could not restore sessions from {}: {}", snapshotPath, e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the sessions to {@code auth.opaque-token.snapshot-path} if any was issued, used or ended since
+	 * the last snapshot.
+	 */
+	@Scheduled(initialDelayString = "${auth.opaque-token.snapshot-interval:PT1M}", fixedDelayString = "${auth.opaque-token.snapshot-interval:PT1M}")
+	@PreDestroy
+	public void snapshot() {
+		if (!enabled || snapshotPath.isBlank()) {
+			return;
+		}
+		boolean changed = dirty.getAndSet(false) | touched;
+		touched = false;
+		if (!changed) {
+			return;
+		}
+		Path target = Path.of(snapshotPath);
+		Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		try {
+			List<Map.Entry<Key, Session>> sessions = new ArrayList<>();
+			for (Stripe stripe : stripes) {
+				synchronized (stripe) {
+					for (Map.Entry<Key, Session> entry : stripe.entrySet()) {
+						sessions.add(Map.entry(entry.getKey(), entry.getValue().copy()));
+					}
+				}
+			}
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(SNAPSHOT_MAGIC);
+				out.writeInt(sessions.size());
+				for (Map.Entry<Key, Session> entry : sessions) {
+					Session session = entry.getValue();
+					out.writeLong(entry.getKey().high);
+					out.writeLong(entry.getKey().low);
+					out.writeLong(session.issuedAtMillis);
+					out.writeLong(session.lastUsedMillis);
+					writeGrant(out, session.grant);
+				}
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			log.debug("[OPAQUE-TOKEN] Wrote {} session(s) to {}", sessions.size(), snapshotPath);
+		} catch (IOException e) {
+			dirty.set(true);
+			log.error("[OPAQUE-TOKEN] Could not write session snapshot to {}: {}", snapshotPath, e.getMessage());
+		}
+	}
+
+	// The same principal the request filter builds from a token's claims; it never holds the password hash
+	private static Authentication authentication(RefreshTokenStore.Grant grant) {
+		List<GrantedAuthority> authorities = grant.getRole() != null
+				? List.of(new SimpleGrantedAuthority(grant.getRole()))
+				: List.of();
+		UserDetails principal = grant.getEmployeeId() != null && grant.getManagerId() != null
+				? new EmployeeUserDetails(grant.getUsername(), "", authorities, grant.getEmployeeId(),
+						grant.getManagerId(), grant.getCredentialVersion())
+				: User.withUsername(grant.getUsername()).password("").authorities(authorities).build();
+		return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+	}
+
+	private void add(Key key, Session session) {
+		String username = session.grant.getUsername();
+		// Indexed before it is stored, and dropped again if a concurrent revokeUser took the index meanwhile
+		keysByUsername.computeIfAbsent(username, u -> ConcurrentHashMap.newKeySet()).add(key);
+		Stripe stripe = stripe(key);
+		synchronized (stripe) {
+			stripe.put(key, session);
+		}
+		Set<Key> keys = keysByUsername.get(username);
+		if (keys == null || !keys.contains(key)) {
+			synchronized (stripe) {
+				stripe.remove(key, session);
+			}
+		}
+	}
+
+	private void unindex(Key key, Session session) {
+		keysByUsername.computeIfPresent(session.grant.getUsername(), (username, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		});
+	}
+
+	private Stripe stripe(Key key) {
+		return stripes[(int) key.low & (stripes.length - 1)];
+	}
+
+	// Null if it cannot be one of this store's tokens
+	private Key decode(String token) {
+		if (!enabled || token == null || token.length() != 22) {
+			return null;
+		}
+		try {
+			return key(Base64.getUrlDecoder().decode(token.getBytes(StandardCharsets.US_ASCII)));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static Key key(byte[] token) {
+		try {
+			ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token));
+			return new Key(digest.getLong(), digest.getLong());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	private static void writeGrant(DataOutputStream out, RefreshTokenStore.Grant grant) throws IOException {
+		out.writeUTF(grant.getUsername());
+		writeNullable(out, grant.getRole());
+		out.writeInt(grant.getEmployeeId() != null ? grant.getEmployeeId() : -1);
+		out.writeInt(grant.getManagerId() != null ? grant.getManagerId() : -1);
+		writeNullable(out, grant.getCredentialVersion());
+	}
+
+	private static RefreshTokenStore.Grant readGrant(DataInputStream in) throws IOException {
+		String username = in.readUTF();
+		String role = readNullable(in);
+		int employeeId = in.readInt();
+		int managerId = in.readInt();
+		String credentialVersion = readNullable(in);
+		return new RefreshTokenStore.Grant(username, role, employeeId >= 0 ? employeeId : null,
+				managerId >= 0 ? managerId : null, credentialVersion);
+	}
+
+	private static void writeNullable(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readNullable(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return number of sessions held, including expired ones not yet pruned
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	// First 128 bits of the token's digest
+	private record Key(long high, long low) {
+	}
+
+	private static final class Session {
+		private final RefreshTokenStore.Grant grant;
+		private final Authentication authentication;
+		private final long issuedAtMillis;
+		private long lastUsedMillis;
+
+		private Session(RefreshTokenStore.Grant grant, Authentication authentication, long issuedAtMillis,
+				long lastUsedMillis) {
+			this.grant = grant;
+			this.authentication = authentication;
+			this.issuedAtMillis = issuedAtMillis;
+			this.lastUsedMillis = lastUsedMillis;
+		}
+
+		private boolean isExpired(long now, long idleTtlMillis, long maxLifetimeMillis) {
+			return now - lastUsedMillis >= idleTtlMillis || now - issuedAtMillis >= maxLifetimeMillis;
+		}
+
+		private Session copy() {
+			return new Session(grant, authentication, issuedAtMillis, lastUsedMillis);
+		}
+	}
+
+	// Access-ordered, so the eldest entry is the session unused for longest; guarded by its own monitor
+	private final class Stripe extends LinkedHashMap<Key, Session> {
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		private Stripe(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Session> eldest) {
+			if (size() <= capacity) {
+				return false;
+			}
+			unindex(eldest.getKey(), eldest.getValue());
+			return true;
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package com.cognizant.authenticationservice.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Dedicated, bounded worker pool for password hashing (BCrypt encode and matches).
+ * <p>
+ * Hashing is CPU-bound. Running it on this pool caps how many cores a login burst can use. The bounded
+ * queue also caps how many request threads can wait for a hash at any time. When the queue is full, the
+ * caller gets a {@link PasswordHashingRejectedException} immediately instead of joining an ever-growing
+ * backlog. It gets one as well when its result is not ready within {@code auth.hashing.max-wait} of
+ * submitting, which covers the time queued and the hashing itself.
+ * <p>
+ * The workers are platform threads on purpose, including in virtual-thread mode: hashing never blocks, so
+ * it gains nothing from virtual threads, and the pool size is what bounds CPU use.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+	private static final Logger log = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+	private final ThreadPoolExecutor pool;
+	private final Duration maxWait;
+	private final Duration retryAfter;
+
+	private final Timer waitTimer;
+	private final Counter rejections;
+
+	public PasswordHashingExecutor(@Value("${auth.hashing.threads:0}") int threads,
+			@Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+			@Value("${auth.hashing.max-wait:PT2S}") Duration maxWait,
+			@Value("${auth.hashing.retry-after:PT1S}") Duration retryAfter,
+			MeterRegistry meterRegistry) {
+		int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger sequence = new AtomicInteger();
+		this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+		this.maxWait = maxWait;
+		this.retryAfter = retryAfter;
+
+		this.waitTimer = Timer.builder("auth.hashing.wait")
+				.description("Time password hashing tasks spend queued before a worker picks them up")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		this.rejections = Counter.builder("auth.hashing.rejected")
+				.description("Password hashing requests shed because the pool was saturated")
+				.register(meterRegistry);
+		Gauge.builder("auth.hashing.queue.depth", pool, p -> p.getQueue().size())
+				.description("Password hashing tasks waiting for a worker")
+				.register(meterRegistry);
+		Gauge.builder("auth.hashing.active", pool, ThreadPoolExecutor::getActiveCount)
+				.description("Workers currently hashing")
+				.register(meterRegistry);
+		Gauge.builder("auth.hashing.threads", pool, ThreadPoolExecutor::getMaximumPoolSize)
+				.register(meterRegistry);
+		log.info("[PASSWORD-HASHING] Pool started with {} thread(s) and a queue of {}", size, queueCapacity);
+	}
+
+	/**
+	 * Runs the hashing task on the pool and waits for its result.
+	 *
+	 * @throws PasswordHashingRejectedException if the queue is full, or the result is not ready within max-wait
+	 *         of submitting (queueing plus hashing)
+	 */
+	public <T> T execute(Callable<T> task) {
+		long enqueuedAt = System.nanoTime();
+		// Carry the caller's security context and logging MDC over to the worker thread
+		Callable<T> propagating = new DelegatingSecurityContextCallable<>(task);
+		Map<String, String> mdc = MDC.getCopyOfContextMap();
+		Future<T> future;
+		try {
+			future = pool.submit(() -> {
+				waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+				if (mdc != null) {
+					MDC.setContextMap(mdc);
+				}
+				try {
+					return propagating.call();
+				} finally {
+					MDC.clear();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejections.increment();
+			throw new PasswordHashingRejectedException("Password hashing queue is full", e);
+		}
+		try {
+			return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			rejections.increment();
+			throw new PasswordHashingRejectedException("Password hashing did not complete within " + maxWait, e);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * @return how long clients should wait before retrying a shed request
+	 */
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+	/**
+	 * @return number of hashing threads, i.e. how many hashes can run at the same time
+	 */
+	public int getPoolSize() {
+		return pool.getCorePoolSize();
+	}
+
+	public int getQueueDepth() {
+		return pool.getQueue().size();
+	}
+
+	public long getRejectedCount() {
+		return (long) rejections.count();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		pool.shutdownNow();
+	}
+}
@@ -0,0 +1,18 @@
+package com.cognizant.authenticationservice.security;
+
+/**
+ * Thrown when the password-hashing pool is saturated and a hash request is shed instead of queued.
+ * Controllers translate it into {@code 503 Service Unavailable} with a {@code Retry-After} header.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public PasswordHashingRejectedException(String message) {
+		super(message);
+	}
+
+	public PasswordHashingRejectedException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
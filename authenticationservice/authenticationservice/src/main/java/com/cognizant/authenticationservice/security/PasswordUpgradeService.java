@@ -0,0 +1,73 @@
+package com.cognizant.authenticationservice.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Component;
+
+import com.cognizant.authenticationservice.EmployeeUserDetails;
+import com.cognizant.authenticationservice.cache.CachingUserDetailsService;
+import com.cognizant.authenticationservice.cache.CredentialSnapshot;
+import com.cognizant.authenticationservice.cache.VerifiedTokenCache;
+import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+
+import feign.FeignException;
+
+/**
+ * Stores a re-encoded password hash after a successful login.
+ * <p>
+ * Spring Security calls this when the password encoder reports that the stored hash should be upgraded,
+ * i.e. it has a lower BCrypt strength than the calibrated one. The new hash is
+ * computed from the password the user has just presented, which is the only time it is known.
+ * <p>
+ * A failed update does not fail the login: the old hash still works, and the upgrade is tried again at the
+ * next login.
+ */
+@Component
+public class PasswordUpgradeService implements UserDetailsPasswordService {
+
+	private static final Logger log = LoggerFactory.getLogger(PasswordUpgradeService.class);
+
+	private final EmployeeFeignClient employeeFeignClient;
+
+	private final CachingUserDetailsService userDetailsService;
+
+	private final VerifiedTokenCache verifiedTokenCache;
+
+	private final CredentialSnapshot credentialSnapshot;
+
+	public PasswordUpgradeService(EmployeeFeignClient employeeFeignClient, CachingUserDetailsService userDetailsService,
+			VerifiedTokenCache verifiedTokenCache, CredentialSnapshot credentialSnapshot) {
+		this.employeeFeignClient = employeeFeignClient;
+		this.userDetailsService = userDetailsService;
+		this.verifiedTokenCache = verifiedTokenCache;
+		this.credentialSnapshot = credentialSnapshot;
+	}
+
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		String username = user.getUsername();
+		try {
+			employeeFeignClient.updatePassword(username, newPassword);
+		} catch (FeignException e) {
+			log.warn("[PASSWORD-UPGRADE] Could not store upgraded hash for username: {}. Status: {}, Error: {}",
+					username, e.status(), e.getMessage());
+			return user;
+		}
+
+		// The credential version is derived from the hash, so cached principals and tokens of the old hash
+		// no longer match it
+		credentialSnapshot.updatePassword(username, newPassword);
+		userDetailsService.invalidate(username);
+		verifiedTokenCache.purgeUser(username);
+		log.info("[PASSWORD-UPGRADE] Upgraded password hash for username: {}", username);
+
+		if (user instanceof EmployeeUserDetails employee) {
+			return new EmployeeUserDetails(username, newPassword, employee.getAuthorities(), employee.getEmployeeId(),
+					employee.getManagerId());
+		}
+		return User.withUserDetails(user).password(newPassword).build();
+	}
+}
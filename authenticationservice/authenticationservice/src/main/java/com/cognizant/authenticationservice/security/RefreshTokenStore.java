@@ -0,0 +1,467 @@
+package com.cognizant.authenticationservice.security;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory store of rotating refresh tokens, active when {@code auth.refresh.enabled=true}.
+ * <p>
+ * A login starts a <i>chain</i>: one session, identified by a random 64-bit id. Each refresh token is that id
+ * followed by 256 random bits; the store keeps one entry per chain with the SHA-256 digest of the chain's
+ * current token and the claims needed to issue the next access token. Redeeming a token is therefore a map
+ * lookup and a digest comparison, with no password hash and no employee-service call.
+ * <ul>
+ * <li>Every redemption rotates the token. The replacement keeps the expiry of the chain, so
+ * {@code auth.refresh.ttl} bounds a whole session.</li>
+ * <li>A token of a known chain that is not its current token was already redeemed, i.e. it was copied:
+ * the chain is revoked.</li>
+ * <li>An expiry-ordered index lets pruning and eviction drop the oldest chains without scanning the store.</li>
+ * <li>When {@code auth.refresh.snapshot-path} is set, the store is written there periodically and on
+ * shutdown, and read back on startup. Only digests are written, never tokens.</li>
+ * </ul>
+ */
+@Component
+public class RefreshTokenStore {
+
+	private static final Logger log = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+	private static final int SNAPSHOT_MAGIC = 0x52544b32; // "RTK2"
+
+	private static final int SECRET_BYTES = 32;
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private final boolean enabled;
+
+	private final Duration ttl;
+
+	private final int maxTokens;
+
+	private final String snapshotPath;
+
+	private final Map<Long, Chain> chains = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListSet<Chain> byExpiry = new ConcurrentSkipListSet<>();
+	private final Map<String, Set<Long>> chainsByUsername = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean dirty = new AtomicBoolean();
+
+	public RefreshTokenStore(@Value("${auth.refresh.enabled:false}") boolean enabled,
+			@Value("${auth.refresh.ttl:P7D}") Duration ttl,
+			@Value("${auth.refresh.max-tokens:100000}") int maxTokens,
+			@Value("${auth.refresh.snapshot-path:}") String snapshotPath) {
+		this.enabled = enabled;
+		this.ttl = ttl;
+		this.maxTokens = maxTokens;
+		this.snapshotPath = snapshotPath;
+	}
+
+	/**
+	 * Starts a new chain, at login.
+	 *
+	 * @return its first refresh token, or {@code null} if refresh tokens are disabled
+	 */
+	public String issue(Grant grant) {
+		if (!enabled) {
+			return null;
+		}
+		long id = RANDOM.nextLong();
+		byte[] secret = newSecret();
+		add(new Chain(id, digest(secret), grant, System.currentTimeMillis() + ttl.toMillis()));
+		if (chains.size() > maxTokens) {
+			evictOldest();
+		}
+		return encode(id, secret);
+	}
+
+	/**
+	 * Looks up the grant of a refresh token without redeeming it, so it can be checked first.
+	 *
+	 * @return the grant, or {@code null} if the token is not the current token of a live chain
+	 */
+	public Grant peek(String refreshToken) {
+		if (!enabled) {
+			return null;
+		}
+		ByteBuffer token = decode(refreshToken);
+		if (token == null) {
+			return null;
+		}
+		Chain chain = chains.get(token.getLong());
+		if (chain == null || chain.expiresAtMillis <= System.currentTimeMillis()
+				|| !MessageDigest.isEqual(digest(token), chain.digest)) {
+			return null;
+		}
+		return chain.grant;
+	}
+
+	/**
+	 * Redeems a refresh token and replaces it with the next token of its chain.
+	 *
+	 * @return the grant and the replacement token, or {@code null} if the token is unknown, expired or reused
+	 */
+	public Rotation rotate(String refreshToken) {
+		if (!enabled) {
+			return null;
+		}
+		ByteBuffer token = decode(refreshToken);
+		if (token == null) {
+			return null;
+		}
+		long id = token.getLong();
+		Chain chain = chains.get(id);
+		if (chain == null || chain.expiresAtMillis <= System.currentTimeMillis()) {
+			return null;
+		}
+		byte[] secret = newSecret();
+		if (!MessageDigest.isEqual(digest(token), chain.digest)
+				|| !chains.replace(id, chain, chain.withDigest(digest(secret)))) {
+			// An earlier token of the chain came back, or a concurrent request redeemed this one first
+			log.warn("[REFRESH-TOKEN] Reuse of a redeemed refresh token for username: {}; revoking its chain",
+					chain.grant.getUsername());
+			revokeChain(id);
+			return null;
+		}
+		dirty.set(true);
+		return new Rotation(chain.grant, encode(id, secret));
+	}
+
+	/**
+	 * Revokes the chain of the given refresh token, e.g. on logout.
+	 */
+	public void revoke(String refreshToken) {
+		ByteBuffer token = decode(refreshToken);
+		if (token == null) {
+			return;
+		}
+		long id = token.getLong();
+		Chain chain = chains.get(id);
+		if (chain != null && MessageDigest.isEqual(digest(token), chain.digest)) {
+			revokeChain(id);
+		}
+	}
+
+	/**
+	 * Revokes every chain of the given user, e.g. after re-registration.
+	 */
+	public void revokeUser(String username) {
+		Set<Long> ids = chainsByUsername.remove(username);
+		if (ids != null) {
+			ids.forEach(this::revokeChain);
+			log.debug("[REFRESH-TOKEN] Revoked {} refresh token chain(s) for username: {}", ids.size(), username);
+		}
+	}
+
+	private void add(Chain chain) {
+		String username = chain.grant.getUsername();
+		// Indexed before it is stored, and dropped again if a concurrent revokeUser took the index meanwhile
+		chainsByUsername.computeIfAbsent(username, u -> ConcurrentHashMap.newKeySet()).add(chain.id);
+		chains.put(chain.id, chain);
+		byExpiry.add(chain);
+		dirty.set(true);
+		Set<Long> ids = chainsByUsername.get(username);
+		if (ids == null || !ids.contains(chain.id)) {
+			revokeChain(chain.id);
+		}
+	}
+
+	private void revokeChain(long id) {
+		Chain chain = chains.remove(id);
+		if (chain != null) {
+			// Rotation keeps the expiry, so the indexed instance compares equal to the current one
+			byExpiry.remove(chain);
+			chainsByUsername.computeIfPresent(chain.grant.getUsername(), (username, ids) -> {
+				ids.remove(id);
+				return ids.isEmpty() ? null : ids;
+			});
+			dirty.set(true);
+		}
+	}
+
+	private void evictOldest() {
+		while (chains.size() > maxTokens) {
+			Chain oldest = byExpiry.pollFirst();
+			if (oldest == null) {
+				return;
+			}
+			revokeChain(oldest.id);
+		}
+	}
+
+	/**
+	 * Drops expired chains; the expiry index makes this proportional to the number of expired chains.
+	 */
+	@Scheduled(fixedDelayString = "${auth.refresh.prune-interval:PT1M}")
+	public void prune() {
+		long now = System.currentTimeMillis();
+		int pruned = 0;
+		for (Chain oldest = byExpiry.pollFirst(); oldest != null; oldest = byExpiry.pollFirst()) {
+			if (oldest.expiresAtMillis > now) {
+				byExpiry.add(oldest);
+				break;
+			}
+			revokeChain(oldest.id);
+			pruned++;
+		}
+		if (pruned > 0) {
+			log.debug("[REFRESH-TOKEN] Pruned {} expired refresh token chain(s)", pruned);
+		}
+	}
+
+	@PostConstruct
+	public void restore() {
+		if (!enabled || snapshotPath.isBlank() || !Files.exists(Path.of(snapshotPath))) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		int restored = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Path.of(snapshotPath))))) {
+			if (in.readInt() != SNAPSHOT_MAGIC) {
+				log.warn("[REFRESH-TOKEN] Ignoring snapshot with unknown format: {}", snapshotPath);
+				return;
+			}
+			for (int count = in.readInt(); count > 0; count--) {
+				Chain chain = Chain.read(in);
+				if (chain.expiresAtMillis > now) {
+					add(chain);
+					restored++;
+				}
+			}
+			dirty.set(false);
+			log.info("[REFRESH-TOKEN] Restored {} refresh token chain(s) from {}", restored, snapshotPath);
+		} catch (IOException e) {
+			log.error("[REFRESH-TOKEN] Could not restore refresh tokens from {}: {}", snapshotPath, e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the store to {@code auth.refresh.snapshot-path} if it changed since the last snapshot.
+	 */
+	@Scheduled(initialDelayString = "${auth.refresh.snapshot-interval:PT1M}", fixedDelayString = "${auth.refresh.snapshot-interval:PT1M}")
+	@PreDestroy
+	public void snapshot() {
+		if (!enabled || snapshotPath.isBlank() || !dirty.getAndSet(false)) {
+			return;
+		}
+		Path target = Path.of(snapshotPath);
+		Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		try {
+			Chain[] snapshot = chains.values().toArray(new Chain[0]);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(SNAPSHOT_MAGIC);
+				out.writeInt(snapshot.length);
+				for (Chain chain : snapshot) {
+					chain.write(out);
+				}
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			log.debug("[REFRESH-TOKEN] Wrote {} refresh token chain(s) to {}", snapshot.length, snapshotPath);
+		} catch (IOException e) {
+			dirty.set(true);
+			log.error("[REFRESH-TOKEN] Could not write refresh token snapshot to {}: {}", snapshotPath, e.getMessage());
+		}
+	}
+
+	private static byte[] newSecret() {
+		byte[] secret = new byte[SECRET_BYTES];
+		RANDOM.nextBytes(secret);
+		return secret;
+	}
+
+	private static String encode(long id, byte[] secret) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(ByteBuffer.allocate(Long.BYTES + SECRET_BYTES).putLong(id).put(secret).array());
+	}
+
+	// Returns the token bytes positioned at the chain id, or null if it is not a token of this store
+	private static ByteBuffer decode(String refreshToken) {
+		if (refreshToken == null) {
+			return null;
+		}
+		try {
+			byte[] bytes = Base64.getUrlDecoder().decode(refreshToken.getBytes(StandardCharsets.US_ASCII));
+			return bytes.length == Long.BYTES + SECRET_BYTES ? ByteBuffer.wrap(bytes) : null;
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	// Digest of the secret part of a decoded token
+	private static byte[] digest(ByteBuffer token) {
+		MessageDigest sha = sha256();
+		sha.update(token.array(), Long.BYTES, SECRET_BYTES);
+		return sha.digest();
+	}
+
+	private static byte[] digest(byte[] secret) {
+		return sha256().digest(secret);
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return number of live chains, i.e. sessions that can still be refreshed
+	 */
+	public int size() {
+		return chains.size();
+	}
+
+	/**
+	 * Claims carried from the login that started a chain into every access token issued by refreshing it.
+	 */
+	public static final class Grant {
+		private final String username;
+		private final String role;
+		private final Integer employeeId;
+		private final Integer managerId;
+		private final String credentialVersion;
+
+		public Grant(String username, String role, Integer employeeId, Integer managerId, String credentialVersion) {
+			this.username = username;
+			this.role = role;
+			this.employeeId = employeeId;
+			this.managerId = managerId;
+			this.credentialVersion = credentialVersion;
+		}
+
+		public String getUsername() {
+			return username;
+		}
+
+		public String getRole() {
+			return role;
+		}
+
+		public Integer getEmployeeId() {
+			return employeeId;
+		}
+
+		public Integer getManagerId() {
+			return managerId;
+		}
+
+		public String getCredentialVersion() {
+			return credentialVersion;
+		}
+	}
+
+	/**
+	 * Result of a successful {@link RefreshTokenStore#rotate(String)}.
+	 */
+	public static final class Rotation {
+		private final Grant grant;
+		private final String refreshToken;
+
+		private Rotation(Grant grant, String refreshToken) {
+			this.grant = grant;
+			this.refreshToken = refreshToken;
+		}
+
+		public Grant getGrant() {
+			return grant;
+		}
+
+		public String getRefreshToken() {
+			return refreshToken;
+		}
+	}
+
+	// Identity equality on purpose: rotation swaps instances with a compare-and-set on the chains map.
+	// The expiry index only uses compareTo, which ignores the digest.
+	private static final class Chain implements Comparable<Chain> {
+		private final long id;
+		private final byte[] digest;
+		private final Grant grant;
+		private final long expiresAtMillis;
+
+		private Chain(long id, byte[] digest, Grant grant, long expiresAtMillis) {
+			this.id = id;
+			this.digest = digest;
+			this.grant = grant;
+			this.expiresAtMillis = expiresAtMillis;
+		}
+
+		private Chain withDigest(byte[] next) {
+			return new Chain(id, next, grant, expiresAtMillis);
+		}
+
+		@Override
+		public int compareTo(Chain other) {
+			int byTime = Long.compare(expiresAtMillis, other.expiresAtMillis);
+			return byTime != 0 ? byTime : Long.compare(id, other.id);
+		}
+
+		private void write(DataOutputStream out) throws IOException {
+			out.writeLong(id);
+			out.write(digest);
+			out.writeLong(expiresAtMillis);
+			out.writeUTF(grant.username);
+			writeNullable(out, grant.role);
+			out.writeInt(grant.employeeId != null ? grant.employeeId : -1);
+			out.writeInt(grant.managerId != null ? grant.managerId : -1);
+			writeNullable(out, grant.credentialVersion);
+		}
+
+		private static Chain read(DataInputStream in) throws IOException {
+			long id = in.readLong();
+			byte[] digest = new byte[SECRET_BYTES];
+			in.readFully(digest);
+			long expiresAtMillis = in.readLong();
+			String username = in.readUTF();
+			String role = readNullable(in);
+			int employeeId = in.readInt();
+			int managerId = in.readInt();
+			String credentialVersion = readNullable(in);
+			Grant grant = new Grant(username, role, employeeId >= 0 ? employeeId : null, managerId >= 0 ? managerId : null,
+					credentialVersion);
+			return new Chain(id, digest, grant, expiresAtMillis);
+		}
+
+		private static void writeNullable(DataOutputStream out, String value) throws IOException {
+			out.writeBoolean(value != null);
+			if (value != null) {
+				out.writeUTF(value);
+			}
+		}
+
+		private static String readNullable(DataInputStream in) throws IOException {
+			return in.readBoolean() ? in.readUTF() : null;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.cognizant.authenticationservice.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ids ({@code jti}) of access tokens revoked before their expiry, e.g. by logout.
+ * <p>
+ * {@link #isRevoked(String)} runs on every authenticated request, so the exact set sits behind a
+ * {@link BloomFilter}: a token that was never revoked (nearly all of them) is cleared by a few bit reads
+ * without touching the set. Entries are dropped once their token has expired, since an expired token is
+ * rejected anyway; the filter, which cannot forget, is then rebuilt from what is left. Memory is therefore
+ * bounded by the logouts within one access-token lifetime, not by the total number of logouts.
+ * <p>
+ * Lookups never lock. Revocations and rebuilds are serialized, so no revocation can be lost from a filter
+ * that is being swapped in.
+ */
+@Component
+public class TokenRevocationList {
+
+	private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+	private final int expectedEntries;
+
+	private final double falsePositiveRate;
+
+	private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+	private volatile BloomFilter filter;
+	private int filterCapacity;
+
+	private final LongAdder filterPositives = new LongAdder();
+	private final LongAdder falsePositives = new LongAdder();
+
+	public TokenRevocationList(@Value("${auth.revocation.expected-entries:100000}") int expectedEntries,
+			@Value("${auth.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+		this.expectedEntries = expectedEntries;
+		this.falsePositiveRate = falsePositiveRate;
+	}
+
+	/**
+	 * Revokes a token until its expiry.
+	 *
+	 * @param tokenId          the token's {@code jti}; tokens without one cannot be revoked individually
+	 * @param expiresAtMillis  the token's {@code exp}, after which the entry is dropped
+	 */
+	public synchronized void revoke(String tokenId, long expiresAtMillis) {
+		if (tokenId == null) {
+			return;
+		}
+		if (filter == null || revoked.size() >= filterCapacity) {
+			rebuild();
+		}
+		revoked.put(tokenId, expiresAtMillis);
+		add(filter, tokenId);
+	}
+
+	public boolean isRevoked(String tokenId) {
+		BloomFilter current = filter;
+		if (tokenId == null || current == null) {
+			return false;
+		}
+		long hash = fnv(tokenId);
+		if (!current.mightContain(mix(hash), mix(hash ^ 0x9e3779b97f4a7c15L))) {
+			return false;
+		}
+		filterPositives.increment();
+		if (revoked.containsKey(tokenId)) {
+			return true;
+		}
+		falsePositives.increment();
+		return false;
+	}
+
+	/**
+	 * Drops entries of expired tokens and rebuilds the filter without them.
+	 */
+	@Scheduled(fixedDelayString = "${auth.revocation.prune-interval:PT1M}")
+	public synchronized void prune() {
+		long now = System.currentTimeMillis();
+		int before = revoked.size();
+		revoked.values().removeIf(expiresAtMillis -> expiresAtMillis <= now);
+		int pruned = before - revoked.size();
+		if (pruned > 0) {
+			rebuild();
+			log.debug("[TOKEN-REVOCATION] Pruned {} expired revocation(s); {} remaining", pruned, revoked.size());
+		}
+	}
+
+	// Sized for twice the current entries (at least the configured expectation), so growth is amortized
+	private void rebuild() {
+		int capacity = Math.max(expectedEntries, revoked.size() * 2);
+		BloomFilter next = new BloomFilter(capacity, falsePositiveRate);
+		for (String tokenId : revoked.keySet()) {
+			add(next, tokenId);
+		}
+		filter = next;
+		filterCapacity = capacity;
+	}
+
+	// 64-bit FNV-1a over the id, finished with two different SplitMix64 mixes for the two key halves
+	private static long fnv(String tokenId) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < tokenId.length(); i++) {
+			hash ^= tokenId.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private static void add(BloomFilter filter, String tokenId) {
+		long hash = fnv(tokenId);
+		filter.add(mix(hash), mix(hash ^ 0x9e3779b97f4a7c15L));
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	public int size() {
+		return revoked.size();
+	}
+
+	/**
+	 * @return lookups the filter could not clear and that went on to the exact set
+	 */
+	public long getFilterPositiveCount() {
+		return filterPositives.sum();
+	}
+
+	/**
+	 * @return lookups the filter could not clear although the token was not revoked
+	 */
+	public long getFalsePositiveCount() {
+		return falsePositives.sum();
+	}
+}
@@ -7,8 +7,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.cognizant.authenticationservice.audit.AuditEventType;
+import com.cognizant.authenticationservice.audit.AuditJournal;
+import com.cognizant.authenticationservice.cache.CachingUserDetailsService;
 import com.cognizant.authenticationservice.dto.EmployeeDto;
 import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+import com.cognizant.authenticationservice.security.OpaqueTokenStore;
+import com.cognizant.authenticationservice.security.RefreshTokenStore;
 
 /**
  * Service class responsible for handling authentication-related operations.
@@ -30,6 +35,18 @@ public class AuthenticationService {
     @Autowired
     private EmployeeFeignClient employeeFeignClient;
 
+    @Autowired
+    private CachingUserDetailsService userDetailsService;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private OpaqueTokenStore opaqueTokenStore;
+
+    @Autowired
+    private AuditJournal auditJournal;
+
     /**
      * Saves the employee details securely by encoding the password
      * and registering the employee using the Employee Management Service.
@@ -38,22 +55,24 @@ public class AuthenticationService {
      * @return Registered EmployeeDto object with saved details.
      */
     public EmployeeDto save(EmployeeDto employeeDto) {
-        log.info("Executing save method for EmployeeDto: {}", employeeDto);
+        // Only the username is logged: the DTO carries the password, and after encoding its hash
+        log.debug("Registering employee: {}", employeeDto.getUsername());
 
         try {
             // Encode password before saving the employee details
-            log.debug("Encoding password for employee: {}", employeeDto.getUsername());
             employeeDto.setPassword(passwordEncoder.encode(employeeDto.getPassword()));
 
             // Send request to Employee Management Service via Feign Client
-            log.info("Calling EmployeeFeignClient to register employee.");
             EmployeeDto savedEmployee = employeeFeignClient.register(employeeDto).getBody();
+            userDetailsService.invalidate(employeeDto.getUsername());
+            refreshTokenStore.revokeUser(employeeDto.getUsername());
+            opaqueTokenStore.revokeUser(employeeDto.getUsername());
 
-            // Log successful registration
-            log.info("Employee successfully registered: {}", savedEmployee);
+            auditJournal.record(AuditEventType.REGISTRATION, employeeDto.getUsername(), null, null);
             return savedEmployee;
         } catch (Exception e) {
-            log.error("Error occurred while saving employee: {}", e.getMessage(), e);
+            log.error("Error occurred while saving employee: {}. Error: {}", employeeDto.getUsername(), e.getMessage(), e);
+            auditJournal.record(AuditEventType.REGISTRATION_FAILURE, employeeDto.getUsername(), null, "error");
             throw new RuntimeException("Failed to save employee", e);
         }
     }
@@ -0,0 +1,284 @@
+package com.cognizant.authenticationservice.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.cognizant.authenticationservice.audit.AuditEventType;
+import com.cognizant.authenticationservice.audit.AuditJournal;
+import com.cognizant.authenticationservice.cache.CachingUserDetailsService;
+import com.cognizant.authenticationservice.cache.VerifiedTokenCache;
+import com.cognizant.authenticationservice.dto.BulkRegistrationResult;
+import com.cognizant.authenticationservice.dto.BulkRegistrationResult.Status;
+import com.cognizant.authenticationservice.dto.EmployeeDto;
+import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+import com.cognizant.authenticationservice.feignclient.EmployeeServiceUnavailableException;
+import com.cognizant.authenticationservice.security.PasswordHashingExecutor;
+import com.cognizant.authenticationservice.security.PasswordHashingRejectedException;
+import com.cognizant.authenticationservice.security.OpaqueTokenStore;
+import com.cognizant.authenticationservice.security.RefreshTokenStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.FeignException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Registers employees from a streamed JSON array or NDJSON body.
+ * <p>
+ * Records are read one at a time and handled in batches of {@code auth.bulk-register.batch-size}. For each
+ * batch, the valid records have their passwords hashed in parallel and then go to the employee service in
+ * one call. The result of every record is written to the output as one NDJSON line before the next batch
+ * is read. Memory therefore stays at one batch, whatever the size of the import.
+ */
+@Service
+public class BulkRegistrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkRegistrationService.class);
+
+    // BCrypt reads at most 72 bytes of a password, and the encoder refuses longer ones
+    private static final int MAX_PASSWORD_BYTES = 72;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final EmployeeFeignClient employeeFeignClient;
+
+    private final CachingUserDetailsService userDetailsService;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final RefreshTokenStore refreshTokenStore;
+
+    private final OpaqueTokenStore opaqueTokenStore;
+
+    private final AuditJournal auditJournal;
+
+    private final int batchSize;
+
+    private final int maxRecords;
+
+    private final Semaphore hashingPermits;
+
+    public BulkRegistrationService(ObjectMapper objectMapper, Validator validator, PasswordEncoder passwordEncoder,
+            PasswordHashingExecutor passwordHashingExecutor, EmployeeFeignClient employeeFeignClient,
+            CachingUserDetailsService userDetailsService, VerifiedTokenCache verifiedTokenCache,
+            RefreshTokenStore refreshTokenStore, OpaqueTokenStore opaqueTokenStore, AuditJournal auditJournal,
+            @Value("${auth.bulk-register.batch-size:100}") int batchSize,
+            @Value("${auth.bulk-register.max-records:10000}") int maxRecords,
+            @Value("${auth.bulk-register.hashing-threads:0}") int hashingThreads) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.passwordEncoder = passwordEncoder;
+        this.employeeFeignClient = employeeFeignClient;
+        this.userDetailsService = userDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.refreshTokenStore = refreshTokenStore;
+        this.opaqueTokenStore = opaqueTokenStore;
+        this.auditJournal = auditJournal;
+        this.batchSize = batchSize;
+        this.maxRecords = maxRecords;
+        int poolSize = passwordHashingExecutor.getPoolSize();
+        // Hashes all imports together may run at a time; 0 = half the hashing pool
+        int permits = hashingThreads > 0 ? Math.min(hashingThreads, poolSize) : Math.max(1, poolSize / 2);
+        this.hashingPermits = new Semaphore(permits, true);
+        log.info("[BULK-REGISTRATION] Imports hash at most {} of {} password(s) at a time", permits, poolSize);
+    }
+
+    /**
+     * Reads employee records from {@code in} and writes one {@link BulkRegistrationResult} per record to
+     * {@code out}, in input order.
+     *
+     * @param in  JSON array or newline-delimited JSON objects
+     * @param out receives NDJSON results
+     */
+    public void register(InputStream in, OutputStream out) throws IOException {
+        Map<Status, Integer> totals = new HashMap<>();
+        // Reading from the stream (not from a parser) lets Jackson unwrap a top-level array
+        try (MappingIterator<EmployeeDto> records = objectMapper.readerFor(EmployeeDto.class).readValues(in);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            List<Record> batch = new ArrayList<>(batchSize);
+            int index = 0;
+            while (true) {
+                Record record;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    if (index == maxRecords) {
+                        batch.add(Record.failed(index, Status.INVALID, "Too many records; the limit is " + maxRecords));
+                        break;
+                    }
+                    record = new Record(index, records.nextValue());
+                } catch (JsonParseException e) {
+                    // The parser cannot find the next record after malformed JSON, so the import stops here
+                    batch.add(Record.failed(index, Status.INVALID, "Malformed JSON: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    // Wrong types for a well-formed record: the iterator skips to the next one
+                    record = Record.failed(index, Status.INVALID, "Unreadable record: " + e.getOriginalMessage());
+                }
+                batch.add(record);
+                index++;
+                if (batch.size() == batchSize) {
+                    process(batch, generator, totals);
+                    batch.clear();
+                }
+            }
+            process(batch, generator, totals);
+        }
+        log.info("[BULK-REGISTRATION] Finished bulk registration: {}", totals);
+    }
+
+    private void process(List<Record> batch, JsonGenerator generator, Map<Status, Integer> totals) throws IOException {
+        List<Record> valid = new ArrayList<>(batch.size());
+        for (Record record : batch) {
+            if (record.result == null) {
+                validate(record);
+            }
+            if (record.result == null) {
+                valid.add(record);
+            }
+        }
+        hashPasswords(valid);
+        valid.removeIf(record -> record.result != null);
+        registerDownstream(valid);
+
+        for (Record record : batch) {
+            generator.writeObject(record.result);
+            generator.writeRaw('\n');
+            totals.merge(record.result.getStatus(), 1, Integer::sum);
+        }
+        generator.flush();
+    }
+
+    private void validate(Record record) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<EmployeeDto> violation : validator.validate(record.employee)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        String password = record.employee.getPassword();
+        if (password != null && password.getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            errors.add("password: Password must be at most " + MAX_PASSWORD_BYTES + " bytes");
+        }
+        if (!errors.isEmpty()) {
+            errors.sort(null);
+            record.result = new BulkRegistrationResult(record.index, record.employee.getUsername(), Status.INVALID, null, errors);
+        }
+    }
+
+    /**
+     * Hashes on the shared hashing pool, but all imports together never run more than
+     * {@code auth.bulk-register.hashing-threads} hashes at a time. The rest of the pool and its queue stay
+     * free for logins, and imports are not shed themselves.
+     * <p>
+     * A record whose hash was not written gets a result here, so its raw password is never sent on.
+     */
+    private void hashPasswords(List<Record> records) {
+        Semaphore permits = hashingPermits;
+        try (ExecutorService submitters = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Record record : records) {
+                submitters.execute(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        record.employee.setPassword(passwordEncoder.encode(record.employee.getPassword()));
+                        record.hashed = true;
+                    } catch (PasswordHashingRejectedException e) {
+                        record.result = new BulkRegistrationResult(record.index, record.employee.getUsername(),
+                            Status.REJECTED, null, List.of("Service is busy, please retry this record."));
+                    } catch (RuntimeException e) {
+                        log.warn("[BULK-REGISTRATION] Could not hash the password of record {}. Error: {}", record.index, e.getMessage());
+                        record.result = new BulkRegistrationResult(record.index, record.employee.getUsername(),
+                            Status.FAILED, null, List.of("Password could not be hashed."));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        for (Record record : records) {
+            // E.g. an Error ended the task before either outcome was recorded
+            if (record.result == null && !record.hashed) {
+                record.result = new BulkRegistrationResult(record.index, record.employee.getUsername(),
+                    Status.FAILED, null, List.of("Password could not be hashed."));
+            }
+        }
+    }
+
+    private void registerDownstream(List<Record> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<EmployeeDto> employees = records.stream().map(record -> record.employee).toList();
+        Map<String, EmployeeDto> saved = new HashMap<>();
+        String error = null;
+        try {
+            List<EmployeeDto> body = employeeFeignClient.registerAll(employees).getBody();
+            if (body != null) {
+                body.forEach(employee -> saved.put(employee.getUsername(), employee));
+            }
+        } catch (FeignException e) {
+            log.error("[BULK-REGISTRATION] Batch of {} employees failed. Status: {}, Error: {}", records.size(), e.status(), e.getMessage());
+            error = "Employee service error (status " + e.status() + ")";
+        } catch (EmployeeServiceUnavailableException e) {
+            log.warn("[BULK-REGISTRATION] Batch of {} employees not sent. {}", records.size(), e.getMessage());
+            error = "Employee service is unavailable, please retry this record.";
+        }
+
+        for (Record record : records) {
+            String username = record.employee.getUsername();
+            EmployeeDto employee = saved.get(username);
+            if (employee != null) {
+                // Same as a single registration: no cached lookup or token may keep a previous principal
+                userDetailsService.invalidate(username);
+                verifiedTokenCache.purgeUser(username);
+                refreshTokenStore.revokeUser(username);
+                opaqueTokenStore.revokeUser(username);
+                auditJournal.record(AuditEventType.REGISTRATION, username, null, "bulk");
+                record.result = new BulkRegistrationResult(record.index, username, Status.CREATED, employee.getEmployeeId(), null);
+            } else {
+                record.result = new BulkRegistrationResult(record.index, username, Status.FAILED, null,
+                    List.of(error != null ? error : "Not saved by the employee service"));
+            }
+        }
+    }
+
+    private static final class Record {
+        private final int index;
+        private final EmployeeDto employee;
+        private volatile BulkRegistrationResult result;
+        private volatile boolean hashed;
+
+        private Record(int index, EmployeeDto employee) {
+            this.index = index;
+            this.employee = employee;
+        }
+
+        private static Record failed(int index, Status status, String error) {
+            Record record = new Record(index, null);
+            record.result = new BulkRegistrationResult(index, null, status, null, List.of(error));
+            return record;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.cognizant.authenticationservice.util;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.EllipticCurve;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Rotating ring of ES256 (P-256) signing keys, active when {@code auth.jwt.algorithm=ES256}.
+ * <p>
+ * Three kinds of keys are published in the JWKS document:
+ * <ul>
+ * <li>the <b>active</b> key, which signs new tokens;</li>
+ * <li><b>next</b> keys, published ahead so that downstream JWKS caches already know them when they start
+ * signing;</li>
+ * <li><b>retired</b> keys, kept for {@code auth.jwt.key-retention} (at least the access-token lifetime), until
+ * every token they signed has expired.</li>
+ * </ul>
+ * Verification resolves the key from the token's {@code kid} header; unknown key ids are rejected.
+ * <p>
+ * With {@code auth.jwt.key-store} set, the keys are read from a PKCS12 key store shared by all replicas and
+ * re-read every {@code auth.jwt.key-store-refresh-interval}. Each EC P-256 key entry is one key, its alias is
+ * the {@code kid}, and its certificate's start date is when it starts signing: the newest started key is
+ * active, keys starting later are next, and older ones are retired. Every replica reads the same entries,
+ * so they all sign with the same key and publish the same document. Without a key store, the keys are
+ * generated in memory and rotated every {@code auth.jwt.key-rotation-interval}, which is only correct for a
+ * single instance.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.jwt.algorithm", havingValue = "ES256")
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+	private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+	private static final EllipticCurve P256 = p256();
+
+	private final long retentionMillis;
+	private final Path keyStorePath;
+	private final char[] keyStorePassword;
+
+	// Replaced as a whole, so a reader never sees the signing key of one generation with the keys of another
+	private volatile KeySet keys;
+
+	public JwtKeyRing(@Value("${auth.jwt.key-retention:PT10H}") Duration retention,
+			@Value("${auth.jwt.access-token-ttl:PT10H}") Duration accessTokenTtl,
+			@Value("${auth.jwt.key-store:}") String keyStore,
+			@Value("${auth.jwt.key-store-password:}") String keyStorePassword) {
+		if (retention.compareTo(accessTokenTtl) < 0) {
+			throw new IllegalStateException("auth.jwt.key-retention (" + retention
+					+ ") is shorter than auth.jwt.access-token-ttl (" + accessTokenTtl
+					+ "): tokens signed by a retired key would be rejected before they expire");
+		}
+		this.retentionMillis = retention.toMillis();
+		this.keyStorePath = keyStore.isBlank() ? null : Path.of(keyStore);
+		this.keyStorePassword = keyStorePassword.toCharArray();
+		if (keyStorePath != null) {
+			try {
+				this.keys = load(System.currentTimeMillis());
+			} catch (IOException | GeneralSecurityException e) {
+				throw new IllegalStateException("Unable to read signing keys from " + keyStorePath, e);
+			}
+			log.info("[JWT-KEYS] Loaded signing keys from {}; active kid: {}", keyStorePath, keys.active.kid);
+		} else {
+			this.keys = new KeySet(generate(), List.of(generate()), List.of());
+			log.warn("[JWT-KEYS] Signing keys are generated in memory; set auth.jwt.key-store when running more than one instance");
+		}
+	}
+
+	/**
+	 * Promotes the next key to active, retires the current one and drops retired keys whose tokens can no
+	 * longer be valid. Keys from a key store rotate by their start dates instead.
+	 */
+	@Scheduled(initialDelayString = "${auth.jwt.key-rotation-interval:P1D}", fixedDelayString = "${auth.jwt.key-rotation-interval:P1D}")
+	public synchronized void rotate() {
+		if (keyStorePath != null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		KeySet current = keys;
+		List<SigningKey> keep = new ArrayList<>();
+		for (SigningKey key : current.retired) {
+			if (key.retiredAtMillis + retentionMillis > now) {
+				keep.add(key);
+			}
+		}
+		keep.add(current.active.retire(now));
+		keys = new KeySet(current.next.get(0), List.of(generate()), keep);
+		log.info("[JWT-KEYS] Rotated signing key; active kid: {}, retained keys: {}", keys.active.kid, keep.size());
+	}
+
+	/**
+	 * Re-reads the key store, picking up added keys and keys whose start date has come. On failure the
+	 * keys read last stay in use.
+	 */
+	@Scheduled(initialDelayString = "${auth.jwt.key-store-refresh-interval:PT1M}", fixedDelayString = "${auth.jwt.key-store-refresh-interval:PT1M}")
+	public synchronized void refresh() {
+		if (keyStorePath == null) {
+			return;
+		}
+		try {
+			KeySet loaded = load(System.currentTimeMillis());
+			if (!loaded.active.kid.equals(keys.active.kid)) {
+				log.info("[JWT-KEYS] Signing with key {} from {}", loaded.active.kid, keyStorePath);
+			}
+			keys = loaded;
+		} catch (IOException | GeneralSecurityException | IllegalStateException e) {
+			log.error("[JWT-KEYS] Keeping the current signing keys, could not read {}: {}", keyStorePath, e.getMessage());
+		}
+	}
+
+	private KeySet load(long now) throws IOException, GeneralSecurityException {
+		KeyStore store = KeyStore.getInstance(keyStorePath.toFile(), keyStorePassword);
+		List<SigningKey> entries = new ArrayList<>();
+		for (String alias : Collections.list(store.aliases())) {
+			if (!store.isKeyEntry(alias)) {
+				continue;
+			}
+			Key key = store.getKey(alias, keyStorePassword);
+			Certificate certificate = store.getCertificate(alias);
+			if (!(key instanceof ECPrivateKey privateKey) || !P256.equals(privateKey.getParams().getCurve())
+					|| !(certificate instanceof X509Certificate x509)
+					|| !(x509.getPublicKey() instanceof ECPublicKey publicKey)) {
+				log.warn("[JWT-KEYS] Skipping key store entry {}: not an EC P-256 key with a certificate", alias);
+				continue;
+			}
+			entries.add(new SigningKey(alias, privateKey, publicKey, x509.getNotBefore().getTime()));
+		}
+		entries.sort(Comparator.comparingLong(key -> key.startsAtMillis));
+
+		SigningKey active = null;
+		List<SigningKey> next = new ArrayList<>();
+		List<SigningKey> retired = new ArrayList<>();
+		for (SigningKey key : entries) {
+			if (key.startsAtMillis > now) {
+				next.add(key);
+				continue;
+			}
+			// The previous key was retired when this one started
+			if (active != null && key.startsAtMillis + retentionMillis > now) {
+				retired.add(active.retire(key.startsAtMillis));
+			}
+			active = key;
+		}
+		if (active == null) {
+			throw new IllegalStateException("No key in " + keyStorePath + " has reached its start date");
+		}
+		return new KeySet(active, next, retired);
+	}
+
+	/**
+	 * @return the key that signs new tokens; its id and private key always belong together
+	 */
+	public SigningKey getActiveKey() {
+		return keys.active;
+	}
+
+	@Override
+	public Key resolveSigningKey(JwsHeader header, Claims claims) {
+		String kid = header.getKeyId();
+		ECPublicKey key = kid != null ? keys.publicKeys.get(kid) : null;
+		if (key == null) {
+			throw new SignatureException("Unknown signing key id: " + kid);
+		}
+		return key;
+	}
+
+	/**
+	 * @return the public keys as a JWK Set (RFC 7517), ready to be serialized
+	 */
+	public Map<String, Object> getJwks() {
+		return keys.jwks;
+	}
+
+	private static SigningKey generate() {
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+			generator.initialize(new ECGenParameterSpec("secp256r1"));
+			KeyPair keyPair = generator.generateKeyPair();
+			return new SigningKey(UUID.randomUUID().toString(), keyPair.getPrivate(), (ECPublicKey) keyPair.getPublic(), 0);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to generate an ES256 key pair", e);
+		}
+	}
+
+	private static EllipticCurve p256() {
+		try {
+			AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+			parameters.init(new ECGenParameterSpec("secp256r1"));
+			return parameters.getParameterSpec(ECParameterSpec.class).getCurve();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("P-256 not available", e);
+		}
+	}
+
+	/**
+	 * A signing key with its id. Immutable, so the {@code kid} put in a token's header always names the key
+	 * that signed it.
+	 */
+	public static final class SigningKey {
+		private final String kid;
+		private final PrivateKey privateKey;
+		private final ECPublicKey publicKey;
+		private final long startsAtMillis;
+		private final long retiredAtMillis;
+
+		private SigningKey(String kid, PrivateKey privateKey, ECPublicKey publicKey, long startsAtMillis) {
+			this(kid, privateKey, publicKey, startsAtMillis, 0);
+		}
+
+		private SigningKey(String kid, PrivateKey privateKey, ECPublicKey publicKey, long startsAtMillis,
+				long retiredAtMillis) {
+			this.kid = kid;
+			this.privateKey = privateKey;
+			this.publicKey = publicKey;
+			this.startsAtMillis = startsAtMillis;
+			this.retiredAtMillis = retiredAtMillis;
+		}
+
+		public String getId() {
+			return kid;
+		}
+
+		public PrivateKey getPrivateKey() {
+			return privateKey;
+		}
+
+		private SigningKey retire(long now) {
+			return new SigningKey(kid, privateKey, publicKey, startsAtMillis, now);
+		}
+
+		private Map<String, Object> toJwk() {
+			Map<String, Object> jwk = new LinkedHashMap<>();
+			jwk.put("kty", "EC");
+			jwk.put("crv", "P-256");
+			jwk.put("use", "sig");
+			jwk.put("alg", "ES256");
+			jwk.put("kid", kid);
+			jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+			jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+			return jwk;
+		}
+
+		// JWK coordinates are the unsigned, fixed-length (32 byte) big-endian encoding
+		private static String coordinate(BigInteger value) {
+			byte[] bytes = value.toByteArray();
+			byte[] fixed = new byte[32];
+			int length = Math.min(bytes.length, 32);
+			System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+		}
+	}
+
+	// One generation of keys: the signing key, every key that verifies, and the document publishing them
+	private static final class KeySet {
+		private final SigningKey active;
+		private final List<SigningKey> next;
+		private final List<SigningKey> retired;
+		private final Map<String, ECPublicKey> publicKeys;
+		private final Map<String, Object> jwks;
+
+		private KeySet(SigningKey active, List<SigningKey> next, List<SigningKey> retired) {
+			this.active = active;
+			this.next = List.copyOf(next);
+			this.retired = List.copyOf(retired);
+			List<SigningKey> published = new ArrayList<>();
+			published.add(active);
+			published.addAll(next);
+			published.addAll(retired);
+			Map<String, ECPublicKey> publicKeys = new HashMap<>();
+			List<Map<String, Object>> jwks = new ArrayList<>();
+			for (SigningKey key : published) {
+				publicKeys.put(key.kid, key.publicKey);
+				jwks.add(key.toJwk());
+			}
+			this.publicKeys = Map.copyOf(publicKeys);
+			this.jwks = Map.of("keys", List.copyOf(jwks));
+		}
+	}
+
+	@Override
+	public String toString() {
+		KeySet current = keys;
+		return "JwtKeyRing [active=" + current.active.kid + ", next=" + current.next.stream().map(k -> k.kid).toList()
+				+ ", retired=" + current.retired.stream().map(k -> k.kid).toList() + "]";
+	}
+}
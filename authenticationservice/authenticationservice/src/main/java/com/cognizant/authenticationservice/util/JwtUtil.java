@@ -1,98 +1,200 @@
 package com.cognizant.authenticationservice.util;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
-
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.cognizant.authenticationservice.InstanceWarmup;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Serializer;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 @Component
 public class JwtUtil {
 
-	private static final String SECRET_KEY = "01234567890123456789012345678901"; // min 32 bytes
- 
-	public String generateToken(String username, String role) {
-	    return Jwts.builder()
-	        .setSubject(username)
-	        .claim("role", role)
-	        .setIssuedAt(new Date())
-	        .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-	        .signWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)), 
-	        		SignatureAlgorithm.HS256)
-	        .compact();
-	}     
-    public String extractRole(String token) {
-
-        Claims claims = Jwts.parserBuilder()
-
-            .setSigningKey(SECRET_KEY.getBytes())
-
-            .build()
-
-            .parseClaimsJws(token)
-
-            .getBody();
-
-        return claims.get("role", String.class);
-
-    }
-
-     
- 
-    public String extractUsername(String token) {
-
-        return Jwts.parserBuilder()
+	private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
 
-            .setSigningKey(SECRET_KEY.getBytes())
-
-            .build()
-
-            .parseClaimsJws(token)
-
-            .getBody()
-
-            .getSubject();
-
-    }
- 
-   /* public List<String> extractRoles(String token) {
-
-        Claims claims = Jwts.parserBuilder()
-
-            .setSigningKey(SECRET_KEY.getBytes())
-
-            .build()
-
-            .parseClaimsJws(token)
-
-            .getBody();
-
-        return (List<String>) claims.get("roles");
+	private static final String SECRET_KEY = "01234567890123456789012345678901"; // min 32 bytes
 
-    }*/
- 
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY.getBytes())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (ExpiredJwtException e) {
-            // Handle expired token
-            System.out.println("JWT token has expired: " + e.getMessage());
-            return false;
-        } catch (Exception e) {
-            // Handle other exceptions
-            System.out.println("Invalid JWT token: " + e.getMessage());
-            return false;
-        }
-    }
+	public static final String ROLE_CLAIM = "role";
+	public static final String EMPLOYEE_ID_CLAIM = "employeeId";
+	public static final String MANAGER_ID_CLAIM = "managerId";
+	public static final String CREDENTIAL_VERSION_CLAIM = "cv";
+
+	// Derived once: building the key and the parser is far more expensive than verifying a token.
+	// DefaultJwtParser is immutable, so one instance is safely shared by all request threads.
+	private static final SecretKey SIGNING_KEY = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+
+	// The builder otherwise looks up (and instantiates) a JSON serializer on every compact() call.
+	@SuppressWarnings("unchecked")
+	private static final Serializer<Map<String, ?>> SERIALIZER = ServiceLoader.load(Serializer.class).findFirst()
+			.orElseThrow(() -> new IllegalStateException("No JJWT JSON serializer on the classpath"));
+
+	private static final Base64.Encoder TOKEN_ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final JwtParser HS256_PARSER = Jwts.parserBuilder().setSigningKey(SIGNING_KEY).build();
+
+	// Present only when auth.jwt.algorithm=ES256; otherwise tokens are signed with the shared HS256 secret
+	private final JwtKeyRing keyRing;
+
+	private final JwtParser parser;
+
+	private final Timer signTimer;
+	private final Timer validTimer;
+	private final Timer expiredTimer;
+	private final Timer invalidTimer;
+
+	// Lifetime of issued tokens; keep it short when clients can renew through refresh tokens
+	@Value("${auth.jwt.access-token-ttl:PT10H}")
+	private Duration accessTokenTtl = Duration.ofHours(10);
+
+	public JwtUtil() {
+		this((JwtKeyRing) null);
+	}
+
+	@Autowired
+	public JwtUtil(ObjectProvider<JwtKeyRing> keyRing, MeterRegistry meterRegistry) {
+		this(keyRing.getIfAvailable(), meterRegistry);
+	}
+
+	public JwtUtil(JwtKeyRing keyRing) {
+		this(keyRing, Metrics.globalRegistry);
+	}
+
+	public JwtUtil(JwtKeyRing keyRing, MeterRegistry meterRegistry) {
+		this.keyRing = keyRing;
+		this.parser = keyRing == null ? HS256_PARSER : Jwts.parserBuilder().setSigningKeyResolver(keyRing).build();
+		String algorithm = keyRing == null ? "HS256" : "ES256";
+		this.signTimer = Timer.builder("auth.jwt.sign")
+				.description("Time to build and sign an access token")
+				.tag("algorithm", algorithm)
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		this.validTimer = verifyTimer(meterRegistry, algorithm, "valid");
+		this.expiredTimer = verifyTimer(meterRegistry, algorithm, "expired");
+		this.invalidTimer = verifyTimer(meterRegistry, algorithm, "invalid");
+	}
+
+	private static Timer verifyTimer(MeterRegistry meterRegistry, String algorithm, String result) {
+		return Timer.builder("auth.jwt.verify")
+				.description("Time to parse a token and check its signature and expiry")
+				.tag("algorithm", algorithm)
+				.tag("result", result)
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+	}
 
+	public String generateToken(String username, String role) {
+		return generateToken(username, role, null, null, null);
+	}
+
+	/**
+	 * Issues a token that also carries the claims needed to rebuild the principal without a user lookup.
+	 * Null claims are omitted.
+	 */
+	public String generateToken(String username, String role, Integer employeeId, Integer managerId,
+			String credentialVersion) {
+		long start = System.nanoTime();
+		try {
+			return sign(username, role, employeeId, managerId, credentialVersion);
+		} finally {
+			signTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private String sign(String username, String role, Integer employeeId, Integer managerId, String credentialVersion) {
+		long now = System.currentTimeMillis();
+		JwtBuilder builder = Jwts.builder()
+				.setId(newTokenId())
+				.setSubject(username)
+				.claim(ROLE_CLAIM, role)
+				.claim(EMPLOYEE_ID_CLAIM, employeeId)
+				.claim(MANAGER_ID_CLAIM, managerId)
+				.claim(CREDENTIAL_VERSION_CLAIM, credentialVersion)
+				.setIssuedAt(new Date(now))
+				.setExpiration(new Date(now + accessTokenTtl.toMillis()))
+				.serializeToJsonWith(SERIALIZER);
+		if (keyRing == null) {
+			return builder.signWith(SIGNING_KEY, SignatureAlgorithm.HS256).compact();
+		}
+		// One read, so a concurrent rotation cannot pair the kid of one key with the signature of another
+		JwtKeyRing.SigningKey key = keyRing.getActiveKey();
+		return builder.setHeaderParam(JwsHeader.KEY_ID, key.getId())
+				.signWith(key.getPrivateKey(), SignatureAlgorithm.ES256)
+				.compact();
+	}
+
+	// 128 random bits; a jti only has to be unique, not secret, so the cheap per-thread generator is enough
+	private static String newTokenId() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		byte[] id = ByteBuffer.allocate(16).putLong(random.nextLong()).putLong(random.nextLong()).array();
+		return TOKEN_ID_ENCODER.encodeToString(id);
+	}
+
+	/**
+	 * Verifies the signature and expiry of the token exactly once and returns its claims.
+	 *
+	 * @param token compact JWS string
+	 * @return the verified token, or {@code null} if the token is expired or invalid
+	 */
+	public VerifiedToken verify(String token) {
+		long start = System.nanoTime();
+		try {
+			Claims claims = parser.parseClaimsJws(token).getBody();
+			VerifiedToken verified = new VerifiedToken(claims.getId(), claims.getSubject(), claims.get(ROLE_CLAIM, String.class),
+					claims.get(EMPLOYEE_ID_CLAIM, Integer.class), claims.get(MANAGER_ID_CLAIM, Integer.class),
+					claims.get(CREDENTIAL_VERSION_CLAIM, String.class), claims.getExpiration());
+			// The warm-up's requests through the filter are not production traffic
+			if (!InstanceWarmup.WARMUP_USERNAME.equals(verified.getSubject())) {
+				validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+			return verified;
+		} catch (ExpiredJwtException e) {
+			expiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			log.debug("JWT token has expired: {}", e.getMessage());
+			return null;
+		} catch (Exception e) {
+			invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			log.debug("Invalid JWT token: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	public String extractRole(String token) {
+		return parser.parseClaimsJws(token).getBody().get(ROLE_CLAIM, String.class);
+	}
+
+	public String extractUsername(String token) {
+		return parser.parseClaimsJws(token).getBody().getSubject();
+	}
+
+	public boolean validateToken(String token) {
+		return verify(token) != null;
+	}
 
 }
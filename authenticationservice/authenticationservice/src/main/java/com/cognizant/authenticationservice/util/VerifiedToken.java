@@ -0,0 +1,76 @@
+package com.cognizant.authenticationservice.util;
+
+import java.util.Date;
+
+/**
+ * Immutable result of a single successful JWT verification.
+ * Holds everything the request filter needs so the token never has to be parsed twice.
+ */
+public final class VerifiedToken {
+
+	private final String tokenId;
+	private final String subject;
+	private final String role;
+	private final Integer employeeId;
+	private final Integer managerId;
+	private final String credentialVersion;
+	private final long expiresAtMillis;
+
+	public VerifiedToken(String tokenId, String subject, String role, Integer employeeId, Integer managerId,
+			String credentialVersion, Date expiration) {
+		this.tokenId = tokenId;
+		this.subject = subject;
+		this.role = role;
+		this.employeeId = employeeId;
+		this.managerId = managerId;
+		this.credentialVersion = credentialVersion;
+		this.expiresAtMillis = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return the token's {@code jti}, or {@code null} for tokens issued without one
+	 */
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	public String getRole() {
+		return role;
+	}
+
+	public Integer getEmployeeId() {
+		return employeeId;
+	}
+
+	public Integer getManagerId() {
+		return managerId;
+	}
+
+	public String getCredentialVersion() {
+		return credentialVersion;
+	}
+
+	/**
+	 * @return {@code true} if the token carries every claim needed to build the principal without a user lookup
+	 */
+	public boolean hasPrincipalClaims() {
+		return subject != null && role != null && employeeId != null && managerId != null && credentialVersion != null;
+	}
+
+	/**
+	 * @return expiry of the token in epoch milliseconds ({@link Long#MAX_VALUE} if the token has no exp claim)
+	 */
+	public long getExpiresAtMillis() {
+		return expiresAtMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "VerifiedToken [tokenId=" + tokenId + ", subject=" + subject + ", role=" + role + ", employeeId=" + employeeId + ", managerId=" + managerId
+				+ ", expiresAtMillis=" + expiresAtMillis + "]";
+	}
+}
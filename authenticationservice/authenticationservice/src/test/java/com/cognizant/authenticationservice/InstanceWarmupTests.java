@@ -0,0 +1,108 @@
+package com.cognizant.authenticationservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+import com.cognizant.authenticationservice.security.OffloadingPasswordEncoder;
+import com.cognizant.authenticationservice.security.PasswordHashingExecutor;
+import com.cognizant.authenticationservice.util.JwtKeyRing;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InstanceWarmupTests {
+
+	// The registry production meters live in; the warm-up must leave it untouched
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(2, 16,
+			Duration.ofSeconds(5), Duration.ofSeconds(1), registry);
+	private final EmployeeFeignClient employeeFeignClient = mock(EmployeeFeignClient.class);
+	private final ApplicationInfoManager applicationInfoManager = mock(ApplicationInfoManager.class);
+
+	InstanceWarmupTests() {
+		InstanceInfo info = mock(InstanceInfo.class);
+		when(info.getStatus()).thenReturn(InstanceStatus.STARTING);
+		when(applicationInfoManager.getInfo()).thenReturn(info);
+	}
+
+	@SuppressWarnings("unchecked")
+	private InstanceWarmup warmup(UserDetailsService userDetailsService, Duration timeout) {
+		ObjectProvider<JwtKeyRing> keyRing = mock(ObjectProvider.class);
+		ObjectProvider<ApplicationInfoManager> manager = mock(ObjectProvider.class);
+		when(manager.getIfAvailable()).thenReturn(applicationInfoManager);
+		return new InstanceWarmup(keyRing,
+				new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), passwordHashingExecutor, registry),
+				userDetailsService, employeeFeignClient, Jackson2ObjectMapperBuilder.json().build(), new MockEnvironment(),
+				manager, true, 50, 2, 2, 10, timeout);
+	}
+
+	private static UserDetailsService unknownUsers() {
+		return username -> {
+			throw new UsernameNotFoundException(username);
+		};
+	}
+
+	@AfterEach
+	void shutdown() {
+		passwordHashingExecutor.shutdown();
+	}
+
+	@Test
+	void failingStagesStillMarkTheInstanceUp() {
+		when(employeeFeignClient.findByUsername(anyString())).thenThrow(new IllegalStateException("Connection refused"));
+		InstanceWarmup warmup = warmup(username -> {
+			throw new NoClassDefFoundError("broken");
+		}, Duration.ofSeconds(30));
+
+		// An Error escapes its stage and ends the warm-up, but not before the status is reported
+		assertThrows(NoClassDefFoundError.class, warmup::run);
+		verify(applicationInfoManager).setInstanceStatus(InstanceStatus.UP);
+	}
+
+	@Test
+	void timedOutStageStillMarksTheInstanceUp() {
+		when(employeeFeignClient.findByUsername(anyString())).thenAnswer(invocation -> {
+			Thread.sleep(10_000);
+			return null;
+		});
+		InstanceWarmup warmup = warmup(unknownUsers(), Duration.ofMillis(500));
+
+		long start = System.nanoTime();
+		warmup.run();
+
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+		verify(applicationInfoManager).setInstanceStatus(InstanceStatus.UP);
+	}
+
+	@Test
+	void warmupIsNotTimedInTheProductionMeters() {
+		warmup(unknownUsers(), Duration.ofSeconds(30)).run();
+
+		verify(employeeFeignClient, times(2)).findByUsername(InstanceWarmup.WARMUP_USERNAME);
+		assertEquals(0, registry.get("auth.password.encode").timer().count());
+		assertEquals(0, registry.get("auth.password.matches").timer().count());
+		assertTrue(registry.find("auth.jwt.sign").timers().isEmpty());
+		verify(applicationInfoManager).setInstanceStatus(InstanceStatus.UP);
+	}
+}
@@ -0,0 +1,115 @@
+package com.cognizant.authenticationservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.cognizant.authenticationservice.audit.AuditJournal;
+import com.cognizant.authenticationservice.cache.VerifiedTokenCache;
+import com.cognizant.authenticationservice.security.GatewayIdentity;
+import com.cognizant.authenticationservice.security.OpaqueTokenStore;
+import com.cognizant.authenticationservice.security.TokenRevocationList;
+import com.cognizant.authenticationservice.util.JwtKeyRing;
+import com.cognizant.authenticationservice.util.JwtUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtRequestFilterTests {
+
+	private static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1JlXU4Xq9z3u5lPZrQ2PZ8e";
+
+	private final JwtUtil jwtUtil = new JwtUtil((JwtKeyRing) null, new SimpleMeterRegistry());
+	private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private JwtRequestFilter filter(boolean statelessPrincipal) {
+		return new JwtRequestFilter(jwtUtil, userDetailsService, new VerifiedTokenCache(false, 100, Duration.ofMinutes(10)),
+				new TokenRevocationList(100, 0.01), new GatewayIdentity(""),
+				new AuditJournal(false, "audit", 1024, 1, 16, Duration.ofMillis(50)),
+				new OpaqueTokenStore(false, Duration.ofMinutes(30), Duration.ofHours(12), 1, 1, ""),
+				statelessPrincipal, registry);
+	}
+
+	private static EmployeeUserDetails alice(String passwordHash) {
+		return new EmployeeUserDetails("alice", passwordHash, List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE")), 7, 1);
+	}
+
+	private static Authentication authenticate(JwtRequestFilter filter, String token) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/attendance/today");
+		request.addHeader("Authorization", "Bearer " + token);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	private long filtered(String result) {
+		return registry.get("auth.filter").tag("result", result).timer().count();
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void statelessPrincipalIsBuiltFromTheClaimsWithoutALookup() throws Exception {
+		String token = jwtUtil.generateToken("alice", "ROLE_EMPLOYEE", 7, 1,
+				EmployeeUserDetails.credentialVersionOf(PASSWORD_HASH));
+
+		Authentication authentication = authenticate(filter(true), token);
+
+		EmployeeUserDetails principal = (EmployeeUserDetails) authentication.getPrincipal();
+		assertEquals("alice", principal.getUsername());
+		assertEquals(7, principal.getEmployeeId());
+		assertEquals(1, principal.getManagerId());
+		assertEquals("ROLE_EMPLOYEE", authentication.getAuthorities().iterator().next().getAuthority());
+		verifyNoInteractions(userDetailsService);
+		assertEquals(1, filtered("authenticated"));
+	}
+
+	@Test
+	void tokenWithoutThePrincipalClaimsFallsBackToALookup() throws Exception {
+		when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice(PASSWORD_HASH));
+
+		Authentication authentication = authenticate(filter(true), jwtUtil.generateToken("alice", "ROLE_EMPLOYEE"));
+
+		EmployeeUserDetails principal = (EmployeeUserDetails) authentication.getPrincipal();
+		assertEquals(7, principal.getEmployeeId());
+		verify(userDetailsService).loadUserByUsername("alice");
+	}
+
+	@Test
+	void lookupRejectsATokenIssuedBeforeThePasswordChanged() throws Exception {
+		when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice("$2a$10$changed"));
+		String token = jwtUtil.generateToken("alice", "ROLE_EMPLOYEE", 7, 1,
+				EmployeeUserDetails.credentialVersionOf(PASSWORD_HASH));
+
+		// Without stateless principals the claims are checked against the current record
+		assertNull(authenticate(filter(false), token));
+		verify(userDetailsService).loadUserByUsername("alice");
+		assertEquals(1, filtered("rejected"));
+	}
+
+	@Test
+	void warmupTokenIsRejectedWithoutALookupOrTiming() throws Exception {
+		assertNull(authenticate(filter(false), jwtUtil.generateToken(InstanceWarmup.WARMUP_USERNAME, "ROLE_EMPLOYEE")));
+
+		verifyNoInteractions(userDetailsService);
+		assertEquals(0, filtered("rejected"));
+	}
+}
@@ -0,0 +1,106 @@
+package com.cognizant.authenticationservice.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditJournalTests {
+
+	@TempDir
+	Path directory;
+
+	private AuditJournal journal(int segmentSize, int maxSegments) {
+		return new AuditJournal(true, directory.toString(), segmentSize, maxSegments, 65536, Duration.ofMillis(1));
+	}
+
+	private List<String> read(AuditEventType type, String user) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PrintStream print = new PrintStream(out, true, StandardCharsets.UTF_8)) {
+			for (Path segment : AuditJournal.segments(directory)) {
+				AuditJournalReader.read(segment, user, type, print);
+			}
+		}
+		return out.toString(StandardCharsets.UTF_8).lines().toList();
+	}
+
+	@Test
+	void recordsRoundTripThroughTheSegmentFormat() throws Exception {
+		AuditJournal journal = journal(64 * 1024, 4);
+		journal.start();
+		journal.record(AuditEventType.LOGIN_SUCCESS, "alice", "10.0.0.1", null);
+		journal.record(AuditEventType.LOGIN_FAILURE, "bob", "10.0.0.2", "bad_credentials");
+		journal.record(AuditEventType.TOKEN_REJECTED, null, null, null);
+		journal.record(AuditEventType.REGISTRATION, "x".repeat(300), null, "bulk");
+		// Drains the queue before the writer exits
+		journal.stop();
+		assertEquals(4, journal.getAppendedCount());
+		assertEquals(0, journal.getDroppedCount());
+
+		List<Path> segments = AuditJournal.segments(directory);
+		assertEquals(1, segments.size());
+		ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(segments.get(0)));
+		assertEquals(AuditJournal.MAGIC, header.getInt(0));
+		assertEquals(AuditJournal.VERSION, header.getShort(4));
+		// type + millis + three length bytes, plus the field bytes; the long username is cut at 255 bytes
+		int expectedEnd = AuditJournal.HEADER_BYTES + 4 * (1 + Long.BYTES + 3)
+				+ "alice10.0.0.1".length() + "bob10.0.0.2bad_credentials".length() + 255 + "bulk".length();
+		assertEquals(expectedEnd, header.getInt(AuditJournal.END_OFFSET));
+
+		List<String> lines = read(null, null);
+		assertEquals(4, lines.size());
+		assertTrue(lines.get(0).endsWith(" LOGIN_SUCCESS username=alice client=10.0.0.1"), lines.get(0));
+		assertTrue(lines.get(1).endsWith(" LOGIN_FAILURE username=bob client=10.0.0.2 detail=bad_credentials"), lines.get(1));
+		assertTrue(lines.get(2).endsWith(" TOKEN_REJECTED"), lines.get(2));
+		assertTrue(lines.get(3).endsWith(" REGISTRATION username=" + "x".repeat(255) + " detail=bulk"), lines.get(3));
+
+		assertEquals(1, read(AuditEventType.LOGIN_FAILURE, null).size());
+		assertEquals(1, read(null, "alice").size());
+	}
+
+	@Test
+	void readerStopsAtTheLastCommittedBatch() throws Exception {
+		AuditJournal journal = journal(64 * 1024, 4);
+		journal.start();
+		journal.record(AuditEventType.LOGOUT, "alice", null, null);
+		journal.stop();
+
+		// Bytes past the end offset, e.g. a batch still being written, are not read
+		Path segment = AuditJournal.segments(directory).get(0);
+		byte[] bytes = Files.readAllBytes(segment);
+		int end = ByteBuffer.wrap(bytes).getInt(AuditJournal.END_OFFSET);
+		bytes[end] = AuditEventType.LOGIN_SUCCESS.getCode();
+		Files.write(segment, bytes);
+
+		assertEquals(1, read(null, null).size());
+	}
+
+	@Test
+	void fullSegmentsRotateAndOnlyTheNewestAreKept() throws Exception {
+		// The smallest segment holds a single record: the next one might be of the maximum size
+		AuditJournal journal = journal(0, 3);
+		journal.start();
+		for (int i = 0; i < 10; i++) {
+			journal.record(AuditEventType.LOGIN_SUCCESS, "user" + i, null, null);
+		}
+		journal.stop();
+		assertEquals(10, journal.getAppendedCount());
+
+		assertEquals(3, AuditJournal.segments(directory).size());
+		List<String> lines = read(null, null);
+		assertEquals(3, lines.size());
+		assertTrue(lines.get(0).endsWith("username=user7"), lines.get(0));
+		assertTrue(lines.get(2).endsWith("username=user9"), lines.get(2));
+	}
+}
@@ -0,0 +1,134 @@
+package com.cognizant.authenticationservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.cognizant.authenticationservice.EmployeeUserDetails;
+
+class CachingUserDetailsServiceTests {
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private UserDetails employee(String username) {
+		return new EmployeeUserDetails(username, "$2a$10$hash", List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE")), 7, 1);
+	}
+
+	@Test
+	void concurrentLoadsShareOneCall() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CachingUserDetailsService service = new CachingUserDetailsService(username -> {
+			calls.incrementAndGet();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return employee(username);
+		}, Duration.ofMinutes(1), Duration.ofSeconds(10), 100);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<UserDetails>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(pool.submit(() -> service.loadUserByUsername("alice")));
+			}
+			// The leader is parked in the loader; wait until the other seven have joined its call
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (service.getSharedLoadCount() < 7 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			assertEquals(7, service.getSharedLoadCount());
+			release.countDown();
+			for (Future<UserDetails> result : results) {
+				assertNotNull(result.get(5, TimeUnit.SECONDS).getPassword());
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(1, calls.get());
+
+		// Served from the cache, as a copy whose credentials survive erasure of an earlier one
+		UserDetails first = service.loadUserByUsername("alice");
+		((EmployeeUserDetails) first).eraseCredentials();
+		UserDetails second = service.loadUserByUsername("alice");
+		assertNotSame(first, second);
+		assertNotNull(second.getPassword());
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void unknownUsernamesAreNegativelyCachedAndInvalidationForcesReload() {
+		CachingUserDetailsService service = new CachingUserDetailsService(username -> {
+			calls.incrementAndGet();
+			throw new UsernameNotFoundException("User not found: " + username);
+		}, Duration.ofMinutes(1), Duration.ofMinutes(1), 100);
+
+		assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+		assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+		assertEquals(1, calls.get());
+
+		service.invalidate("ghost");
+		assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void errorInTheLoaderReleasesWaitersAndTheNextLoadRetries() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		NoClassDefFoundError failure = new NoClassDefFoundError("simulated");
+		CachingUserDetailsService service = new CachingUserDetailsService(username -> {
+			if (calls.incrementAndGet() > 1) {
+				return employee(username);
+			}
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			throw failure;
+		}, Duration.ofMinutes(1), Duration.ofSeconds(10), 100);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<UserDetails> leader = pool.submit(() -> service.loadUserByUsername("alice"));
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (calls.get() == 0 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			Future<UserDetails> follower = pool.submit(() -> service.loadUserByUsername("alice"));
+			while (service.getSharedLoadCount() < 1 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			assertEquals(1, service.getSharedLoadCount());
+			release.countDown();
+
+			// Both see the Error instead of waiting forever on an incomplete call
+			assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+			assertSame(failure, assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertNotNull(service.loadUserByUsername("alice"));
+		assertEquals(2, calls.get());
+	}
+}
@@ -0,0 +1,125 @@
+package com.cognizant.authenticationservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import com.cognizant.authenticationservice.EmployeeUserDetails;
+import com.cognizant.authenticationservice.dto.CredentialDto;
+import com.cognizant.authenticationservice.dto.CredentialFeedDto;
+import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+
+import feign.FeignException;
+import feign.Request;
+
+class CredentialSnapshotTests {
+
+	private final EmployeeFeignClient employeeFeignClient = mock(EmployeeFeignClient.class);
+	private final List<String> changed = new ArrayList<>();
+
+	private CredentialSnapshot snapshot(Duration maxStaleness) {
+		CredentialSnapshot snapshot = new CredentialSnapshot(true, maxStaleness, employeeFeignClient);
+		snapshot.setChangeListener(changed::add);
+		return snapshot;
+	}
+
+	private static CredentialDto record(String username, String password, int employeeId, boolean deleted) {
+		CredentialDto record = new CredentialDto();
+		record.setUsername(username);
+		record.setPassword(password);
+		record.setRole("ROLE_EMPLOYEE");
+		record.setEmployeeId(employeeId);
+		record.setManagerId(1);
+		record.setDeleted(deleted);
+		return record;
+	}
+
+	private static ResponseEntity<CredentialFeedDto> feed(long version, CredentialDto... records) {
+		CredentialFeedDto feed = new CredentialFeedDto();
+		feed.setVersion(version);
+		feed.setCredentials(List.of(records));
+		return ResponseEntity.ok(feed);
+	}
+
+	@Test
+	void loadsEverythingOnceThenFollowsTheChanges() {
+		CredentialSnapshot snapshot = snapshot(Duration.ofMinutes(10));
+		when(employeeFeignClient.credentialSnapshot()).thenReturn(feed(5,
+				record("alice", "$2a$10$alice", 7, false), record("bob", "$2a$10$bob", 8, false),
+				record("gone", "$2a$10$gone", 9, true)));
+		assertNull(snapshot.find("alice"));
+
+		snapshot.sync();
+		assertEquals(5, snapshot.getVersion());
+		assertEquals(2, snapshot.size());
+		EmployeeUserDetails alice = snapshot.find("alice");
+		assertEquals("$2a$10$alice", alice.getPassword());
+		assertEquals(7, alice.getEmployeeId());
+		assertTrue(changed.isEmpty());
+
+		when(employeeFeignClient.credentialChanges(5)).thenReturn(feed(6,
+				record("alice", "$2a$10$changed", 7, false), record("bob", null, 8, true)));
+		snapshot.sync();
+		assertEquals(6, snapshot.getVersion());
+		assertEquals("$2a$10$changed", snapshot.find("alice").getPassword());
+		assertNotEquals(alice.getCredentialVersion(), snapshot.find("alice").getCredentialVersion());
+		assertNull(snapshot.find("bob"));
+		assertEquals(List.of("alice", "bob"), changed);
+	}
+
+	@Test
+	void goneReloadsEverythingAndReportsWhatDiffers() {
+		CredentialSnapshot snapshot = snapshot(Duration.ofMinutes(10));
+		when(employeeFeignClient.credentialSnapshot()).thenReturn(feed(5,
+				record("alice", "$2a$10$alice", 7, false), record("bob", "$2a$10$bob", 8, false),
+				record("carol", "$2a$10$carol", 9, false)));
+		snapshot.sync();
+
+		Request request = Request.create(Request.HttpMethod.GET, "/api/employee/credentials/changes?since=5",
+				Map.of(), null, null, null);
+		when(employeeFeignClient.credentialChanges(5)).thenThrow(new FeignException.Gone("Gone", request, null, Map.of()));
+		when(employeeFeignClient.credentialSnapshot()).thenReturn(feed(42,
+				record("alice", "$2a$10$changed", 7, false), record("carol", "$2a$10$carol", 9, false),
+				record("dave", "$2a$10$dave", 10, false)));
+		snapshot.sync();
+
+		assertEquals(42, snapshot.getVersion());
+		assertEquals(3, snapshot.size());
+		assertEquals("$2a$10$changed", snapshot.find("alice").getPassword());
+		assertNull(snapshot.find("bob"));
+		assertEquals(List.of("alice", "bob"), changed.stream().sorted().toList());
+		assertEquals(0, snapshot.getSyncFailureCount());
+	}
+
+	@Test
+	void failedSyncsKeepServingUntilMaxStaleness() throws InterruptedException {
+		CredentialSnapshot snapshot = snapshot(Duration.ofMillis(200));
+		when(employeeFeignClient.credentialSnapshot()).thenReturn(feed(5, record("alice", "$2a$10$alice", 7, false)));
+		snapshot.sync();
+
+		when(employeeFeignClient.credentialChanges(5)).thenThrow(new IllegalStateException("connection refused"));
+		snapshot.sync();
+		assertEquals(1, snapshot.getSyncFailureCount());
+		assertTrue(snapshot.isCurrent());
+		assertEquals("$2a$10$alice", snapshot.find("alice").getPassword());
+
+		Thread.sleep(250);
+		snapshot.sync();
+		assertEquals(2, snapshot.getSyncFailureCount());
+		assertFalse(snapshot.isCurrent());
+		assertNull(snapshot.find("alice"));
+		assertTrue(snapshot.getStalenessMillis() >= 250);
+	}
+}
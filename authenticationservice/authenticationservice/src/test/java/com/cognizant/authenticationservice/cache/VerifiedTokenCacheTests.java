@@ -0,0 +1,93 @@
+package com.cognizant.authenticationservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class VerifiedTokenCacheTests {
+
+	private static VerifiedTokenCache cache(int maxSize, Duration ttl) {
+		return new VerifiedTokenCache(true, maxSize, ttl);
+	}
+
+	private static Authentication authentication(String username) {
+		return new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE")));
+	}
+
+	@Test
+	void cachedUntilInvalidatedAndCountsHitsAndMisses() {
+		VerifiedTokenCache cache = cache(100, Duration.ofMinutes(10));
+		Authentication alice = authentication("alice");
+		assertNull(cache.get("token-a"));
+
+		cache.put("token-a", alice, Long.MAX_VALUE);
+		assertSame(alice, cache.get("token-a"));
+		assertNull(cache.get("token-b"));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+
+		cache.invalidate("token-a");
+		assertNull(cache.get("token-a"));
+	}
+
+	@Test
+	void entryExpiresWithTheTokenOrTheTtlWhicheverComesFirst() throws InterruptedException {
+		VerifiedTokenCache cache = cache(100, Duration.ofMillis(100));
+		cache.put("short-ttl", authentication("alice"), Long.MAX_VALUE);
+		cache.put("short-token", authentication("bob"), System.currentTimeMillis() + 100);
+		// Already expired tokens are not cached at all
+		cache.put("expired", authentication("carol"), System.currentTimeMillis() - 1);
+		assertEquals(2, cache.size());
+
+		Thread.sleep(150);
+		assertNull(cache.get("short-ttl"));
+		assertNull(cache.get("short-token"));
+		assertEquals(2, cache.getExpirationCount());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void purgeUserRemovesOnlyThatUsersTokens() {
+		VerifiedTokenCache cache = cache(100, Duration.ofMinutes(10));
+		cache.put("a1", authentication("alice"), Long.MAX_VALUE);
+		cache.put("a2", authentication("alice"), Long.MAX_VALUE);
+		cache.put("b1", authentication("bob"), Long.MAX_VALUE);
+
+		assertEquals(2, cache.purgeUser("alice"));
+		assertNull(cache.get("a1"));
+		assertNull(cache.get("a2"));
+		assertEquals("bob", cache.get("b1").getName());
+	}
+
+	@Test
+	void overflowEvictsDownToTenPercentBelowTheBound() throws InterruptedException {
+		VerifiedTokenCache cache = cache(100, Duration.ofMinutes(10));
+		for (int i = 0; i <= 100; i++) {
+			cache.put("token-" + i, authentication("user" + i), Long.MAX_VALUE);
+		}
+		assertEquals(90, cache.size());
+		assertEquals(11, cache.getEvictionCount());
+
+		// Expired entries go before live ones
+		VerifiedTokenCache expiring = cache(10, Duration.ofMinutes(10));
+		for (int i = 0; i < 5; i++) {
+			expiring.put("old-" + i, authentication("old"), System.currentTimeMillis() + 50);
+		}
+		for (int i = 0; i < 5; i++) {
+			expiring.put("live-" + i, authentication("live"), Long.MAX_VALUE);
+		}
+		Thread.sleep(100);
+		expiring.put("live-5", authentication("live"), Long.MAX_VALUE);
+		assertEquals(6, expiring.size());
+		assertEquals(0, expiring.getEvictionCount());
+		assertEquals(5, expiring.getExpirationCount());
+	}
+}
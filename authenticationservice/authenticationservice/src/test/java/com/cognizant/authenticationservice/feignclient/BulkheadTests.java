@@ -0,0 +1,48 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class BulkheadTests {
+
+	@Test
+	void callBeyondTheLimitIsRejectedWithoutWaiting() {
+		Bulkhead bulkhead = new Bulkhead("register", 2, Duration.ZERO);
+		bulkhead.acquire();
+		bulkhead.acquire();
+		assertEquals(2, bulkhead.getActiveCalls());
+
+		EmployeeServiceUnavailableException e = assertThrows(EmployeeServiceUnavailableException.class, bulkhead::acquire);
+		assertTrue(e.getMessage().contains("register"));
+		assertEquals(1, bulkhead.getRejectedCount());
+
+		bulkhead.release();
+		bulkhead.acquire();
+		assertEquals(2, bulkhead.getActiveCalls());
+	}
+
+	@Test
+	void callWaitsUpToMaxWaitForAPermit() throws Exception {
+		Bulkhead bulkhead = new Bulkhead("findByUsername", 1, Duration.ofSeconds(5));
+		bulkhead.acquire();
+
+		CompletableFuture<Void> waiting = CompletableFuture.runAsync(bulkhead::acquire);
+		Thread.sleep(50);
+		assertFalse(waiting.isDone());
+		bulkhead.release();
+		waiting.get(5, TimeUnit.SECONDS);
+		assertEquals(0, bulkhead.getRejectedCount());
+
+		Bulkhead impatient = new Bulkhead("findByUsername", 1, Duration.ofMillis(50));
+		impatient.acquire();
+		assertThrows(EmployeeServiceUnavailableException.class, impatient::acquire);
+	}
+}
@@ -0,0 +1,110 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTests {
+
+	private static CircuitBreaker breaker(Duration openDuration) {
+		EmployeeClientProperties.CircuitBreakerSettings settings = new EmployeeClientProperties.CircuitBreakerSettings();
+		settings.setFailureRateThreshold(0.5);
+		settings.setSlidingWindowSize(4);
+		settings.setMinimumCalls(4);
+		settings.setOpenDuration(openDuration);
+		settings.setHalfOpenCalls(2);
+		return new CircuitBreaker(settings);
+	}
+
+	private static void call(CircuitBreaker breaker, boolean failed) {
+		breaker.record(breaker.acquire(), failed);
+	}
+
+	private static void open(CircuitBreaker breaker) {
+		call(breaker, false);
+		call(breaker, false);
+		call(breaker, true);
+		call(breaker, true);
+	}
+
+	@Test
+	void opensAtTheFailureRateOnceEnoughCallsWereMade() {
+		CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+		call(breaker, true);
+		call(breaker, true);
+		call(breaker, true);
+		// Three failures out of three, but fewer than minimum-calls
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		call(breaker, false);
+		// The oldest failure drops out of the window: 2 of 4
+		call(breaker, false);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		call(breaker, true);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+		EmployeeServiceUnavailableException e = assertThrows(EmployeeServiceUnavailableException.class, breaker::acquire);
+		assertTrue(e.getRetryAfter().compareTo(Duration.ofMinutes(1)) <= 0);
+		assertEquals(1, breaker.getRejectedCount());
+		assertEquals(1, breaker.getOpenedCount());
+	}
+
+	@Test
+	void closesAfterEveryHalfOpenTrialSucceeds() throws InterruptedException {
+		CircuitBreaker breaker = breaker(Duration.ofMillis(50));
+		open(breaker);
+		Thread.sleep(80);
+
+		long first = breaker.acquire();
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		long second = breaker.acquire();
+		// Only half-open-calls trials are let through
+		assertThrows(EmployeeServiceUnavailableException.class, breaker::acquire);
+
+		breaker.record(first, false);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		breaker.record(second, false);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		// A fresh window: one failure does not reopen it
+		call(breaker, true);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void reopensAtTheFirstFailedTrial() throws InterruptedException {
+		CircuitBreaker breaker = breaker(Duration.ofMillis(50));
+		open(breaker);
+		Thread.sleep(80);
+
+		long trial = breaker.acquire();
+		long other = breaker.acquire();
+		breaker.record(trial, true);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertEquals(2, breaker.getOpenedCount());
+
+		// The other trial was granted before the breaker reopened, so its success cannot close it
+		breaker.record(other, false);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	void lateResultsOfAnEarlierStateAreIgnored() throws InterruptedException {
+		CircuitBreaker breaker = breaker(Duration.ofMillis(50));
+		long slowCall = breaker.acquire();
+		open(breaker);
+		Thread.sleep(80);
+		long trial = breaker.acquire();
+
+		// The slow call sent while closed fails only now, during the trial
+		breaker.record(slowCall, true);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+		breaker.record(trial, false);
+		call(breaker, false);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+}
@@ -0,0 +1,75 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class HedgingPolicyTests {
+
+	private static HedgingPolicy policy(Duration minDelay, double maxRatio) {
+		EmployeeClientProperties.HedgingSettings settings = new EmployeeClientProperties.HedgingSettings();
+		settings.setPercentile(0.95);
+		settings.setMinDelay(minDelay);
+		settings.setMaxRatio(maxRatio);
+		return new HedgingPolicy(settings);
+	}
+
+	@Test
+	void delayIsThePercentileOfTheLastCallsOnceTheRingIsFull() {
+		HedgingPolicy policy = policy(Duration.ofNanos(1), 0.1);
+		for (int i = 1; i < 128; i++) {
+			policy.recordLatency(i * 1000L);
+		}
+		// A cold client is not hedged
+		assertEquals(-1, policy.getDelayNanos());
+
+		policy.recordLatency(128 * 1000L);
+		// ceil(0.95 * 128) = 122nd fastest
+		assertEquals(122 * 1000L, policy.getDelayNanos());
+
+		// New samples replace the oldest, and the delay follows after the next 16
+		for (int i = 0; i < 16; i++) {
+			policy.recordLatency(1_000_000L);
+		}
+		assertEquals(1_000_000L, policy.getDelayNanos());
+	}
+
+	@Test
+	void delayIsNeverBelowTheMinimum() {
+		HedgingPolicy policy = policy(Duration.ofMillis(20), 0.1);
+		for (int i = 0; i < 128; i++) {
+			policy.recordLatency(1000L);
+		}
+		assertEquals(Duration.ofMillis(20).toNanos(), policy.getDelayNanos());
+	}
+
+	@Test
+	void hedgesAreLimitedToTheBudgetEarnedByCalls() {
+		HedgingPolicy policy = policy(Duration.ofMillis(20), 0.1);
+		assertFalse(policy.tryAcquireHedge());
+
+		for (int i = 0; i < 9; i++) {
+			policy.onCall();
+		}
+		assertFalse(policy.tryAcquireHedge());
+		policy.onCall();
+		// Ten calls at a ratio of 0.1 are worth one hedge
+		assertTrue(policy.tryAcquireHedge());
+		assertFalse(policy.tryAcquireHedge());
+
+		// At most ten hedges can be saved up, however many calls went by
+		for (int i = 0; i < 1000; i++) {
+			policy.onCall();
+		}
+		int hedges = 0;
+		while (policy.tryAcquireHedge()) {
+			hedges++;
+		}
+		assertEquals(10, hedges);
+		assertEquals(11, policy.getSentCount());
+	}
+}
@@ -0,0 +1,194 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResilienceCapabilityTests {
+
+	private static final Map<String, MethodMetadata> METADATA = new SpringMvcContract()
+			.parseAndValidateMetadata(EmployeeFeignClient.class).stream()
+			.collect(Collectors.toMap(metadata -> metadata.method().getName(), metadata -> metadata));
+
+	private final EmployeeClientProperties properties = new EmployeeClientProperties();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private ResilienceCapability capability;
+
+	// Every request that reached the network, the status they answer with, and how long the next one takes
+	private final List<Request> sent = new CopyOnWriteArrayList<>();
+	private final AtomicInteger status = new AtomicInteger(200);
+	private final AtomicLong nextDelayMillis = new AtomicLong();
+
+	private final Client network = (request, options) -> {
+		sent.add(request);
+		long delayMillis = nextDelayMillis.getAndSet(0);
+		if (delayMillis > 0) {
+			try {
+				Thread.sleep(delayMillis);
+			} catch (InterruptedException e) {
+				throw new IOException("Cancelled");
+			}
+		}
+		return Response.builder().request(request).status(status.get()).headers(Map.of()).body(new byte[0]).build();
+	};
+
+	private EmployeeClientProperties.MethodSettings method(String name) {
+		return properties.getMethods().computeIfAbsent(name, key -> new EmployeeClientProperties.MethodSettings());
+	}
+
+	private Client client(Client network) {
+		capability = new ResilienceCapability(properties, registry);
+		return capability.enrich(network);
+	}
+
+	private static Response call(Client client, String method) throws IOException {
+		MethodMetadata metadata = METADATA.get(method);
+		return client.execute(Request.create(Request.HttpMethod.valueOf(metadata.template().method()),
+				"http://employeemanagement" + metadata.template().path(), Map.of(), null, null, metadata.template()),
+				new Request.Options());
+	}
+
+	private double hedges(String method, String result) {
+		return registry.get("auth.employee.hedge.requests").tag("method", method).tag("result", result)
+				.functionCounter().count();
+	}
+
+	@AfterEach
+	void shutdown() {
+		if (capability != null) {
+			capability.shutdown();
+		}
+	}
+
+	@Test
+	void failedCallReleasesItsBulkheadPermit() throws IOException {
+		method("register").setMaxConcurrentCalls(1);
+		properties.getCircuitBreaker().setEnabled(false);
+		AtomicBoolean fail = new AtomicBoolean(true);
+		Client client = client((request, options) -> {
+			if (fail.get()) {
+				throw new IOException("Connection refused");
+			}
+			return network.execute(request, options);
+		});
+
+		for (int i = 0; i < 3; i++) {
+			assertThrows(IOException.class, () -> call(client, "register"));
+		}
+		fail.set(false);
+		assertEquals(200, call(client, "register").status());
+		assertEquals(0, registry.get("auth.employee.bulkhead.active").tag("method", "register").gauge().value());
+		assertEquals(0, registry.get("auth.employee.bulkhead.rejected").tag("method", "register").functionCounter().count());
+	}
+
+	@Test
+	void serverErrorsOpenTheBreakerButClientErrorsDoNot() throws IOException {
+		properties.getCircuitBreaker().setMinimumCalls(4);
+		properties.getCircuitBreaker().setSlidingWindowSize(4);
+		Client client = client(network);
+
+		status.set(404);
+		for (int i = 0; i < 8; i++) {
+			call(client, "findByUsername");
+		}
+		assertEquals(1, registry.get("auth.employee.circuit.state").tag("state", "closed").gauge().value());
+		status.set(503);
+		// Half of the window
+		call(client, "findByUsername");
+		call(client, "findByUsername");
+		int reached = sent.size();
+		assertThrows(EmployeeServiceUnavailableException.class, () -> call(client, "findByUsername"));
+		assertEquals(reached, sent.size());
+		assertEquals(1, registry.get("auth.employee.circuit.state").tag("state", "open").gauge().value());
+	}
+
+	@Test
+	void unguardedCallsNeitherCountTowardsNorAreRefusedByTheBreaker() throws Exception {
+		properties.getCircuitBreaker().setMinimumCalls(2);
+		properties.getCircuitBreaker().setSlidingWindowSize(2);
+		Client client = client(network);
+
+		status.set(503);
+		for (int i = 0; i < 5; i++) {
+			ResilienceCapability.unguarded(() -> call(client, "findByUsername"));
+		}
+		assertEquals(1, registry.get("auth.employee.circuit.state").tag("state", "closed").gauge().value());
+
+		call(client, "findByUsername");
+		call(client, "findByUsername");
+		assertThrows(EmployeeServiceUnavailableException.class, () -> call(client, "findByUsername"));
+		assertEquals(503, ResilienceCapability.unguarded(() -> call(client, "findByUsername")).status());
+	}
+
+	@Test
+	void slowLookupIsHedgedWithTheSameHedgeId() throws IOException {
+		method("findByUsername").setHedge(true);
+		properties.getHedging().setMinDelay(Duration.ofMillis(20));
+		Client client = client(network);
+		// Until the latency ring is full there is no delay to hedge after
+		for (int i = 0; i < 128; i++) {
+			call(client, "findByUsername");
+		}
+		assertEquals(128, sent.size());
+		assertTrue(sent.stream().allMatch(request -> !request.headers().containsKey(ResilienceCapability.HEDGE_ID_HEADER)));
+
+		nextDelayMillis.set(5000);
+		long start = System.nanoTime();
+		assertEquals(200, call(client, "findByUsername").status());
+
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+		assertEquals(130, sent.size());
+		assertEquals(sent.get(128).headers().get(ResilienceCapability.HEDGE_ID_HEADER),
+				sent.get(129).headers().get(ResilienceCapability.HEDGE_ID_HEADER));
+		assertEquals(1, hedges("findByUsername", "sent"));
+		// The winning attempt counts itself just after handing over its response
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (hedges("findByUsername", "won") == 0 && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertEquals(1, hedges("findByUsername", "won"));
+	}
+
+	@Test
+	void writesAreNotHedgedEvenWhenConfiguredTo() throws IOException {
+		method("registerAll").setHedge(true);
+		method("updatePassword").setHedge(true);
+		Client client = client(network);
+		for (int i = 0; i < 128; i++) {
+			call(client, "registerAll");
+		}
+		call(client, "updatePassword");
+
+		nextDelayMillis.set(300);
+		long start = System.nanoTime();
+		call(client, "registerAll");
+
+		// The slow attempt was the only one, and it was waited for well past the 20 ms hedging delay
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+		assertEquals(130, sent.size());
+		assertTrue(sent.stream().allMatch(request -> !request.headers().containsKey(ResilienceCapability.HEDGE_ID_HEADER)));
+		assertNull(registry.find("auth.employee.hedge.requests").functionCounter());
+	}
+}
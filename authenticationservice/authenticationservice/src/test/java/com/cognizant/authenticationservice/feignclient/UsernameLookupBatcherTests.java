@@ -0,0 +1,128 @@
+package com.cognizant.authenticationservice.feignclient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import com.cognizant.authenticationservice.dto.EmployeeDto;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UsernameLookupBatcherTests {
+
+	private final EmployeeFeignClient employeeFeignClient = mock(EmployeeFeignClient.class);
+	private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+
+	private UsernameLookupBatcher batcher(Duration window, int maxSize) {
+		return new UsernameLookupBatcher(true, window, maxSize, employeeFeignClient, new SimpleMeterRegistry());
+	}
+
+	// Answers with an employee for every requested username that does not start with "ghost"
+	private void answerKnownUsers() {
+		when(employeeFeignClient.findAllByUsername(anyList())).thenAnswer(invocation -> {
+			List<String> usernames = invocation.getArgument(0);
+			calls.add(usernames);
+			List<EmployeeDto> found = new ArrayList<>();
+			for (String username : usernames) {
+				if (!username.startsWith("ghost")) {
+					EmployeeDto employee = new EmployeeDto();
+					employee.setUsername(username);
+					found.add(employee);
+				}
+			}
+			return ResponseEntity.ok(found);
+		});
+	}
+
+	private static List<Future<EmployeeDto>> findAll(ExecutorService pool, UsernameLookupBatcher batcher,
+			String... usernames) {
+		List<Future<EmployeeDto>> results = new ArrayList<>();
+		for (String username : usernames) {
+			results.add(pool.submit(() -> batcher.find(username)));
+		}
+		return results;
+	}
+
+	@Test
+	void lookupsWithinTheWindowShareOneCall() throws Exception {
+		answerKnownUsers();
+		UsernameLookupBatcher batcher = batcher(Duration.ofMillis(500), 50);
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<EmployeeDto>> results = findAll(pool, batcher, "alice", "bob", "alice", "ghost");
+			assertEquals("alice", results.get(0).get(5, TimeUnit.SECONDS).getUsername());
+			assertEquals("bob", results.get(1).get(5, TimeUnit.SECONDS).getUsername());
+			// The same username within a batch is looked up once and shares the result
+			assertSame(results.get(0).get(), results.get(2).get());
+			assertNull(results.get(3).get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, calls.size());
+		assertEquals(List.of("alice", "bob", "ghost"), calls.get(0).stream().sorted().toList());
+	}
+
+	@Test
+	void fullBatchIsSentWithoutWaitingForTheWindow() throws Exception {
+		answerKnownUsers();
+		UsernameLookupBatcher batcher = batcher(Duration.ofMinutes(1), 2);
+		long start = System.nanoTime();
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<EmployeeDto>> results = findAll(pool, batcher, "alice", "bob");
+			assertEquals("alice", results.get(0).get(5, TimeUnit.SECONDS).getUsername());
+			assertEquals("bob", results.get(1).get(5, TimeUnit.SECONDS).getUsername());
+		}
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+		assertEquals(1, calls.size());
+
+		// A lone lookup is sent when its window ends
+		UsernameLookupBatcher single = batcher(Duration.ofMillis(20), 50);
+		assertEquals("carol", single.find("carol").getUsername());
+		assertEquals(List.of("carol"), calls.get(1));
+	}
+
+	@Test
+	void failedCallFailsEveryWaiterWithTheSameException() throws Exception {
+		EmployeeServiceUnavailableException unavailable = new EmployeeServiceUnavailableException("Circuit open",
+				Duration.ofSeconds(5));
+		when(employeeFeignClient.findAllByUsername(anyList())).thenThrow(unavailable);
+		UsernameLookupBatcher batcher = batcher(Duration.ofMillis(500), 50);
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (Future<EmployeeDto> result : findAll(pool, batcher, "alice", "bob", "ghost")) {
+				ExecutionException failure = assertThrows(ExecutionException.class,
+						() -> result.get(5, TimeUnit.SECONDS));
+				assertSame(unavailable, failure.getCause());
+			}
+		}
+	}
+
+	@Test
+	void missingBatchEndpointIsNotReadAsUnknownUsers() {
+		Request request = Request.create(Request.HttpMethod.POST, "/api/employee/employees-by-username", Map.of(),
+				null, null, null);
+		when(employeeFeignClient.findAllByUsername(anyList()))
+				.thenThrow(new FeignException.NotFound("Not Found", request, null, Map.of()));
+		UsernameLookupBatcher batcher = batcher(Duration.ofMillis(1), 50);
+		IllegalStateException failure = assertThrows(IllegalStateException.class,
+				() -> batcher.find("alice"));
+		assertTrue(failure.getCause() instanceof FeignException.NotFound);
+	}
+}
@@ -0,0 +1,42 @@
+package com.cognizant.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTests {
+
+	@Test
+	void sizedForTheTargetRate() {
+		BloomFilter filter = new BloomFilter(100_000, 0.01);
+		// About 9.6 bits and 7 hashes per key for 1%
+		assertTrue(filter.getBitCount() >= 958_506 && filter.getBitCount() < 958_506 + 64, () -> "" + filter.getBitCount());
+		assertEquals(7, filter.getHashCount());
+	}
+
+	@Test
+	void addedKeysAreAlwaysFoundAndOthersRarely() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		SplittableRandom random = new SplittableRandom(42);
+		long[][] keys = new long[10_000][];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new long[] { random.nextLong(), random.nextLong() };
+			filter.add(keys[i][0], keys[i][1]);
+		}
+		for (long[] key : keys) {
+			assertTrue(filter.mightContain(key[0], key[1]));
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain(random.nextLong(), random.nextLong())) {
+				falsePositives++;
+			}
+		}
+		// 1% expected at the sized key count; allow for sampling noise
+		assertTrue(falsePositives < 1_500, "false positives: " + falsePositives);
+	}
+}
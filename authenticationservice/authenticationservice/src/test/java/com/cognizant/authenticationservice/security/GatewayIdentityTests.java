@@ -0,0 +1,57 @@
+package com.cognizant.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.cognizant.authenticationservice.util.VerifiedToken;
+
+class GatewayIdentityTests {
+
+	// The gateway's IdentityHeadersTests signs the same identity to the same value, so a change to the
+	// canonical form on one side only fails a build
+	private static final String SHARED_SECRET = "shared-identity-secret";
+	private static final String SHARED_SIGNATURE = "uaXtYAVZSrVJzXaywuRJvMxeb482F5C083JbwLpeGlI";
+
+	private final GatewayIdentity gatewayIdentity = new GatewayIdentity(SHARED_SECRET);
+
+	private static MockHttpServletRequest request(String signature) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(GatewayIdentity.TOKEN_ID, "5f0c2a7e-1b3d-4c8e-9a61-0d2f4b7e8c13");
+		request.addHeader(GatewayIdentity.USERNAME, "alice");
+		request.addHeader(GatewayIdentity.ROLE, "ROLE_MANAGER");
+		request.addHeader(GatewayIdentity.EMPLOYEE_ID, "42");
+		request.addHeader(GatewayIdentity.MANAGER_ID, "7");
+		request.addHeader(GatewayIdentity.CREDENTIAL_VERSION, "3");
+		request.addHeader(GatewayIdentity.EXPIRES, "4102444800000");
+		request.addHeader(GatewayIdentity.SIGNATURE, signature);
+		return request;
+	}
+
+	@Test
+	void headersSignedByTheGatewayAreTrusted() {
+		VerifiedToken token = gatewayIdentity.resolve(request(SHARED_SIGNATURE));
+
+		assertNotNull(token);
+		assertEquals("alice", token.getSubject());
+		assertEquals("ROLE_MANAGER", token.getRole());
+		assertEquals(Integer.valueOf(42), token.getEmployeeId());
+		assertEquals(Integer.valueOf(7), token.getManagerId());
+		assertEquals("3", token.getCredentialVersion());
+		assertEquals(4102444800000L, token.getExpiresAtMillis());
+	}
+
+	@Test
+	void alteredOrUnsignedHeadersAreIgnored() {
+		MockHttpServletRequest altered = request(SHARED_SIGNATURE);
+		altered.removeHeader(GatewayIdentity.ROLE);
+		altered.addHeader(GatewayIdentity.ROLE, "ROLE_ADMIN");
+		assertNull(gatewayIdentity.resolve(altered));
+
+		assertNull(new GatewayIdentity("another-secret").resolve(request(SHARED_SIGNATURE)));
+		assertNull(new GatewayIdentity("").resolve(request(SHARED_SIGNATURE)));
+	}
+}
@@ -0,0 +1,70 @@
+package com.cognizant.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginThrottleTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private LoginThrottle throttle(int userBurst, Duration userRefill, int ipBurst, Duration ipRefill, int maxKeys) {
+		return new LoginThrottle(true, userBurst, userRefill, ipBurst, ipRefill, maxKeys, registry);
+	}
+
+	@Test
+	void burstIsAllowedThenTheWaitIsOneRefillPeriod() {
+		LoginThrottle throttle = throttle(3, Duration.ofHours(1), 100, Duration.ofMillis(1), 100);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(Duration.ZERO, throttle.tryAcquire("alice", null));
+		}
+		Duration wait = throttle.tryAcquire("alice", null);
+		assertTrue(wait.compareTo(Duration.ofMinutes(59)) > 0 && wait.compareTo(Duration.ofHours(1)) <= 0, wait::toString);
+
+		// Other usernames have buckets of their own
+		assertEquals(Duration.ZERO, throttle.tryAcquire("bob", null));
+		assertEquals(1.0, registry.get("auth.login.throttled").tag("key", "username").counter().count());
+	}
+
+	@Test
+	void addressBucketIsCheckedFirstAndSpansUsernames() {
+		LoginThrottle throttle = throttle(100, Duration.ofMillis(1), 2, Duration.ofHours(1), 100);
+		assertEquals(Duration.ZERO, throttle.tryAcquire("a", "10.0.0.1"));
+		assertEquals(Duration.ZERO, throttle.tryAcquire("b", "10.0.0.1"));
+		assertTrue(throttle.tryAcquire("c", "10.0.0.1").compareTo(Duration.ZERO) > 0);
+		// The rejected attempt never reached the username bucket
+		assertEquals(2, throttle.getTrackedUsernames());
+		assertEquals(Duration.ZERO, throttle.tryAcquire("c", "10.0.0.2"));
+	}
+
+	@Test
+	void sweepDropsOnlyFullBuckets() throws InterruptedException {
+		LoginThrottle throttle = throttle(1, Duration.ofMillis(1), 1, Duration.ofHours(1), 100);
+		throttle.tryAcquire("alice", "10.0.0.1");
+		Thread.sleep(20);
+		throttle.sweep();
+		// The username bucket refilled within a millisecond; the address bucket takes an hour
+		assertEquals(0, throttle.getTrackedUsernames());
+		assertEquals(1, throttle.getTrackedAddresses());
+	}
+
+	@Test
+	void newKeysBeyondMaxKeysShareOneOverflowBucket() {
+		LoginThrottle throttle = throttle(1, Duration.ofHours(1), 100, Duration.ofMillis(1), 2);
+		assertEquals(Duration.ZERO, throttle.tryAcquire("a", null));
+		assertEquals(Duration.ZERO, throttle.tryAcquire("b", null));
+
+		// Nothing to sweep: "c" gets the single overflow token, and every later new username is throttled
+		assertEquals(Duration.ZERO, throttle.tryAcquire("c", null));
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(throttle.tryAcquire("spray-" + i, null).compareTo(Duration.ZERO) > 0);
+		}
+		assertEquals(2, throttle.getTrackedUsernames());
+		assertEquals(1001.0, registry.get("auth.login.throttle.overflow").tag("key", "username").counter().count());
+	}
+}
@@ -0,0 +1,121 @@
+package com.cognizant.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.Authentication;
+
+import com.cognizant.authenticationservice.EmployeeUserDetails;
+
+class OpaqueTokenStoreTests {
+
+	private final RefreshTokenStore.Grant alice = new RefreshTokenStore.Grant("alice", "ROLE_EMPLOYEE", 7, 1, "v1");
+	private final RefreshTokenStore.Grant bob = new RefreshTokenStore.Grant("bob", "ROLE_MANAGER", 1, 1, "v1");
+
+	private static OpaqueTokenStore store(Duration idleTtl, Duration maxLifetime, int maxSessions, int stripes,
+			String snapshotPath) {
+		return new OpaqueTokenStore(true, idleTtl, maxLifetime, maxSessions, stripes, snapshotPath);
+	}
+
+	@Test
+	void tokenResolvesToThePrincipalOfTheLoginUntilRevoked() {
+		OpaqueTokenStore store = store(Duration.ofMinutes(30), Duration.ofHours(12), 100, 4, "");
+		String token = store.issue(alice);
+		assertEquals(22, token.length());
+		assertTrue(OpaqueTokenStore.isOpaque(token));
+
+		Authentication authentication = store.resolve(token);
+		EmployeeUserDetails principal = (EmployeeUserDetails) authentication.getPrincipal();
+		assertEquals("alice", principal.getUsername());
+		assertEquals(7, principal.getEmployeeId());
+		assertEquals("ROLE_EMPLOYEE", authentication.getAuthorities().iterator().next().getAuthority());
+
+		assertEquals("alice", store.revoke(token));
+		assertNull(store.resolve(token));
+		assertNull(store.revoke(token));
+		assertNull(store.resolve("AAAAAAAAAAAAAAAAAAAAAA"));
+		assertNull(new OpaqueTokenStore(false, Duration.ofMinutes(30), Duration.ofHours(12), 100, 4, "").issue(alice));
+	}
+
+	@Test
+	void useExtendsTheSessionUpToTheMaxLifetime() throws InterruptedException {
+		OpaqueTokenStore store = store(Duration.ofMillis(500), Duration.ofMinutes(1), 100, 1, "");
+		String token = store.issue(alice);
+		Thread.sleep(300);
+		assertNotNull(store.resolve(token));
+		Thread.sleep(300);
+		// Idle for 300 ms only, though issued 600 ms ago
+		assertNotNull(store.resolve(token));
+		Thread.sleep(600);
+		assertNull(store.resolve(token));
+		assertEquals(0, store.size());
+
+		OpaqueTokenStore capped = store(Duration.ofMinutes(1), Duration.ofMillis(300), 100, 1, "");
+		String capping = capped.issue(alice);
+		assertNotNull(capped.resolve(capping));
+		Thread.sleep(400);
+		assertNull(capped.resolve(capping));
+	}
+
+	@Test
+	void sessionUnusedForLongestIsEvictedBeyondTheBound() {
+		OpaqueTokenStore store = store(Duration.ofMinutes(30), Duration.ofHours(12), 2, 1, "");
+		String first = store.issue(alice);
+		String second = store.issue(bob);
+		assertNotNull(store.resolve(first));
+
+		String third = store.issue(alice);
+		assertEquals(2, store.size());
+		assertNull(store.resolve(second));
+		assertNotNull(store.resolve(first));
+		assertNotNull(store.resolve(third));
+	}
+
+	@Test
+	void revokeUserEndsEverySessionOfThatUserOnly() {
+		OpaqueTokenStore store = store(Duration.ofMinutes(30), Duration.ofHours(12), 100, 4, "");
+		String first = store.issue(alice);
+		String second = store.issue(alice);
+		String other = store.issue(bob);
+
+		store.revokeUser("alice");
+		assertNull(store.resolve(first));
+		assertNull(store.resolve(second));
+		assertNotNull(store.resolve(other));
+
+		// Sessions issued afterwards are not affected
+		assertNotNull(store.resolve(store.issue(alice)));
+	}
+
+	@Test
+	void snapshotRestoresSessionsWithoutStoringTokens(@TempDir Path directory) throws Exception {
+		String path = directory.resolve("opaque-sessions.bin").toString();
+		OpaqueTokenStore store = store(Duration.ofMinutes(30), Duration.ofHours(12), 100, 4, path);
+		String token = store.issue(alice);
+		String revoked = store.issue(bob);
+		store.revoke(revoked);
+		store.snapshot();
+
+		assertFalse(new String(Files.readAllBytes(Path.of(path)), StandardCharsets.ISO_8859_1).contains(token));
+
+		OpaqueTokenStore restarted = store(Duration.ofMinutes(30), Duration.ofHours(12), 100, 4, path);
+		restarted.restore();
+		assertEquals(1, restarted.size());
+		assertEquals("alice", restarted.resolve(token).getName());
+		assertNull(restarted.resolve(revoked));
+
+		// The restored session is indexed by user like a new one
+		restarted.revokeUser("alice");
+		assertNull(restarted.resolve(token));
+	}
+}
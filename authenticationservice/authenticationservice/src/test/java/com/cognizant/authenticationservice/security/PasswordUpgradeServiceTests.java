@@ -0,0 +1,120 @@
+package com.cognizant.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.cognizant.authenticationservice.EmployeeUserDetails;
+import com.cognizant.authenticationservice.SecurityConfig;
+import com.cognizant.authenticationservice.cache.CachingUserDetailsService;
+import com.cognizant.authenticationservice.cache.CredentialSnapshot;
+import com.cognizant.authenticationservice.cache.VerifiedTokenCache;
+import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+import com.cognizant.authenticationservice.util.JwtKeyRing;
+import com.cognizant.authenticationservice.util.JwtUtil;
+import com.cognizant.authenticationservice.util.VerifiedToken;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordUpgradeServiceTests {
+
+	private static final String PASSWORD = "Secret123";
+	private static final int CALIBRATED_STRENGTH = 5;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(1, 16,
+			Duration.ofSeconds(5), Duration.ofSeconds(1), registry);
+	// Same encoder as production, with the calibrated strength fixed
+	private final PasswordEncoder passwordEncoder = new SecurityConfig().passwordEncoder(passwordHashingExecutor,
+			registry, CALIBRATED_STRENGTH, Duration.ofMillis(100), 4, 14);
+	private final EmployeeFeignClient employeeFeignClient = mock(EmployeeFeignClient.class);
+	// The hash the employee service has on record
+	private final AtomicReference<String> storedHash = new AtomicReference<>();
+	private final CachingUserDetailsService userDetailsService = new CachingUserDetailsService(
+			username -> new EmployeeUserDetails(username, storedHash.get(),
+					List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE")), 7, 1),
+			Duration.ofMinutes(1), Duration.ofSeconds(10), 100);
+	private final DaoAuthenticationProvider provider = new SecurityConfig().authenticationProvider(userDetailsService,
+			passwordEncoder, new PasswordUpgradeService(employeeFeignClient, userDetailsService,
+					new VerifiedTokenCache(true, 100, Duration.ofMinutes(10)),
+					new CredentialSnapshot(false, Duration.ofMinutes(10), employeeFeignClient)));
+
+	PasswordUpgradeServiceTests() {
+		when(employeeFeignClient.updatePassword(anyString(), anyString())).thenAnswer(invocation -> {
+			storedHash.set(invocation.getArgument(1));
+			return ResponseEntity.noContent().build();
+		});
+	}
+
+	private EmployeeUserDetails login() {
+		return (EmployeeUserDetails) provider.authenticate(new UsernamePasswordAuthenticationToken("alice", PASSWORD))
+				.getPrincipal();
+	}
+
+	@AfterEach
+	void shutdown() {
+		passwordHashingExecutor.shutdown();
+	}
+
+	@Test
+	void hashBelowTheCalibratedStrengthIsUpgradedAtLogin() {
+		String weakHash = "{bcrypt}" + BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4));
+		storedHash.set(weakHash);
+
+		EmployeeUserDetails principal = login();
+
+		verify(employeeFeignClient).updatePassword(eq("alice"), anyString());
+		String upgraded = storedHash.get();
+		assertTrue(upgraded.startsWith("{bcrypt}$2a$05$"), upgraded);
+		assertTrue(passwordEncoder.matches(PASSWORD, upgraded));
+		assertEquals(upgraded, principal.getPassword());
+		// A later login finds the new hash, not a cached principal of the old one
+		assertEquals(upgraded, login().getPassword());
+		verify(employeeFeignClient).updatePassword(eq("alice"), anyString());
+
+		// The token issued for this login is bound to the new hash
+		JwtUtil jwtUtil = new JwtUtil((JwtKeyRing) null, registry);
+		VerifiedToken token = jwtUtil.verify(jwtUtil.generateToken("alice", "ROLE_EMPLOYEE", principal.getEmployeeId(),
+				principal.getManagerId(), principal.getCredentialVersion()));
+		assertEquals(EmployeeUserDetails.credentialVersionOf(upgraded), token.getCredentialVersion());
+		assertNotEquals(EmployeeUserDetails.credentialVersionOf(weakHash), token.getCredentialVersion());
+	}
+
+	@Test
+	void hashAtTheCalibratedStrengthIsKept() {
+		String hash = "{bcrypt}" + BCrypt.hashpw(PASSWORD, BCrypt.gensalt(CALIBRATED_STRENGTH));
+		storedHash.set(hash);
+
+		assertEquals(hash, login().getPassword());
+		verify(employeeFeignClient, never()).updatePassword(anyString(), anyString());
+		assertEquals(hash, storedHash.get());
+	}
+
+	@Test
+	void legacyUnprefixedHashIsNotRewrittenForItsPrefixAlone() {
+		String legacyHash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(CALIBRATED_STRENGTH));
+		storedHash.set(legacyHash);
+
+		assertEquals(legacyHash, login().getPassword());
+		verify(employeeFeignClient, never()).updatePassword(anyString(), anyString());
+	}
+}
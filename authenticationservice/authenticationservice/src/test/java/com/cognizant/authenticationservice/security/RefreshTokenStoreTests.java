@@ -0,0 +1,87 @@
+package com.cognizant.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RefreshTokenStoreTests {
+
+	private final RefreshTokenStore.Grant alice = new RefreshTokenStore.Grant("alice", "ROLE_EMPLOYEE", 7, 1, "v1");
+
+	private static RefreshTokenStore store(Duration ttl, String snapshotPath) {
+		return new RefreshTokenStore(true, ttl, 100000, snapshotPath);
+	}
+
+	@Test
+	void rotationReplacesTheTokenAndReuseRevokesTheChain() {
+		RefreshTokenStore store = store(Duration.ofDays(7), "");
+		String first = store.issue(alice);
+
+		RefreshTokenStore.Rotation rotation = store.rotate(first);
+		assertNotNull(rotation);
+		assertEquals("alice", rotation.getGrant().getUsername());
+		assertNotEquals(first, rotation.getRefreshToken());
+
+		// The redeemed token comes back, so it was copied: the whole chain goes, current token included
+		assertNull(store.rotate(first));
+		assertNull(store.rotate(rotation.getRefreshToken()));
+	}
+
+	@Test
+	void peekDoesNotRedeem() {
+		RefreshTokenStore store = store(Duration.ofDays(7), "");
+		String token = store.issue(alice);
+
+		assertEquals("v1", store.peek(token).getCredentialVersion());
+		assertNotNull(store.peek(token));
+		assertNotNull(store.rotate(token));
+		assertNull(store.peek(token));
+		assertNull(store.peek("not-a-token"));
+	}
+
+	@Test
+	void expiredAndRevokedChainsAreRefused() {
+		RefreshTokenStore store = store(Duration.ofDays(7), "");
+		String other = store.issue(new RefreshTokenStore.Grant("bob", "ROLE_MANAGER", 2, 0, "v2"));
+		String first = store.issue(alice);
+		String second = store.issue(alice);
+
+		store.revokeUser("alice");
+		assertNull(store.rotate(first));
+		assertNull(store.rotate(second));
+		assertNotNull(store.rotate(other));
+
+		RefreshTokenStore expiring = store(Duration.ZERO, "");
+		assertNull(expiring.rotate(expiring.issue(alice)));
+	}
+
+	@Test
+	void snapshotRoundTripKeepsChainsButNoTokens(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("refresh.bin");
+		RefreshTokenStore store = store(Duration.ofDays(7), file.toString());
+		String kept = store.issue(alice);
+		String revoked = store.issue(alice);
+		store.revoke(revoked);
+		store.snapshot();
+
+		assertFalse(new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1).contains(kept));
+
+		RefreshTokenStore restored = store(Duration.ofDays(7), file.toString());
+		restored.restore();
+		assertNull(restored.rotate(revoked));
+		RefreshTokenStore.Rotation rotation = restored.rotate(kept);
+		assertNotNull(rotation);
+		assertEquals(7, rotation.getGrant().getEmployeeId());
+		assertEquals("v1", rotation.getGrant().getCredentialVersion());
+	}
+}
@@ -0,0 +1,71 @@
+package com.cognizant.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationListTests {
+
+	private static TokenRevocationList list(int expectedEntries, double falsePositiveRate) {
+		return new TokenRevocationList(expectedEntries, falsePositiveRate);
+	}
+
+	@Test
+	void revokedIdsAreFoundAndOthersAreNot() {
+		TokenRevocationList list = list(1000, 0.01);
+		assertFalse(list.isRevoked("jti-1"));
+
+		list.revoke("jti-1", Long.MAX_VALUE);
+		list.revoke(null, Long.MAX_VALUE);
+		assertTrue(list.isRevoked("jti-1"));
+		assertFalse(list.isRevoked("jti-2"));
+		assertFalse(list.isRevoked(null));
+		assertEquals(1, list.size());
+	}
+
+	@Test
+	void filterGrowsWithoutLosingRevocations() {
+		TokenRevocationList list = list(4, 0.01);
+		for (int i = 0; i < 100; i++) {
+			list.revoke("jti-" + i, Long.MAX_VALUE);
+		}
+		for (int i = 0; i < 100; i++) {
+			assertTrue(list.isRevoked("jti-" + i));
+		}
+		// A filter still sized for four entries would answer "maybe" for nearly every other id
+		for (int i = 0; i < 1000; i++) {
+			assertFalse(list.isRevoked("jti-other-" + i));
+		}
+		assertTrue(list.getFalsePositiveCount() < 100, "false positives: " + list.getFalsePositiveCount());
+	}
+
+	@Test
+	void falsePositivesOfTheFilterAreResolvedByTheExactSet() {
+		// A filter this small answers "maybe" for many ids that were never revoked
+		TokenRevocationList list = list(1, 0.5);
+		list.revoke("jti-revoked", Long.MAX_VALUE);
+		for (int i = 0; i < 1000; i++) {
+			assertFalse(list.isRevoked("jti-other-" + i));
+		}
+		assertTrue(list.getFalsePositiveCount() > 0);
+		assertEquals(list.getFalsePositiveCount(), list.getFilterPositiveCount());
+	}
+
+	@Test
+	void pruneDropsExpiredEntriesAndRebuildsTheFilter() {
+		TokenRevocationList list = list(1000, 0.01);
+		list.revoke("jti-expired", System.currentTimeMillis() - 1);
+		list.revoke("jti-live", Long.MAX_VALUE);
+		assertEquals(2, list.size());
+
+		list.prune();
+		assertEquals(1, list.size());
+		assertTrue(list.isRevoked("jti-live"));
+		long positives = list.getFilterPositiveCount();
+		// Cleared by the rebuilt filter, not only by the exact set
+		assertFalse(list.isRevoked("jti-expired"));
+		assertEquals(positives, list.getFilterPositiveCount());
+	}
+}
@@ -0,0 +1,210 @@
+package com.cognizant.authenticationservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.cognizant.authenticationservice.audit.AuditJournal;
+import com.cognizant.authenticationservice.cache.CachingUserDetailsService;
+import com.cognizant.authenticationservice.cache.VerifiedTokenCache;
+import com.cognizant.authenticationservice.dto.EmployeeDto;
+import com.cognizant.authenticationservice.feignclient.EmployeeFeignClient;
+import com.cognizant.authenticationservice.security.OpaqueTokenStore;
+import com.cognizant.authenticationservice.security.PasswordHashingExecutor;
+import com.cognizant.authenticationservice.security.RefreshTokenStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+
+class BulkRegistrationServiceTests {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private final EmployeeFeignClient employeeFeignClient = mock(EmployeeFeignClient.class);
+	private final PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(2, 16,
+			Duration.ofSeconds(5), Duration.ofSeconds(1), new SimpleMeterRegistry());
+	// Every batch sent to the employee service
+	private final List<List<EmployeeDto>> sent = new CopyOnWriteArrayList<>();
+
+	private BulkRegistrationService service(PasswordEncoder passwordEncoder, int batchSize, int maxRecords) {
+		when(employeeFeignClient.registerAll(anyList())).thenAnswer(invocation -> {
+			List<EmployeeDto> employees = invocation.getArgument(0);
+			sent.add(employees);
+			List<EmployeeDto> saved = new ArrayList<>();
+			for (EmployeeDto employee : employees) {
+				EmployeeDto copy = new EmployeeDto();
+				copy.setUsername(employee.getUsername());
+				copy.setEmployeeId(100 + employee.getEmployeeId());
+				saved.add(copy);
+			}
+			return ResponseEntity.ok(saved);
+		});
+		CachingUserDetailsService userDetailsService = new CachingUserDetailsService(username -> {
+			throw new UsernameNotFoundException(username);
+		}, Duration.ofMinutes(1), Duration.ofMinutes(1), 100);
+		return new BulkRegistrationService(objectMapper, Validation.buildDefaultValidatorFactory().getValidator(),
+				passwordEncoder, passwordHashingExecutor, employeeFeignClient, userDetailsService,
+				new VerifiedTokenCache(true, 100, Duration.ofMinutes(10)),
+				new RefreshTokenStore(false, Duration.ofDays(7), 100, ""),
+				new OpaqueTokenStore(false, Duration.ofMinutes(30), Duration.ofHours(12), 1, 1, ""),
+				new AuditJournal(false, "audit", 1024, 1, 16, Duration.ofMillis(50)),
+				batchSize, maxRecords, 0);
+	}
+
+	private static String record(int id, String username, String password) {
+		return "{\"employeeId\":" + id + ",\"managerId\":1,\"username\":\"" + username + "\",\"password\":\"" + password
+				+ "\",\"firstName\":\"Test\",\"lastName\":\"User\",\"email\":\"" + username + "@example.com\","
+				+ "\"phoneNumber\":\"0123456789\",\"department\":\"IT\",\"role\":\"ROLE_EMPLOYEE\",\"joinedDate\":\"2020-01-01\"}";
+	}
+
+	private List<JsonNode> register(BulkRegistrationService service, String body) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		service.register(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+		List<JsonNode> results = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).lines().toList()) {
+			results.add(objectMapper.readTree(line));
+		}
+		return results;
+	}
+
+	private List<String> sentPasswords() {
+		return sent.stream().flatMap(List::stream).map(EmployeeDto::getPassword).toList();
+	}
+
+	@AfterEach
+	void shutdown() {
+		passwordHashingExecutor.shutdown();
+	}
+
+	@Test
+	void passwordsBeyondBcryptsLimitAreInvalidAndNeverSent() throws Exception {
+		BulkRegistrationService service = service(new BCryptPasswordEncoder(4), 10, 100);
+		String tooLong = "Secret12" + "x".repeat(65);
+		// 41 characters, but 73 bytes in UTF-8
+		String tooManyBytes = "Secret12" + "é".repeat(32) + "x";
+
+		List<JsonNode> results = register(service, "[" + record(1, "alice", "Secret123") + ","
+				+ record(2, "bob", tooLong) + "," + record(3, "carol", tooManyBytes) + "]");
+
+		assertEquals("CREATED", results.get(0).get("status").asText());
+		for (JsonNode result : results.subList(1, 3)) {
+			assertEquals("INVALID", result.get("status").asText());
+			assertEquals("password: Password must be at most 72 bytes", result.get("errors").get(0).asText());
+		}
+		assertEquals(1, sent.size());
+		assertEquals(List.of("alice"), sent.get(0).stream().map(EmployeeDto::getUsername).toList());
+		assertTrue(sentPasswords().get(0).startsWith("$2a$04$"));
+	}
+
+	@Test
+	void encoderFailureFailsOnlyThatRecordAndKeepsItsPasswordLocal() throws Exception {
+		PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+		when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+			String raw = invocation.getArgument(0).toString();
+			if (raw.equals("Explode123")) {
+				throw new IllegalArgumentException("password cannot be hashed");
+			}
+			return "{bcrypt}hash-of-" + raw.length();
+		});
+		BulkRegistrationService service = service(passwordEncoder, 10, 100);
+
+		List<JsonNode> results = register(service,
+				record(1, "alice", "Secret123") + "\n" + record(2, "bob", "Explode123") + "\n");
+
+		assertEquals("CREATED", results.get(0).get("status").asText());
+		assertEquals("FAILED", results.get(1).get("status").asText());
+		assertEquals("Password could not be hashed.", results.get(1).get("errors").get(0).asText());
+		assertEquals(List.of("{bcrypt}hash-of-9"), sentPasswords());
+	}
+
+	@Test
+	void invalidRecordsAreReportedInPlaceWhileValidOnesAreRegistered() throws Exception {
+		BulkRegistrationService service = service(new BCryptPasswordEncoder(4), 10, 100);
+
+		List<JsonNode> results = register(service, "[" + record(1, "alice", "Secret123") + ","
+				+ record(2, "b", "weak") + ",{\"employeeId\":\"not-a-number\"},null," + record(5, "dave", "Secret123") + "]");
+
+		assertEquals(5, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(i, results.get(i).get("index").asInt());
+		}
+		assertEquals("CREATED", results.get(0).get("status").asText());
+		assertEquals(101, results.get(0).get("employeeId").asInt());
+		assertEquals("INVALID", results.get(1).get("status").asText());
+		// Every violation of the record, sorted
+		assertEquals(3, results.get(1).get("errors").size());
+		assertTrue(results.get(1).get("errors").get(0).asText().startsWith("password: "));
+		assertTrue(results.get(1).get("errors").get(2).asText().startsWith("username: "));
+		assertTrue(results.get(2).get("errors").get(0).asText().startsWith("Unreadable record: "));
+		assertTrue(results.get(3).get("errors").get(0).asText().startsWith("Unreadable record: "));
+		assertEquals("CREATED", results.get(4).get("status").asText());
+		assertEquals(1, sent.size());
+		assertEquals(2, sent.get(0).size());
+	}
+
+	@Test
+	void recordsAreSentOneBatchAtATime() throws Exception {
+		BulkRegistrationService service = service(new BCryptPasswordEncoder(4), 2, 100);
+		StringBuilder body = new StringBuilder();
+		for (int i = 1; i <= 5; i++) {
+			body.append(record(i, "user" + i, "Secret123")).append('\n');
+		}
+
+		List<JsonNode> results = register(service, body.toString());
+
+		assertEquals(5, results.size());
+		assertEquals(List.of(2, 2, 1), sent.stream().map(List::size).toList());
+		assertEquals("user5", results.get(4).get("username").asText());
+		assertTrue(results.stream().allMatch(result -> result.get("status").asText().equals("CREATED")));
+	}
+
+	@Test
+	void importStopsAtMaxRecords() throws Exception {
+		BulkRegistrationService service = service(new BCryptPasswordEncoder(4), 2, 3);
+		StringBuilder body = new StringBuilder("[");
+		for (int i = 1; i <= 5; i++) {
+			body.append(i > 1 ? "," : "").append(record(i, "user" + i, "Secret123"));
+		}
+
+		List<JsonNode> results = register(service, body.append("]").toString());
+
+		assertEquals(4, results.size());
+		assertEquals("INVALID", results.get(3).get("status").asText());
+		assertEquals("Too many records; the limit is 3", results.get(3).get("errors").get(0).asText());
+		assertEquals(3, sent.stream().mapToInt(List::size).sum());
+	}
+
+	@Test
+	void malformedJsonEndsTheImportAfterTheRecordsBeforeIt() throws Exception {
+		BulkRegistrationService service = service(new BCryptPasswordEncoder(4), 10, 100);
+
+		List<JsonNode> results = register(service, "[" + record(1, "alice", "Secret123") + ",{\"username\": }, "
+				+ record(3, "carol", "Secret123") + "]");
+
+		assertEquals(2, results.size());
+		assertEquals("CREATED", results.get(0).get("status").asText());
+		assertEquals("INVALID", results.get(1).get("status").asText());
+		assertTrue(results.get(1).get("errors").get(0).asText().startsWith("Malformed JSON: "));
+		assertEquals(List.of("alice"), sent.get(0).stream().map(EmployeeDto::getUsername).toList());
+	}
+}
@@ -0,0 +1,141 @@
+package com.cognizant.authenticationservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+
+import com.cognizant.authenticationservice.controller.JwksController;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtKeyRingTests {
+
+	private static final String PASSWORD = "changeit";
+
+	private static JwtKeyRing keyRing(Duration retention) {
+		return new JwtKeyRing(retention, retention, "", "");
+	}
+
+	private static JwtUtil jwtUtil(JwtKeyRing keyRing) {
+		return new JwtUtil(keyRing, new SimpleMeterRegistry());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Map<String, Object>> keys(Map<String, Object> jwks) {
+		return (List<Map<String, Object>>) jwks.get("keys");
+	}
+
+	private static List<Object> kids(JwtKeyRing keyRing) {
+		return keys(keyRing.getJwks()).stream().map(key -> key.get("kid")).toList();
+	}
+
+	// The kid from the token's header
+	private static String kidOf(String token) {
+		String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+		return header.replaceAll(".*\"kid\":\"([^\"]+)\".*", "$1");
+	}
+
+	// Same command as in the README, with the start date relative to now
+	private static void addKey(Path keyStore, String alias, String startDate) throws Exception {
+		Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+				"-genkeypair", "-keystore", keyStore.toString(), "-storetype", "PKCS12", "-storepass", PASSWORD,
+				"-alias", alias, "-keyalg", "EC", "-groupname", "secp256r1", "-dname", "CN=jwt",
+				"-startdate", startDate, "-validity", "400")
+				.redirectErrorStream(true)
+				.start();
+		String output = new String(keytool.getInputStream().readAllBytes());
+		assertEquals(0, keytool.waitFor(), output);
+	}
+
+	@Test
+	void tokenSignedBeforeRotationVerifiesUntilItsKeyIsDropped() throws InterruptedException {
+		JwtKeyRing keyRing = keyRing(Duration.ofMillis(200));
+		JwtUtil jwtUtil = jwtUtil(keyRing);
+		String before = jwtUtil.generateToken("alice", "ROLE_EMPLOYEE");
+		String retiredKid = keyRing.getActiveKey().getId();
+		assertEquals(retiredKid, kidOf(before));
+		List<Object> published = kids(keyRing);
+
+		keyRing.rotate();
+		// The next key, published ahead, signs now; the old one still verifies
+		assertEquals(published.get(1), keyRing.getActiveKey().getId());
+		assertNotNull(jwtUtil.verify(before));
+		assertNotNull(jwtUtil.verify(jwtUtil.generateToken("bob", "ROLE_EMPLOYEE")));
+		assertEquals(3, kids(keyRing).size());
+
+		Thread.sleep(300);
+		keyRing.rotate();
+		// Its key is no longer published, so the kid is unknown
+		assertFalse(kids(keyRing).contains(retiredKid));
+		assertNull(jwtUtil.verify(before));
+	}
+
+	@Test
+	void retentionShorterThanTheTokenLifetimeIsRefused() {
+		assertThrows(IllegalStateException.class,
+				() -> new JwtKeyRing(Duration.ofHours(1), Duration.ofHours(10), "", ""));
+	}
+
+	@Test
+	void jwksDocumentAndItsETagChangeOnRotation() {
+		JwtKeyRing keyRing = keyRing(Duration.ofHours(10));
+		@SuppressWarnings("unchecked")
+		ObjectProvider<JwtKeyRing> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(keyRing);
+		JwksController controller = new JwksController(provider, Duration.ofHours(1));
+
+		ResponseEntity<Map<String, Object>> before = controller.jwks();
+		assertEquals(before.getHeaders().getETag(), controller.jwks().getHeaders().getETag());
+		assertEquals(2, keys(before.getBody()).size());
+		Map<String, Object> jwk = keys(before.getBody()).get(0);
+		assertEquals("EC", jwk.get("kty"));
+		assertEquals("P-256", jwk.get("crv"));
+		assertEquals(43, ((String) jwk.get("x")).length());
+
+		keyRing.rotate();
+		ResponseEntity<Map<String, Object>> after = controller.jwks();
+		assertNotEquals(before.getBody(), after.getBody());
+		assertNotEquals(before.getHeaders().getETag(), after.getHeaders().getETag());
+		assertEquals(3, keys(after.getBody()).size());
+	}
+
+	@Test
+	void keysAreReadFromAPkcs12KeyStoreByTheirStartDates(@TempDir Path directory) throws Exception {
+		Path keyStore = directory.resolve("jwt-keys.p12");
+		addKey(keyStore, "previous", "-2d");
+		addKey(keyStore, "current", "-1d");
+		addKey(keyStore, "upcoming", "+1d");
+
+		JwtKeyRing keyRing = new JwtKeyRing(Duration.ofDays(7), Duration.ofHours(10), keyStore.toString(), PASSWORD);
+		assertEquals("current", keyRing.getActiveKey().getId());
+		assertEquals(List.of("current", "upcoming", "previous"), kids(keyRing));
+
+		JwtUtil jwtUtil = jwtUtil(keyRing);
+		String token = jwtUtil.generateToken("alice", "ROLE_EMPLOYEE");
+		assertEquals("current", kidOf(token));
+		assertEquals("alice", jwtUtil.verify(token).getSubject());
+
+		// Rotation follows the start dates, not the scheduler; a replica reading the same file agrees
+		keyRing.rotate();
+		assertEquals("current", keyRing.getActiveKey().getId());
+		JwtKeyRing replica = new JwtKeyRing(Duration.ofDays(7), Duration.ofHours(10), keyStore.toString(), PASSWORD);
+		assertEquals(keyRing.getJwks(), replica.getJwks());
+		assertNotNull(jwtUtil(replica).verify(token));
+	}
+}
@@ -0,0 +1,103 @@
+package com.cognizant.authenticationservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtUtilTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private long verifications(String algorithm, String result) {
+		return registry.get("auth.jwt.verify").tag("algorithm", algorithm).tag("result", result).timer().count();
+	}
+
+	private static JwtKeyRing keyRing() {
+		return new JwtKeyRing(Duration.ofHours(10), Duration.ofHours(10), "", "");
+	}
+
+	// Replaces the payload and keeps the original signature
+	private static String withSubject(String token, String from, String to) {
+		String[] parts = token.split("\\.");
+		String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+		String forged = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(payload.replace(from, to).getBytes(StandardCharsets.UTF_8));
+		return parts[0] + "." + forged + "." + parts[2];
+	}
+
+	@Test
+	void validTokenReturnsItsClaims() {
+		JwtUtil jwtUtil = new JwtUtil((JwtKeyRing) null, registry);
+		VerifiedToken verified = jwtUtil.verify(jwtUtil.generateToken("alice", "ROLE_EMPLOYEE", 7, 1, "v1"));
+		assertEquals("alice", verified.getSubject());
+		assertEquals("ROLE_EMPLOYEE", verified.getRole());
+		assertEquals(7, verified.getEmployeeId());
+		assertEquals("v1", verified.getCredentialVersion());
+		assertEquals(1, verifications("HS256", "valid"));
+	}
+
+	@Test
+	void tamperedAndWronglySignedTokensAreInvalid() {
+		JwtUtil jwtUtil = new JwtUtil((JwtKeyRing) null, registry);
+		String token = jwtUtil.generateToken("alice", "ROLE_EMPLOYEE");
+		assertNull(jwtUtil.verify(withSubject(token, "alice", "admin")));
+
+		String otherKey = Jwts.builder().setSubject("alice")
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor("another-secret-of-at-least-32-bytes".getBytes(StandardCharsets.UTF_8)),
+						SignatureAlgorithm.HS256)
+				.compact();
+		assertNull(jwtUtil.verify(otherKey));
+		assertNull(jwtUtil.verify("not.a.token"));
+
+		assertEquals(3, verifications("HS256", "invalid"));
+		assertEquals(0, verifications("HS256", "valid"));
+		assertEquals(0, verifications("HS256", "expired"));
+	}
+
+	@Test
+	void expiredTokenIsRejectedAndTimedAsExpired() {
+		JwtKeyRing keyRing = keyRing();
+		JwtUtil jwtUtil = new JwtUtil(keyRing, registry);
+		JwtKeyRing.SigningKey key = keyRing.getActiveKey();
+		String expired = Jwts.builder().setSubject("alice")
+				.setExpiration(new Date(System.currentTimeMillis() - 1000))
+				.setHeaderParam(JwsHeader.KEY_ID, key.getId())
+				.signWith(key.getPrivateKey(), SignatureAlgorithm.ES256)
+				.compact();
+
+		assertNull(jwtUtil.verify(expired));
+		assertEquals(1, verifications("ES256", "expired"));
+		assertEquals(0, verifications("ES256", "invalid"));
+	}
+
+	@Test
+	void es256TokenOfAnotherKeyIsInvalid() {
+		JwtKeyRing keyRing = keyRing();
+		JwtKeyRing otherRing = keyRing();
+		JwtUtil jwtUtil = new JwtUtil(keyRing, registry);
+		JwtUtil other = new JwtUtil(otherRing, new SimpleMeterRegistry());
+		assertNull(jwtUtil.verify(other.generateToken("alice", "ROLE_EMPLOYEE")));
+
+		// A known kid does not make a token signed with another key valid
+		String wrongKey = Jwts.builder().setSubject("alice")
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKey().getId())
+				.signWith(otherRing.getActiveKey().getPrivateKey(), SignatureAlgorithm.ES256)
+				.compact();
+		assertNull(jwtUtil.verify(wrongKey));
+		assertEquals(2, verifications("ES256", "invalid"));
+	}
+}
@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+#
+# Time to first request of the default jar versus the fast-start build (Spring AOT + CDS archive).
+#
+# Builds with -Pfast-start, then starts each variant RUNS times and measures the time from launching the JVM
+# until /actuator/health answers. Both variants run with the same arguments, extra arguments are passed to
+# the service (e.g. --employee-service.url=http://localhost:9090).
+#
+#   ./startup-comparison.sh
+#   RUNS=10 SKIP_BUILD=1 ./startup-comparison.sh --eureka.client.service-url.defaultZone=http://eureka:8761/eureka/
+#
+set -euo pipefail
+cd "$(dirname "$0")"
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18081}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR=target/authenticationservice-0.0.1-SNAPSHOT.jar
+FAST_DIR=target/fast-start
+
+if [[ -z "${SKIP_BUILD:-}" ]]; then
+	${MVN:-mvn} -q -B -Pfast-start -DskipTests package
+fi
+
+now_ms() {
+	date +%s%3N
+}
+
+# Prints the milliseconds from launch to the first HTTP response on /actuator/health
+measure() {
+	local start pid elapsed
+	start=$(now_ms)
+	"$@" --server.port="$PORT" "${SERVICE_ARGS[@]}" > /dev/null 2>&1 &
+	pid=$!
+	until curl -s -o /dev/null "http://localhost:$PORT/actuator/health"; do
+		if ! kill -0 "$pid" 2> /dev/null; then
+			echo "service exited before answering" >&2
+			return 1
+		fi
+		sleep 0.05
+	done
+	elapsed=$(( $(now_ms) - start ))
+	kill "$pid"
+	wait "$pid" 2> /dev/null || true
+	echo "$elapsed"
+}
+
+median() {
+	sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+SERVICE_ARGS=("$@")
+declare -A RESULTS
+for variant in default fast-start; do
+	samples=()
+	for ((i = 1; i <= RUNS; i++)); do
+		if [[ $variant == default ]]; then
+			samples+=("$(measure "$JAVA" -jar "$JAR")")
+		else
+			samples+=("$(measure "$JAVA" -XX:SharedArchiveFile="$FAST_DIR/application.jsa" -Xlog:cds=off \
+				-Dspring.aot.enabled=true -jar "$FAST_DIR/$(basename "$JAR")")")
+		fi
+	done
+	RESULTS[$variant]=$(printf '%s\n' "${samples[@]}" | median)
+	echo "$variant: ${samples[*]} ms (median ${RESULTS[$variant]} ms)"
+done
+
+echo "Time to first request, median of $RUNS: default ${RESULTS[default]} ms, fast-start ${RESULTS[fast-start]} ms" \
+	"($(( 100 - 100 * RESULTS[fast-start] / RESULTS[default] ))% faster)"
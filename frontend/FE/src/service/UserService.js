@@ -1,7 +1,7 @@
 import axios from 'axios';
 
-// Base URL for authentication API
-const API_AUTH_URL = 'http://localhost:8081/api/auth';
+// Base URL for authentication API, through the gateway
+const API_AUTH_URL = `${process.env.REACT_APP_GATEWAY_URL || 'http://localhost:8080'}/api/auth`;
 
 /**
  * Authenticate user by sending login credentials.
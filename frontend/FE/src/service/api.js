@@ -1,13 +1,16 @@
 import axios from "axios";
 
-// Employee API (Port 9090)
+// Every call goes through the gateway (Port 8080), which routes to the services
+const GATEWAY_URL = process.env.REACT_APP_GATEWAY_URL || "http://localhost:8080";
+
+// Employee API
 const api = axios.create({
-  baseURL: "http://localhost:9090/api",
+  baseURL: `${GATEWAY_URL}/api`,
 });
 
-// Auth API (Port 8081)
+// Auth API
 const authApi = axios.create({
-  baseURL: "http://localhost:8081/api/auth",
+  baseURL: `${GATEWAY_URL}/api/auth`,
 });
 
 // Automatically attach JWT token to every request (if available)
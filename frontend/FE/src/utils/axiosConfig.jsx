@@ -2,7 +2,7 @@ import axios from 'axios';
 
 // Create an Axios instance with a base URL
 const instance = axios.create({
-  baseURL: 'http://localhost:8081', // Replace with your backend URL
+  baseURL: process.env.REACT_APP_GATEWAY_URL || 'http://localhost:8080', // Gateway URL
 });
 
 /**
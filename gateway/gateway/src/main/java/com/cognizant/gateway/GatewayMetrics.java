@@ -0,0 +1,43 @@
+package com.cognizant.gateway;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.cognizant.gateway.cache.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the statistics the verified-token cache already keeps; the meters read its counters when the
+ * registry is scraped.
+ */
+@Component
+public class GatewayMetrics implements MeterBinder {
+
+	@Autowired
+	private VerifiedTokenCache verifiedTokenCache;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("gateway.token.cache.size", verifiedTokenCache, VerifiedTokenCache::size)
+				.description("Verified tokens cached")
+				.register(registry);
+		Gauge.builder("gateway.token.cache.max.size", verifiedTokenCache, VerifiedTokenCache::getMaxSize)
+				.register(registry);
+		FunctionCounter.builder("gateway.token.cache.requests", verifiedTokenCache, VerifiedTokenCache::getHitCount)
+				.tag("result", "hit")
+				.register(registry);
+		FunctionCounter.builder("gateway.token.cache.requests", verifiedTokenCache, VerifiedTokenCache::getMissCount)
+				.tag("result", "miss")
+				.register(registry);
+		FunctionCounter.builder("gateway.token.cache.removals", verifiedTokenCache, VerifiedTokenCache::getEvictionCount)
+				.tag("cause", "size")
+				.register(registry);
+		FunctionCounter.builder("gateway.token.cache.removals", verifiedTokenCache, VerifiedTokenCache::getExpirationCount)
+				.tag("cause", "expired")
+				.register(registry);
+	}
+}
@@ -0,0 +1,158 @@
+package com.cognizant.gateway.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cognizant.gateway.security.VerifiedIdentity;
+
+/**
+ * Bounded, concurrent cache of bearer tokens the gateway has already verified, so each token's signature is
+ * checked once at the edge rather than on every request. Entries are keyed by a SHA-256 digest of the token
+ * (the raw token is never kept) and never outlive the token's {@code exp} claim.
+ */
+@Component
+public class VerifiedTokenCache {
+
+	@Value("${gateway.token-cache.enabled:true}")
+	private boolean enabled = true;
+
+	@Value("${gateway.token-cache.max-size:100000}")
+	private int maxSize = 100000;
+
+	// Upper bound on how long a verification is trusted, even if the token lives longer
+	@Value("${gateway.token-cache.ttl:PT5M}")
+	private Duration ttl = Duration.ofMinutes(5);
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean evicting = new AtomicBoolean();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	/**
+	 * @return the cached identity for this token, or {@code null} if absent or expired
+	 */
+	public VerifiedIdentity get(String token) {
+		if (!enabled) {
+			return null;
+		}
+		String key = digest(token);
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+			if (entries.remove(key, entry)) {
+				expirations.increment();
+			}
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.identity;
+	}
+
+	public void put(String token, VerifiedIdentity identity) {
+		if (!enabled) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long expiresAt = Math.min(identity.getExpiresAtMillis(), now + ttl.toMillis());
+		if (expiresAt <= now) {
+			return;
+		}
+		entries.put(digest(token), new Entry(identity, expiresAt));
+		if (entries.size() > maxSize) {
+			evict(now);
+		}
+	}
+
+	/**
+	 * Removes the entry for a single token, e.g. on logout.
+	 */
+	public void invalidate(String token) {
+		entries.remove(digest(token));
+	}
+
+	// Drops expired entries first, then arbitrary ones, until the cache is 10% below its bound.
+	// Only one thread sweeps at a time; the others keep serving from the map meanwhile.
+	private void evict(long now) {
+		if (!evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+				if (it.next().expiresAtMillis <= now) {
+					it.remove();
+					expirations.increment();
+				}
+			}
+			int target = maxSize - maxSize / 10;
+			for (Iterator<Entry> it = entries.values().iterator(); it.hasNext() && entries.size() > target;) {
+				it.next();
+				it.remove();
+				evictions.increment();
+			}
+		} finally {
+			evicting.set(false);
+		}
+	}
+
+	private static String digest(String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	public long getExpirationCount() {
+		return expirations.sum();
+	}
+
+	private static final class Entry {
+		private final VerifiedIdentity identity;
+		private final long expiresAtMillis;
+
+		private Entry(VerifiedIdentity identity, long expiresAtMillis) {
+			this.identity = identity;
+			this.expiresAtMillis = expiresAtMillis;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.cognizant.gateway.filter;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.cognizant.gateway.cache.VerifiedTokenCache;
+import com.cognizant.gateway.security.IdentityHeaders;
+import com.cognizant.gateway.security.TokenVerifier;
+import com.cognizant.gateway.security.VerifiedIdentity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies the bearer token of every routed request once, at the edge.
+ * <p>
+ * A token is verified on its first request and then served from the {@link VerifiedTokenCache}. Requests
+ * with an invalid or expired token are answered with 401 without reaching a service; on the
+ * {@code gateway.auth.public-paths}, which do not need a token, it is dropped instead. Requests without a
+ * token are passed on for the services to decide, and so are opaque tokens (no dots), which only the
+ * authentication service can resolve. The verified identity goes downstream in the
+ * {@link IdentityHeaders}, and any such headers sent by the client are removed. The {@code Authorization}
+ * header is forwarded as well, for services that do not take the identity headers.
+ * <p>
+ * A successful logout through this gateway removes the token from its cache at once. Logouts through
+ * another gateway instance are seen here after {@code gateway.token-cache.ttl} at most; the authentication
+ * service itself checks revocations on every request.
+ */
+@Component
+public class EdgeAuthenticationFilter implements GlobalFilter, Ordered {
+
+	private static final Logger log = LoggerFactory.getLogger(EdgeAuthenticationFilter.class);
+
+	private static final String LOGOUT_PATH = "/api/auth/logout";
+
+	private final TokenVerifier tokenVerifier;
+	private final VerifiedTokenCache verifiedTokenCache;
+	private final IdentityHeaders identityHeaders;
+	private final List<String> publicPaths;
+
+	private final Counter anonymousCounter;
+	private final Counter opaqueCounter;
+	private final Counter cachedCounter;
+	private final Counter verifiedCounter;
+	private final Counter rejectedCounter;
+
+	public EdgeAuthenticationFilter(TokenVerifier tokenVerifier, VerifiedTokenCache verifiedTokenCache,
+			IdentityHeaders identityHeaders,
+			@Value("${gateway.auth.public-paths:/api/auth/login,/api/auth/refresh,/.well-known/jwks.json}") List<String> publicPaths,
+			MeterRegistry meterRegistry) {
+		this.tokenVerifier = tokenVerifier;
+		this.verifiedTokenCache = verifiedTokenCache;
+		this.identityHeaders = identityHeaders;
+		this.publicPaths = List.copyOf(publicPaths);
+		this.anonymousCounter = requestCounter(meterRegistry, "anonymous");
+		this.opaqueCounter = requestCounter(meterRegistry, "opaque");
+		this.cachedCounter = requestCounter(meterRegistry, "cached");
+		this.verifiedCounter = requestCounter(meterRegistry, "verified");
+		this.rejectedCounter = requestCounter(meterRegistry, "rejected");
+	}
+
+	private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("gateway.auth.requests")
+				.description("Routed requests by outcome of the edge token check")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			anonymousCounter.increment();
+			return chain.filter(forward(exchange, null, false));
+		}
+
+		String token = authHeader.substring(7);
+		if (token.indexOf('.') < 0) {
+			opaqueCounter.increment();
+			return chain.filter(forward(exchange, null, false));
+		}
+
+		VerifiedIdentity identity = verifiedTokenCache.get(token);
+		if (identity != null) {
+			cachedCounter.increment();
+		} else {
+			identity = tokenVerifier.verify(token);
+			if (identity != null) {
+				verifiedTokenCache.put(token, identity);
+				verifiedCounter.increment();
+			}
+		}
+
+		String path = request.getPath().value();
+		if (identity == null) {
+			if (publicPaths.contains(path)) {
+				anonymousCounter.increment();
+				return chain.filter(forward(exchange, null, true));
+			}
+			rejectedCounter.increment();
+			log.debug("[EDGE-AUTH] Rejected invalid or expired token for {}", path);
+			exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+			exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+			return exchange.getResponse().setComplete();
+		}
+
+		Mono<Void> result = chain.filter(forward(exchange, identity, false));
+		if (LOGOUT_PATH.equals(path)) {
+			return result.then(Mono.fromRunnable(() -> {
+				HttpStatusCode status = exchange.getResponse().getStatusCode();
+				if (status != null && status.is2xxSuccessful()) {
+					verifiedTokenCache.invalidate(token);
+				}
+			}));
+		}
+		return result;
+	}
+
+	private ServerWebExchange forward(ServerWebExchange exchange, VerifiedIdentity identity, boolean dropToken) {
+		return exchange.mutate()
+				.request(builder -> builder.headers(headers -> {
+					identityHeaders.apply(headers, identity);
+					if (dropToken) {
+						headers.remove(HttpHeaders.AUTHORIZATION);
+					}
+				}))
+				.build();
+	}
+
+	// Ahead of the routing filters, which copy the request headers into the downstream request
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 100;
+	}
+}
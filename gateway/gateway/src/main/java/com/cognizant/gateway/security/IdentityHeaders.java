@@ -0,0 +1,91 @@
+package com.cognizant.gateway.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * The headers that carry a verified identity to the services behind the gateway, and their signature.
+ * <p>
+ * The signature is an HMAC-SHA256, keyed with {@code gateway.identity.secret}, over the header values
+ * joined by newlines in this order: token id, username, role, employee id, manager id, credential version,
+ * expiry in epoch milliseconds. Absent values are empty strings. It is base64url-encoded without padding.
+ * A service that shares the secret can trust the headers after one HMAC, without parsing the token; one
+ * that does not can ignore them and verify the forwarded {@code Authorization} header as before.
+ * <p>
+ * Incoming headers with these names are always removed, so a client cannot pass itself off as someone else.
+ */
+@Component
+public class IdentityHeaders {
+
+	public static final String PREFIX = "X-Auth-";
+	public static final String TOKEN_ID = "X-Auth-Token-Id";
+	public static final String USERNAME = "X-Auth-Username";
+	public static final String ROLE = "X-Auth-Role";
+	public static final String EMPLOYEE_ID = "X-Auth-Employee-Id";
+	public static final String MANAGER_ID = "X-Auth-Manager-Id";
+	public static final String CREDENTIAL_VERSION = "X-Auth-Credential-Version";
+	public static final String EXPIRES = "X-Auth-Expires";
+	public static final String SIGNATURE = "X-Auth-Signature";
+
+	private final SecretKeySpec key;
+
+	public IdentityHeaders(@Value("${gateway.identity.secret:}") String secret) {
+		this.key = secret.isEmpty() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+	}
+
+	public boolean isEnabled() {
+		return key != null;
+	}
+
+	/**
+	 * @return the signature of the headers for these claims, or {@code null} if no secret is configured
+	 */
+	public String sign(String tokenId, String username, String role, Integer employeeId, Integer managerId,
+			String credentialVersion, long expiresAtMillis) {
+		if (key == null) {
+			return null;
+		}
+		String canonical = String.join("\n", valueOf(tokenId), valueOf(username), valueOf(role), valueOf(employeeId),
+				valueOf(managerId), valueOf(credentialVersion), Long.toString(expiresAtMillis));
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(key);
+			return Base64.getUrlEncoder().withoutPadding()
+					.encodeToString(mac.doFinal(canonical.getBytes(StandardCharsets.UTF_8)));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("HmacSHA256 not available", e);
+		}
+	}
+
+	/**
+	 * Replaces any identity headers of the incoming request with those of the verified identity.
+	 *
+	 * @param identity the identity to pass on, or {@code null} to only remove them
+	 */
+	public void apply(HttpHeaders headers, VerifiedIdentity identity) {
+		headers.keySet().removeIf(name -> name.regionMatches(true, 0, PREFIX, 0, PREFIX.length()));
+		if (identity == null || identity.getSignature() == null) {
+			return;
+		}
+		headers.set(TOKEN_ID, valueOf(identity.getTokenId()));
+		headers.set(USERNAME, identity.getUsername());
+		headers.set(ROLE, valueOf(identity.getRole()));
+		headers.set(EMPLOYEE_ID, valueOf(identity.getEmployeeId()));
+		headers.set(MANAGER_ID, valueOf(identity.getManagerId()));
+		headers.set(CREDENTIAL_VERSION, valueOf(identity.getCredentialVersion()));
+		headers.set(EXPIRES, Long.toString(identity.getExpiresAtMillis()));
+		headers.set(SIGNATURE, identity.getSignature());
+	}
+
+	private static String valueOf(Object value) {
+		return value == null ? "" : value.toString();
+	}
+}
@@ -0,0 +1,150 @@
+package com.cognizant.gateway.security;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Resolves ES256 verification keys from the authentication service's JWKS document, active when
+ * {@code gateway.jwt.algorithm=ES256}.
+ * <p>
+ * The document is fetched through Eureka ({@code gateway.jwt.jwks-uri}) when the gateway starts, every
+ * {@code gateway.jwt.jwks-refresh-interval}, and when a token names a key id that is not known yet, at most
+ * once per {@code gateway.jwt.jwks-min-refresh-interval}. Fetches never block a request: a token with an
+ * unknown key id is rejected, and the refresh it triggers lets the client's retry through. Since the
+ * authentication service publishes its next key one rotation ahead, that only happens right after the
+ * gateway starts or when a rotation was missed.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.jwt.algorithm", havingValue = "ES256")
+public class JwksKeyResolver extends SigningKeyResolverAdapter {
+
+	private static final Logger log = LoggerFactory.getLogger(JwksKeyResolver.class);
+
+	private final WebClient webClient;
+	private final String jwksUri;
+	private final long minRefreshIntervalMillis;
+
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private volatile long lastRefreshMillis;
+	private volatile Map<String, PublicKey> keys = Map.of();
+
+	public JwksKeyResolver(WebClient.Builder loadBalancedWebClientBuilder,
+			@Value("${gateway.jwt.jwks-uri:http://authenticationservice/.well-known/jwks.json}") String jwksUri,
+			@Value("${gateway.jwt.jwks-min-refresh-interval:PT30S}") Duration minRefreshInterval) {
+		this.webClient = loadBalancedWebClientBuilder.build();
+		this.jwksUri = jwksUri;
+		this.minRefreshIntervalMillis = minRefreshInterval.toMillis();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		refresh();
+	}
+
+	@Scheduled(initialDelayString = "${gateway.jwt.jwks-refresh-interval:PT5M}", fixedDelayString = "${gateway.jwt.jwks-refresh-interval:PT5M}")
+	public void refresh() {
+		if (!refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		lastRefreshMillis = System.currentTimeMillis();
+		webClient.get().uri(jwksUri)
+				.retrieve()
+				.bodyToMono(JwkSet.class)
+				.timeout(Duration.ofSeconds(5))
+				.doFinally(signal -> refreshing.set(false))
+				.subscribe(this::update,
+						e -> log.warn("[JWKS] Unable to fetch {}, keeping {} known key(s). Error: {}", jwksUri,
+								keys.size(), e.getMessage()));
+	}
+
+	@Override
+	public Key resolveSigningKey(JwsHeader header, Claims claims) {
+		String kid = header.getKeyId();
+		PublicKey key = kid == null ? null : keys.get(kid);
+		if (key != null) {
+			return key;
+		}
+		if (System.currentTimeMillis() - lastRefreshMillis >= minRefreshIntervalMillis) {
+			refresh();
+		}
+		throw new SignatureException("Unknown signing key id: " + kid);
+	}
+
+	public int size() {
+		return keys.size();
+	}
+
+	private void update(JwkSet jwks) {
+		Map<String, PublicKey> updated = new HashMap<>();
+		if (jwks.keys != null) {
+			for (Jwk jwk : jwks.keys) {
+				if (!"EC".equals(jwk.kty) || !"P-256".equals(jwk.crv) || jwk.kid == null) {
+					continue;
+				}
+				try {
+					updated.put(jwk.kid, toPublicKey(jwk));
+				} catch (GeneralSecurityException | IllegalArgumentException e) {
+					log.warn("[JWKS] Skipping key {}: {}", jwk.kid, e.getMessage());
+				}
+			}
+		}
+		if (!updated.keySet().equals(keys.keySet())) {
+			log.info("[JWKS] Loaded {} verification key(s) from {}", updated.size(), jwksUri);
+		}
+		keys = Map.copyOf(updated);
+	}
+
+	private static PublicKey toPublicKey(Jwk jwk) throws GeneralSecurityException {
+		AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+		parameters.init(new ECGenParameterSpec("secp256r1"));
+		ECPoint point = new ECPoint(coordinate(jwk.x), coordinate(jwk.y));
+		return KeyFactory.getInstance("EC")
+				.generatePublic(new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+	}
+
+	private static BigInteger coordinate(String value) {
+		return new BigInteger(1, Base64.getUrlDecoder().decode(value));
+	}
+
+	// The subset of RFC 7517 that the authentication service publishes
+	static class JwkSet {
+		public List<Jwk> keys;
+	}
+
+	static class Jwk {
+		public String kty;
+		public String crv;
+		public String kid;
+		public String x;
+		public String y;
+	}
+}
@@ -0,0 +1,106 @@
+package com.cognizant.gateway.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Checks the signature and expiry of the authentication service's access tokens.
+ * <p>
+ * With {@code gateway.jwt.algorithm=HS256} (the default) tokens are checked with the secret the
+ * authentication service signs them with, which must be set in {@code gateway.jwt.secret}: the gateway does
+ * not start without it. With {@code ES256} they are checked with the public keys of its JWKS document.
+ * Revocation is not checked here: logouts are still seen by the authentication service, and the gateway
+ * forgets a token as soon as its logout succeeds.
+ */
+@Component
+public class TokenVerifier {
+
+	private static final Logger log = LoggerFactory.getLogger(TokenVerifier.class);
+
+	// Claim names as issued by the authentication service's JwtUtil
+	static final String ROLE_CLAIM = "role";
+	static final String EMPLOYEE_ID_CLAIM = "employeeId";
+	static final String MANAGER_ID_CLAIM = "managerId";
+	static final String CREDENTIAL_VERSION_CLAIM = "cv";
+
+	private final JwtParser parser;
+	private final IdentityHeaders identityHeaders;
+
+	private final Timer validTimer;
+	private final Timer expiredTimer;
+	private final Timer invalidTimer;
+
+	public TokenVerifier(@Value("${gateway.jwt.algorithm:HS256}") String algorithm,
+			@Value("${gateway.jwt.secret:}") String secret,
+			ObjectProvider<JwksKeyResolver> jwksKeyResolver, IdentityHeaders identityHeaders,
+			MeterRegistry meterRegistry) {
+		JwksKeyResolver resolver = jwksKeyResolver.getIfAvailable();
+		if (resolver == null && secret.isBlank()) {
+			throw new IllegalStateException(
+					"gateway.jwt.secret is not set; it must be the authentication service's HS256 secret");
+		}
+		this.parser = resolver != null ? Jwts.parserBuilder().setSigningKeyResolver(resolver).build()
+				: Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))).build();
+		this.identityHeaders = identityHeaders;
+		this.validTimer = verifyTimer(meterRegistry, algorithm, "valid");
+		this.expiredTimer = verifyTimer(meterRegistry, algorithm, "expired");
+		this.invalidTimer = verifyTimer(meterRegistry, algorithm, "invalid");
+	}
+
+	private static Timer verifyTimer(MeterRegistry meterRegistry, String algorithm, String result) {
+		return Timer.builder("gateway.jwt.verify")
+				.description("Time to parse a token and check its signature and expiry")
+				.tag("algorithm", algorithm)
+				.tag("result", result)
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * @param token compact JWS string
+	 * @return the verified identity, with its header signature, or {@code null} if the token is expired or invalid
+	 */
+	public VerifiedIdentity verify(String token) {
+		long start = System.nanoTime();
+		try {
+			Claims claims = parser.parseClaimsJws(token).getBody();
+			if (claims.getSubject() == null) {
+				invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				return null;
+			}
+			String role = claims.get(ROLE_CLAIM, String.class);
+			Integer employeeId = claims.get(EMPLOYEE_ID_CLAIM, Integer.class);
+			Integer managerId = claims.get(MANAGER_ID_CLAIM, Integer.class);
+			String credentialVersion = claims.get(CREDENTIAL_VERSION_CLAIM, String.class);
+			long expiresAtMillis = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+			VerifiedIdentity identity = new VerifiedIdentity(claims.getId(), claims.getSubject(), role, employeeId,
+					managerId, credentialVersion, expiresAtMillis,
+					identityHeaders.sign(claims.getId(), claims.getSubject(), role, employeeId, managerId,
+							credentialVersion, expiresAtMillis));
+			validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return identity;
+		} catch (ExpiredJwtException e) {
+			expiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			log.debug("JWT token has expired: {}", e.getMessage());
+			return null;
+		} catch (Exception e) {
+			invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			log.debug("Invalid JWT token: {}", e.getMessage());
+			return null;
+		}
+	}
+}
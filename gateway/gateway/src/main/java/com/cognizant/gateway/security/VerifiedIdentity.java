@@ -0,0 +1,65 @@
+package com.cognizant.gateway.security;
+
+/**
+ * The claims of an access token whose signature and expiry the gateway has checked, together with the
+ * signature of the identity headers built from them. Computed once per token and then served from the
+ * {@link com.cognizant.gateway.cache.VerifiedTokenCache}.
+ */
+public final class VerifiedIdentity {
+
+	private final String tokenId;
+	private final String username;
+	private final String role;
+	private final Integer employeeId;
+	private final Integer managerId;
+	private final String credentialVersion;
+	private final long expiresAtMillis;
+	private final String signature;
+
+	public VerifiedIdentity(String tokenId, String username, String role, Integer employeeId, Integer managerId,
+			String credentialVersion, long expiresAtMillis, String signature) {
+		this.tokenId = tokenId;
+		this.username = username;
+		this.role = role;
+		this.employeeId = employeeId;
+		this.managerId = managerId;
+		this.credentialVersion = credentialVersion;
+		this.expiresAtMillis = expiresAtMillis;
+		this.signature = signature;
+	}
+
+	public String getTokenId() {
+		return tokenId;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public String getRole() {
+		return role;
+	}
+
+	public Integer getEmployeeId() {
+		return employeeId;
+	}
+
+	public Integer getManagerId() {
+		return managerId;
+	}
+
+	public String getCredentialVersion() {
+		return credentialVersion;
+	}
+
+	public long getExpiresAtMillis() {
+		return expiresAtMillis;
+	}
+
+	/**
+	 * @return the {@link IdentityHeaders#SIGNATURE} value, or {@code null} if identity headers are not signed
+	 */
+	public String getSignature() {
+		return signature;
+	}
+}
@@ -0,0 +1,151 @@
+package com.cognizant.gateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.cognizant.gateway.cache.VerifiedTokenCache;
+import com.cognizant.gateway.security.IdentityHeaders;
+import com.cognizant.gateway.security.JwksKeyResolver;
+import com.cognizant.gateway.security.TokenVerifier;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class EdgeAuthenticationFilterTests {
+
+	private static final String SECRET = "gateway-test-secret-0123456789abcdef";
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final IdentityHeaders identityHeaders = new IdentityHeaders("identity-secret");
+	private final EdgeAuthenticationFilter filter;
+
+	// The request as it was passed on, or null if the filter answered it itself
+	private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+	private final GatewayFilterChain chain = exchange -> {
+		forwarded.set(exchange);
+		return Mono.empty();
+	};
+
+	@SuppressWarnings("unchecked")
+	EdgeAuthenticationFilterTests() {
+		TokenVerifier tokenVerifier = new TokenVerifier("HS256", SECRET, mock(ObjectProvider.class), identityHeaders,
+				registry);
+		filter = new EdgeAuthenticationFilter(tokenVerifier, new VerifiedTokenCache(), identityHeaders,
+				List.of("/api/auth/login"), registry);
+	}
+
+	private static String token(String secret, long expiresInMillis) {
+		return Jwts.builder()
+				.setId("token-1")
+				.setSubject("alice")
+				.claim("role", "ROLE_EMPLOYEE")
+				.claim("employeeId", 42)
+				.setExpiration(new Date(System.currentTimeMillis() + expiresInMillis))
+				.signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+
+	private MockServerWebExchange send(String path, String token) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.header(IdentityHeaders.USERNAME, "mallory"));
+		filter.filter(exchange, chain).block();
+		return exchange;
+	}
+
+	private void assertRejected(MockServerWebExchange exchange) {
+		assertNull(forwarded.get());
+		assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+		assertEquals("Bearer error=\"invalid_token\"",
+				exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE));
+	}
+
+	private double requests(String result) {
+		return registry.get("gateway.auth.requests").tag("result", result).counter().count();
+	}
+
+	@Test
+	void validTokenIsForwardedWithTheVerifiedIdentity() {
+		send("/api/employees", token(SECRET, 60_000));
+
+		HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+		assertEquals("alice", headers.getFirst(IdentityHeaders.USERNAME));
+		assertEquals("42", headers.getFirst(IdentityHeaders.EMPLOYEE_ID));
+		assertNotNull(headers.getFirst(IdentityHeaders.SIGNATURE));
+		assertNotNull(headers.getFirst(HttpHeaders.AUTHORIZATION));
+		assertEquals(1, requests("verified"));
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		assertRejected(send("/api/employees", token(SECRET, -60_000)));
+		assertEquals(1, requests("rejected"));
+	}
+
+	@Test
+	void tokenSignedWithAnotherKeyIsRejected() {
+		assertRejected(send("/api/employees", token("another-secret-0123456789abcdefghij", 60_000)));
+	}
+
+	@Test
+	void tokenWithAlteredClaimsIsRejected() {
+		String[] parts = token(SECRET, 60_000).split("\\.");
+		String claims = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+				.replace("ROLE_EMPLOYEE", "ROLE_ADMIN");
+		String forged = parts[0] + "."
+				+ Base64.getUrlEncoder().withoutPadding().encodeToString(claims.getBytes(StandardCharsets.UTF_8))
+				+ "." + parts[2];
+
+		assertRejected(send("/api/employees", forged));
+	}
+
+	@Test
+	void invalidTokenOnAPublicPathIsDroppedWithTheClientsIdentityHeaders() {
+		send("/api/auth/login", token(SECRET, -60_000));
+
+		HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+		assertNull(headers.getFirst(HttpHeaders.AUTHORIZATION));
+		assertNull(headers.getFirst(IdentityHeaders.USERNAME));
+		assertEquals(1, requests("anonymous"));
+	}
+
+	@Test
+	void tokenlessRequestIsPassedOnWithoutTheClientsIdentityHeaders() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/employees")
+				.header(IdentityHeaders.USERNAME, "mallory")
+				.header("x-auth-signature", "forged"));
+		filter.filter(exchange, chain).block();
+
+		HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+		assertNull(headers.getFirst(IdentityHeaders.USERNAME));
+		assertNull(headers.getFirst(IdentityHeaders.SIGNATURE));
+	}
+
+	@Test
+	void verifierRefusesToStartWithoutASecret() {
+		@SuppressWarnings("unchecked")
+		ObjectProvider<JwksKeyResolver> noResolver = mock(ObjectProvider.class);
+		assertThrows(IllegalStateException.class,
+				() -> new TokenVerifier("HS256", "", noResolver, identityHeaders, registry));
+	}
+}
@@ -0,0 +1,72 @@
+package com.cognizant.gateway.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class IdentityHeadersTests {
+
+	// Also checked against the authentication service's GatewayIdentity (GatewayIdentityTests there), so a
+	// change to the canonical form on one side only fails a build
+	static final String SHARED_SECRET = "shared-identity-secret";
+	static final String SHARED_SIGNATURE = "uaXtYAVZSrVJzXaywuRJvMxeb482F5C083JbwLpeGlI";
+
+	private final IdentityHeaders identityHeaders = new IdentityHeaders(SHARED_SECRET);
+
+	private static VerifiedIdentity identity(String signature) {
+		return new VerifiedIdentity("5f0c2a7e-1b3d-4c8e-9a61-0d2f4b7e8c13", "alice", "ROLE_MANAGER", 42, 7, "3",
+				4102444800000L, signature);
+	}
+
+	@Test
+	void signatureMatchesTheAuthenticationServiceVector() {
+		assertEquals(SHARED_SIGNATURE, identityHeaders.sign("5f0c2a7e-1b3d-4c8e-9a61-0d2f4b7e8c13", "alice",
+				"ROLE_MANAGER", 42, 7, "3", 4102444800000L));
+		// Absent values sign as empty strings, not as "null"
+		assertEquals(identityHeaders.sign("", "alice", "", null, null, "", 1L),
+				identityHeaders.sign(null, "alice", null, null, null, null, 1L));
+		assertNull(new IdentityHeaders("").sign("id", "alice", "ROLE_MANAGER", 42, 7, "3", 1L));
+	}
+
+	@Test
+	void clientSuppliedHeadersAreReplacedByTheVerifiedIdentity() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(IdentityHeaders.USERNAME, "mallory");
+		headers.set("x-auth-role", "ROLE_ADMIN");
+		headers.set("X-AUTH-SIGNATURE", "forged");
+		headers.set("X-Auth-Anything-Else", "1");
+		headers.set(HttpHeaders.ACCEPT, "application/json");
+
+		identityHeaders.apply(headers, identity(SHARED_SIGNATURE));
+
+		assertEquals("alice", headers.getFirst(IdentityHeaders.USERNAME));
+		assertEquals("ROLE_MANAGER", headers.getFirst(IdentityHeaders.ROLE));
+		assertEquals("42", headers.getFirst(IdentityHeaders.EMPLOYEE_ID));
+		assertEquals("4102444800000", headers.getFirst(IdentityHeaders.EXPIRES));
+		assertEquals(SHARED_SIGNATURE, headers.getFirst(IdentityHeaders.SIGNATURE));
+		assertEquals(1, headers.get(IdentityHeaders.SIGNATURE).size());
+		assertFalse(headers.containsKey("X-Auth-Anything-Else"));
+		assertEquals("application/json", headers.getFirst(HttpHeaders.ACCEPT));
+	}
+
+	@Test
+	void clientSuppliedHeadersAreRemovedWithoutAnIdentity() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(IdentityHeaders.USERNAME, "mallory");
+		headers.set("x-auth-signature", "forged");
+		headers.set(HttpHeaders.ACCEPT, "application/json");
+
+		identityHeaders.apply(headers, null);
+		assertTrue(headers.keySet().stream().noneMatch(name -> name.toLowerCase().startsWith("x-auth-")));
+
+		// Nor are unsigned identities passed on
+		headers.set(IdentityHeaders.USERNAME, "mallory");
+		identityHeaders.apply(headers, identity(null));
+		assertTrue(headers.keySet().stream().noneMatch(name -> name.toLowerCase().startsWith("x-auth-")));
+		assertEquals("application/json", headers.getFirst(HttpHeaders.ACCEPT));
+	}
+}